@@ -0,0 +1,50 @@
+package com.AirlineBooking.AirlineBookig.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Read replicas, enabled by listing their JDBC urls in
+ * booking.datasource.replica-urls (comma separated). Replicas use the
+ * driver and credentials of spring.datasource; without replica urls the
+ * application keeps the single auto-configured datasource.
+ */
+@Configuration
+@ConditionalOnProperty("booking.datasource.replica-urls")
+public class ReplicaDataSourceConfig {
+
+    /**
+     * The primary and the replicas behind one routing datasource
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties,
+            @Value("${booking.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${booking.datasource.primary-pin-ms:5000}") long primaryPinMillis) {
+        DataSource primary = properties.initializeDataSourceBuilder().build();
+        List<DataSource> replicas = replicaUrls.stream()
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .map(url -> (DataSource) properties.initializeDataSourceBuilder().url(url).build())
+                .toList();
+        return new ReplicaRoutingDataSource(primary, replicas, primaryPinMillis);
+    }
+
+    /**
+     * The datasource the application uses: connections are only taken from
+     * the routing datasource at the first statement, once the transaction is
+     * known to be read-only or not
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,156 @@
+package com.AirlineBooking.AirlineBookig.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to the replicas (round robin) and
+ * everything else to the primary.
+ *
+ * The target is chosen when a transaction first needs a connection, so
+ * this has to sit behind a LazyConnectionDataSourceProxy: the read-only
+ * flag of the transaction is only known once it has begun.
+ *
+ * Read-your-writes: once a read-write transaction of a signed-in user
+ * commits, that user's read-only transactions stay on the primary for
+ * primaryPinMillis, which covers the replication lag. Work wrapped in
+ * onPrimary never goes to a replica, for reads that must see writes made
+ * by someone else.
+ *
+ * The pins are kept by user name in this node's memory only. Behind a
+ * load balancer without sticky sessions, a user's next request may land
+ * on a node that never saw the write and read a replica that has not
+ * caught up yet; reads that must see the user's own write there need
+ * onPrimary as well.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+    private static final int MAX_PINNED_USERS = 10000;
+
+    private final String[] replicas;
+    private final long pinNanos;
+    private final LongSupplier clock;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long primaryPinMillis) {
+        this(primary, replicas, primaryPinMillis, System::nanoTime);
+    }
+
+    ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long primaryPinMillis,
+            LongSupplier clock) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.replicas = new String[replicas.size()];
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas[i] = "replica-" + i;
+            targets.put(this.replicas[i], replicas.get(i));
+        }
+        this.pinNanos = TimeUnit.MILLISECONDS.toNanos(primaryPinMillis);
+        this.clock = clock;
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        initialize();
+    }
+
+    /**
+     * Close the connection pools of the primary and the replicas
+     */
+    public void close() throws Exception {
+        for (DataSource target : getResolvedDataSources().values()) {
+            if (target instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * Run work that must read from the primary (connections it opens are never routed to a replica)
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean outer = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (outer == null) {
+                PRIMARY_ONLY.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pinAfterCommit(user);
+            return PRIMARY;
+        }
+        if (replicas.length == 0 || PRIMARY_ONLY.get() != null || isPinned(user)) {
+            return PRIMARY;
+        }
+        return replicas[Math.floorMod(next.getAndIncrement(), replicas.length)];
+    }
+
+    /**
+     * Whether a user's reads are held on the primary after a recent write
+     */
+    boolean isPinned(String user) {
+        if (user == null) {
+            return false;
+        }
+        Long until = pinnedUntil.get(user);
+        if (until == null) {
+            return false;
+        }
+        if (clock.getAsLong() - until < 0) {
+            return true;
+        }
+        pinnedUntil.remove(user, until);
+        return false;
+    }
+
+    private void pinAfterCommit(String user) {
+        if (user == null || pinNanos <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                long now = clock.getAsLong();
+                if (pinnedUntil.size() >= MAX_PINNED_USERS) {
+                    pinnedUntil.values().removeIf(until -> now - until >= 0);
+                }
+                pinnedUntil.put(user, now + pinNanos);
+            }
+        });
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -2,22 +2,27 @@ package com.AirlineBooking.AirlineBookig.controller;
 
 import com.AirlineBooking.AirlineBookig.dto.request.FlightRequest;
 import com.AirlineBooking.AirlineBookig.dto.response.ApiResponse;
+import com.AirlineBooking.AirlineBookig.dto.response.CursorPage;
 import com.AirlineBooking.AirlineBookig.dto.response.FlightResponse;
 import com.AirlineBooking.AirlineBookig.dto.response.ReservationResponse;
+import com.AirlineBooking.AirlineBookig.dto.response.ScheduleImportResult;
 import com.AirlineBooking.AirlineBookig.model.Flight;
-import com.AirlineBooking.AirlineBookig.model.Reservation;
+import com.AirlineBooking.AirlineBookig.service.FlightLockManager;
 import com.AirlineBooking.AirlineBookig.service.FlightService;
 import com.AirlineBooking.AirlineBookig.service.ReservationService;
+import com.AirlineBooking.AirlineBookig.service.ScheduleImportService;
 import com.AirlineBooking.AirlineBookig.service.AnalyticsService;
+import com.AirlineBooking.AirlineBookig.service.CatalogCache;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -28,13 +33,20 @@ public class AdminController {
     private final FlightService flightService;
     private final ReservationService reservationService;
     private final AnalyticsService analyticsService;
+    private final FlightLockManager flightLockManager;
+    private final ScheduleImportService scheduleImportService;
+    private final CatalogCache catalogCache;
 
     @Autowired
     public AdminController(FlightService flightService, ReservationService reservationService,
-            AnalyticsService analyticsService) {
+            AnalyticsService analyticsService, FlightLockManager flightLockManager,
+            ScheduleImportService scheduleImportService, CatalogCache catalogCache) {
         this.flightService = flightService;
         this.reservationService = reservationService;
         this.analyticsService = analyticsService;
+        this.flightLockManager = flightLockManager;
+        this.scheduleImportService = scheduleImportService;
+        this.catalogCache = catalogCache;
     }
 
     /**
@@ -51,11 +63,10 @@ public class AdminController {
                     request.getDepartureTime(),
                     request.getArrivalTime(),
                     request.getSeatCapacity(),
-                    request.getDistance());
+                    request.getDistance(),
+                    request.getAircraftLayout());
 
-            FlightResponse response = FlightResponse.fromEntity(
-                    flight,
-                    flightService.getAvailableSeatCount(flight.getFlightId()));
+            FlightResponse response = FlightResponse.fromEntity(flight);
 
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(ApiResponse.success("Flight created successfully", response));
@@ -65,6 +76,52 @@ public class AdminController {
         }
     }
 
+    /**
+     * Bulk import a flight schedule from a CSV (text/csv) or JSON array upload.
+     * The body is streamed, so uploads of any size are fine; poll progress with the importId.
+     * POST /api/admin/flights/import?importId=...
+     */
+    @PostMapping(value = "/flights/import", consumes = { "text/csv", MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<?> importFlights(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(required = false) String importId,
+            InputStream body) {
+        try {
+            ScheduleImportResult result = MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType))
+                    ? scheduleImportService.importJson(importId, body)
+                    : scheduleImportService.importCsv(importId, body);
+
+            return ResponseEntity.ok(ApiResponse.success(
+                    "Schedule import " + result.getStatus().toLowerCase(), result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Get progress of recent schedule imports
+     * GET /api/admin/flights/import
+     */
+    @GetMapping("/flights/import")
+    public ResponseEntity<?> getRecentImports() {
+        return ResponseEntity.ok(ApiResponse.success("Imports retrieved", scheduleImportService.getRecentImports()));
+    }
+
+    /**
+     * Get progress and row errors of one schedule import
+     * GET /api/admin/flights/import/{importId}
+     */
+    @GetMapping("/flights/import/{importId}")
+    public ResponseEntity<?> getImport(@PathVariable String importId) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Import retrieved", scheduleImportService.getImport(importId)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     /**
      * Update flight details
      * PUT /api/admin/flights/{id}
@@ -81,9 +138,7 @@ public class AdminController {
                     request.getDepartureTime(),
                     request.getArrivalTime());
 
-            FlightResponse response = FlightResponse.fromEntity(
-                    flight,
-                    flightService.getAvailableSeatCount(id));
+            FlightResponse response = FlightResponse.fromEntity(flight);
 
             return ResponseEntity.ok(ApiResponse.success("Flight updated successfully", response));
         } catch (Exception e) {
@@ -125,16 +180,17 @@ public class AdminController {
     }
 
     /**
-     * Get all reservations for a specific flight
-     * GET /api/admin/flights/{id}/reservations
+     * Get the reservations of a specific flight, one page at a time, newest first
+     * GET /api/admin/flights/{id}/reservations?size=50&cursor=...
      */
     @GetMapping("/flights/{id}/reservations")
-    public ResponseEntity<?> getFlightReservations(@PathVariable Long id) {
+    public ResponseEntity<?> getFlightReservations(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         try {
-            List<Reservation> reservations = reservationService.getFlightReservations(id);
-            List<ReservationResponse> response = reservations.stream()
-                    .map(ReservationResponse::fromEntity)
-                    .collect(Collectors.toList());
+            CursorPage<ReservationResponse> response = reservationService.getFlightReservationsPage(id, cursor, size)
+                    .map(ReservationResponse::fromView);
 
             return ResponseEntity.ok(ApiResponse.success("Reservations retrieved", response));
         } catch (Exception e) {
@@ -144,16 +200,16 @@ public class AdminController {
     }
 
     /**
-     * Get all reservations (Admin view)
-     * GET /api/admin/reservations
+     * Get all reservations (Admin view), one page at a time, newest first
+     * GET /api/admin/reservations?size=50&cursor=...
      */
     @GetMapping("/reservations")
-    public ResponseEntity<?> getAllReservations() {
+    public ResponseEntity<?> getAllReservations(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         try {
-            List<Reservation> reservations = reservationService.getAllReservations();
-            List<ReservationResponse> response = reservations.stream()
-                    .map(ReservationResponse::fromEntity)
-                    .collect(Collectors.toList());
+            CursorPage<ReservationResponse> response = reservationService.getReservationsPage(cursor, size)
+                    .map(ReservationResponse::fromView);
 
             return ResponseEntity.ok(ApiResponse.success("Reservations retrieved", response));
         } catch (Exception e) {
@@ -175,4 +231,22 @@ public class AdminController {
                     .body(ApiResponse.error(e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Get booking lock contention per stripe (hottest first)
+     * GET /api/admin/metrics/booking-locks
+     */
+    @GetMapping("/metrics/booking-locks")
+    public ResponseEntity<?> getBookingLockStats() {
+        return ResponseEntity.ok(ApiResponse.success("Booking lock metrics retrieved", flightLockManager.getStats()));
+    }
+
+    /**
+     * Get hit, miss and eviction counters of the catalog caches
+     * GET /api/admin/metrics/caches
+     */
+    @GetMapping("/metrics/caches")
+    public ResponseEntity<?> getCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success("Cache metrics retrieved", catalogCache.getStats()));
+    }
+}
@@ -2,8 +2,7 @@ package com.AirlineBooking.AirlineBookig.controller;
 
 import com.AirlineBooking.AirlineBookig.dto.request.PaymentRequest;
 import com.AirlineBooking.AirlineBookig.model.Reservation;
-import com.AirlineBooking.AirlineBookig.model.User;
-import com.AirlineBooking.AirlineBookig.service.AuthService;
+import com.AirlineBooking.AirlineBookig.security.AuthenticatedUser;
 import com.AirlineBooking.AirlineBookig.service.PdfTicketService;
 import com.AirlineBooking.AirlineBookig.service.ReservationService;
 
@@ -14,7 +13,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -24,15 +23,12 @@ import org.springframework.web.bind.annotation.*;
 public class CheckoutController {
 
     private final ReservationService reservationService;
-    private final AuthService authService;
     private final PdfTicketService pdfTicketService;
 
     @Autowired
     public CheckoutController(ReservationService reservationService,
-            AuthService authService,
             PdfTicketService pdfTicketService) {
         this.reservationService = reservationService;
-        this.authService = authService;
         this.pdfTicketService = pdfTicketService;
     }
 
@@ -44,19 +40,15 @@ public class CheckoutController {
     public ResponseEntity<byte[]> processCheckout(
             @PathVariable Long reservationId,
             @Valid @RequestBody PaymentRequest paymentRequest,
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            // Get authenticated user
-            String email = authentication.getName();
-            User user = authService.getUserByEmail(email);
-
-            log.info("Processing payment for reservation {} by user {}", reservationId, email);
+            log.info("Processing payment for reservation {} by user {}", reservationId, user.email());
             log.info("Payment Details: Method={}, Amount={}, TransactionID={}",
                     paymentRequest.getPaymentMethod(), paymentRequest.getAmount(), paymentRequest.getTransactionId());
 
             // 1. Mark reservation as paid
             Integer pointsToRedeem = paymentRequest.getPointsToRedeem();
-            Reservation reservation = reservationService.checkoutReservation(reservationId, user.getUserId(),
+            Reservation reservation = reservationService.checkoutReservation(reservationId, user.userId(),
                     pointsToRedeem);
 
             // 2. Generate PDF ticket
@@ -1,16 +1,33 @@
 package com.AirlineBooking.AirlineBookig.controller;
 
+import com.AirlineBooking.AirlineBookig.dto.request.FlightSearchRequest;
 import com.AirlineBooking.AirlineBookig.dto.response.ApiResponse;
+import com.AirlineBooking.AirlineBookig.dto.response.CursorPage;
 import com.AirlineBooking.AirlineBookig.dto.response.FlightResponse;
+import com.AirlineBooking.AirlineBookig.dto.response.ItineraryResponse;
+import com.AirlineBooking.AirlineBookig.dto.response.SeatMapResponse;
 import com.AirlineBooking.AirlineBookig.dto.response.SeatResponse;
+import com.AirlineBooking.AirlineBookig.dto.view.FlightView;
+import com.AirlineBooking.AirlineBookig.dto.view.SeatView;
 import com.AirlineBooking.AirlineBookig.model.Flight;
-import com.AirlineBooking.AirlineBookig.model.Seat;
 import com.AirlineBooking.AirlineBookig.service.FlightService;
+import com.AirlineBooking.AirlineBookig.service.FlightVersions;
+import com.AirlineBooking.AirlineBookig.service.SeatAvailabilityStream;
 import com.AirlineBooking.AirlineBookig.service.SeatService;
+import com.AirlineBooking.AirlineBookig.util.FareCalendar;
+import com.AirlineBooking.AirlineBookig.util.PlaceSuggester.Suggestion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,27 +38,29 @@ public class FlightController {
 
     private final FlightService flightService;
     private final SeatService seatService;
+    private final FlightVersions flightVersions;
+    private final SeatAvailabilityStream seatAvailabilityStream;
 
     @Autowired
-    public FlightController(FlightService flightService, SeatService seatService) {
+    public FlightController(FlightService flightService, SeatService seatService, FlightVersions flightVersions,
+            SeatAvailabilityStream seatAvailabilityStream) {
         this.flightService = flightService;
         this.seatService = seatService;
+        this.flightVersions = flightVersions;
+        this.seatAvailabilityStream = seatAvailabilityStream;
     }
 
     /**
-     * Get all flights
-     * GET /api/flights
+     * Get all flights, one page at a time ordered by departure time
+     * GET /api/flights?size=50&cursor=...
      */
     @GetMapping
-    public ResponseEntity<?> getAllFlights() {
+    public ResponseEntity<?> getAllFlights(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         try {
-            List<Flight> flights = flightService.getAllFlights();
-            List<FlightResponse> response = flights.stream()
-                    .map(flight -> FlightResponse.fromEntity(
-                            flight, 
-                            flightService.getAvailableSeatCount(flight.getFlightId())
-                    ))
-                    .collect(Collectors.toList());
+            CursorPage<FlightResponse> response = flightService.getFlightsPage(cursor, size)
+                    .map(FlightResponse::fromView);
             return ResponseEntity.ok(ApiResponse.success("Flights retrieved successfully", response));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -50,39 +69,43 @@ public class FlightController {
     }
 
     /**
-     * Get flight by ID
+     * Get flight by ID; answers If-None-Match with 304 when the flight has not changed
      * GET /api/flights/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getFlightById(@PathVariable Long id) {
+    public ResponseEntity<?> getFlightById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long version = flightVersions.version(id);
+        if (matches(ifNoneMatch, flightVersions.etag(version)) && flightVersions.isCurrent(id, "flight")) {
+            return notModified(id, flightVersions.etag(version), false);
+        }
         try {
             Flight flight = flightService.getFlightById(id);
-            FlightResponse response = FlightResponse.fromEntity(
-                    flight, 
-                    flightService.getAvailableSeatCount(id)
-            );
-            return ResponseEntity.ok(ApiResponse.success("Flight retrieved successfully", response));
+            FlightResponse response = FlightResponse.fromEntity(flight);
+            String etag = flightVersions.etag(flightVersions.observe(id, "flight", response, version));
+            if (matches(ifNoneMatch, etag)) {
+                return notModified(id, etag, false);
+            }
+            return ResponseEntity.ok().eTag(etag)
+                    .body(ApiResponse.success("Flight retrieved successfully", response));
         } catch (Exception e) {
+            flightVersions.markMissing(id);
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
         }
     }
 
     /**
-     * Search flights by origin and destination
-     * GET /api/flights/search?origin=Nairobi&destination=Mombasa
+     * Search flights by route, departure dates, cabin and price; returns the best matches only
+     * GET /api/flights/search?origin=Nairobi&destination=Mombasa&departFrom=2026-12-01&departTo=2026-12-03
+     *     &cabinClass=BUSINESS&maxPrice=800&sort=price&limit=20
      */
     @GetMapping("/search")
-    public ResponseEntity<?> searchFlights(
-            @RequestParam(required = false) String origin,
-            @RequestParam(required = false) String destination) {
+    public ResponseEntity<?> searchFlights(FlightSearchRequest request) {
         try {
-            List<Flight> flights = flightService.searchFlights(origin, destination);
+            List<FlightView> flights = flightService.searchFlights(request);
             List<FlightResponse> response = flights.stream()
-                    .map(flight -> FlightResponse.fromEntity(
-                            flight, 
-                            flightService.getAvailableSeatCount(flight.getFlightId())
-                    ))
+                    .map(FlightResponse::fromView)
                     .collect(Collectors.toList());
             return ResponseEntity.ok(ApiResponse.success("Flights found", response));
         } catch (Exception e) {
@@ -91,6 +114,65 @@ public class FlightController {
         }
     }
 
+    /**
+     * Direct and connecting itineraries (up to two stops) departing on a date
+     * GET /api/flights/connections?origin=Kisumu&destination=Lamu&date=2026-12-01&maxStops=2&limit=20
+     */
+    @GetMapping("/connections")
+    public ResponseEntity<?> searchConnections(
+            @RequestParam String origin,
+            @RequestParam String destination,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Integer maxStops,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            List<ItineraryResponse> response = flightService
+                    .searchConnections(origin, destination, date, maxStops, limit).stream()
+                    .map(ItineraryResponse::fromView)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(ApiResponse.success("Itineraries found", response));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Cheapest available fare per cabin for each day around a date on one route
+     * GET /api/flights/fare-calendar?origin=Nairobi&destination=Mombasa&date=2026-12-01&days=15
+     */
+    @GetMapping("/fare-calendar")
+    public ResponseEntity<?> getFareCalendar(
+            @RequestParam String origin,
+            @RequestParam String destination,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Integer days) {
+        try {
+            List<FareCalendar.Day> calendar = flightService.getFareCalendar(origin, destination, date, days);
+            return ResponseEntity.ok(ApiResponse.success("Fare calendar retrieved", calendar));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Suggest origins and destinations while the user types
+     * GET /api/flights/places?q=nai&limit=10
+     */
+    @GetMapping("/places")
+    public ResponseEntity<?> suggestPlaces(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            List<Suggestion> suggestions = flightService.suggestPlaces(q, limit);
+            return ResponseEntity.ok(ApiResponse.success("Places found", suggestions));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     /**
      * Get available flights (scheduled only)
      * GET /api/flights/available
@@ -98,12 +180,9 @@ public class FlightController {
     @GetMapping("/available")
     public ResponseEntity<?> getAvailableFlights() {
         try {
-            List<Flight> flights = flightService.getScheduledFlights();
+            List<FlightView> flights = flightService.getScheduledFlights();
             List<FlightResponse> response = flights.stream()
-                    .map(flight -> FlightResponse.fromEntity(
-                            flight, 
-                            flightService.getAvailableSeatCount(flight.getFlightId())
-                    ))
+                    .map(FlightResponse::fromView)
                     .collect(Collectors.toList());
             return ResponseEntity.ok(ApiResponse.success("Available flights retrieved", response));
         } catch (Exception e) {
@@ -113,17 +192,42 @@ public class FlightController {
     }
 
     /**
-     * Get seats for a specific flight
+     * Get seats for a specific flight; answers If-None-Match with 304 when no seat has changed.
+     * With Accept: application/vnd.airline.seat-map+json the seats come as one compact
+     * SeatMapResponse instead of one object per seat.
      * GET /api/flights/{id}/seats
      */
     @GetMapping("/{id}/seats")
-    public ResponseEntity<?> getFlightSeats(@PathVariable Long id) {
+    public ResponseEntity<?> getFlightSeats(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        boolean compact = accepts(accept, SeatMapResponse.MEDIA_TYPE);
+        String variant = compact ? "-compact" : "";
+        long version = flightVersions.version(id);
+        if (matches(ifNoneMatch, flightVersions.etag(version, variant)) && flightVersions.isCurrent(id, "seats")) {
+            return notModified(id, flightVersions.etag(version, variant), true);
+        }
         try {
-            List<Seat> seats = seatService.getSeatsByFlight(id);
+            List<SeatView> seats = seatService.getSeatViews(id);
+            String etag = flightVersions.etag(flightVersions.observe(id, "seats", seats, version), variant);
+            if (seats.isEmpty()) {
+                // Every flight has seats
+                flightVersions.markMissing(id);
+            }
+            if (matches(ifNoneMatch, etag)) {
+                return notModified(id, etag, true);
+            }
+            if (compact) {
+                return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT)
+                        .contentType(SeatMapResponse.MEDIA_TYPE)
+                        .body(ApiResponse.success("Seat map retrieved successfully",
+                                SeatMapResponse.fromViews(id, seats)));
+            }
             List<SeatResponse> response = seats.stream()
-                    .map(SeatResponse::fromEntity)
+                    .map(SeatResponse::fromView)
                     .collect(Collectors.toList());
-            return ResponseEntity.ok(ApiResponse.success("Seats retrieved successfully", response));
+            return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT)
+                    .body(ApiResponse.success("Seats retrieved successfully", response));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
@@ -131,20 +235,100 @@ public class FlightController {
     }
 
     /**
-     * Get available seats for a flight
+     * Get available seats for a flight; answers If-None-Match with 304 when no seat has changed
      * GET /api/flights/{id}/seats/available
      */
     @GetMapping("/{id}/seats/available")
-    public ResponseEntity<?> getAvailableSeats(@PathVariable Long id) {
+    public ResponseEntity<?> getAvailableSeats(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long version = flightVersions.version(id);
+        if (matches(ifNoneMatch, flightVersions.etag(version)) && flightVersions.isCurrent(id, "available-seats")) {
+            return notModified(id, flightVersions.etag(version), false);
+        }
         try {
-            List<Seat> seats = seatService.getAvailableSeats(id);
+            List<SeatView> seats = seatService.getAvailableSeatViews(id);
+            String etag = flightVersions.etag(flightVersions.observe(id, "available-seats", seats, version));
+            if (matches(ifNoneMatch, etag)) {
+                return notModified(id, etag, false);
+            }
             List<SeatResponse> response = seats.stream()
-                    .map(SeatResponse::fromEntity)
+                    .map(SeatResponse::fromView)
                     .collect(Collectors.toList());
-            return ResponseEntity.ok(ApiResponse.success("Available seats retrieved", response));
+            return ResponseEntity.ok().eTag(etag)
+                    .body(ApiResponse.success("Available seats retrieved", response));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
         }
     }
+
+    /**
+     * Live seat availability of a flight as server-sent events: a "snapshot"
+     * event with the compact seat map, then "delta" events as seats change.
+     * 503 while this node has as many open streams as allowed.
+     * GET /api/flights/{id}/seats/stream
+     */
+    @GetMapping(value = "/{id}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSeats(@PathVariable Long id) throws IOException {
+        if (!flightService.flightExists(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = seatAvailabilityStream.subscribe(id);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Whether an Accept header explicitly asks for the given media type (wildcards do not count)
+     */
+    private static boolean accepts(String accept, MediaType mediaType) {
+        if (accept == null) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream().anyMatch(mediaType::equalsTypeAndSubtype);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 304 for a matching ETag, or 404 for a flight FlightVersions keeps a
+     * tombstone of; answered from memory, nothing is queried
+     */
+    private ResponseEntity<?> notModified(Long id, String etag, boolean varyByAccept) {
+        if (flightVersions.isMissing(id)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("Flight not found"));
+        }
+        ResponseEntity.HeadersBuilder<?> notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag);
+        if (varyByAccept) {
+            notModified.varyBy(HttpHeaders.ACCEPT);
+        }
+        return notModified.build();
+    }
+
+    /**
+     * Whether an If-None-Match header lists the given ETag. The version
+     * behind the ETag is read before any data is loaded, so a match for a
+     * representation FlightVersions still vouches for never needs the data.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
\ No newline at end of file
@@ -1,17 +1,18 @@
 package com.AirlineBooking.AirlineBookig.controller;
 
+import com.AirlineBooking.AirlineBookig.dto.request.AutoAssignRequest;
+import com.AirlineBooking.AirlineBookig.dto.request.GroupReservationRequest;
 import com.AirlineBooking.AirlineBookig.dto.request.ReservationRequest;
 import com.AirlineBooking.AirlineBookig.dto.response.ApiResponse;
 import com.AirlineBooking.AirlineBookig.dto.response.ReservationResponse;
 import com.AirlineBooking.AirlineBookig.model.Reservation;
-import com.AirlineBooking.AirlineBookig.model.User;
-import com.AirlineBooking.AirlineBookig.service.AuthService;
+import com.AirlineBooking.AirlineBookig.security.AuthenticatedUser;
 import com.AirlineBooking.AirlineBookig.service.ReservationService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -23,12 +24,10 @@ import java.util.stream.Collectors;
 public class ReservationController {
 
     private final ReservationService reservationService;
-    private final AuthService authService;
 
     @Autowired
-    public ReservationController(ReservationService reservationService, AuthService authService) {
+    public ReservationController(ReservationService reservationService) {
         this.reservationService = reservationService;
-        this.authService = authService;
     }
 
     /**
@@ -38,15 +37,11 @@ public class ReservationController {
     @PostMapping
     public ResponseEntity<?> createReservation(
             @Valid @RequestBody ReservationRequest request,
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            // Get authenticated user
-            String email = authentication.getName();
-            User user = authService.getUserByEmail(email);
-
             // Create reservation
             Reservation reservation = reservationService.createReservation(
-                    user,
+                    user.userId(),
                     request.getFlightId(),
                     request.getSeatId());
 
@@ -61,20 +56,70 @@ public class ReservationController {
     }
 
     /**
-     * Get all reservations for authenticated user
-     * GET /api/reservations/my-reservations
+     * Book several seats on one flight in a single transaction
+     * POST /api/reservations/group
      */
-    @GetMapping("/my-reservations")
-    public ResponseEntity<?> getMyReservations(Authentication authentication) {
+    @PostMapping("/group")
+    public ResponseEntity<?> createGroupReservation(
+            @Valid @RequestBody GroupReservationRequest request,
+            @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            String email = authentication.getName();
-            User user = authService.getUserByEmail(email);
+            List<Reservation> reservations = reservationService.createGroupReservation(
+                    user.userId(),
+                    request.getFlightId(),
+                    request.getSeatIds());
 
-            List<Reservation> reservations = reservationService.getUserReservations(user.getUserId());
             List<ReservationResponse> response = reservations.stream()
                     .map(ReservationResponse::fromEntity)
                     .collect(Collectors.toList());
 
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Group reservation created successfully", response));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Book the best available seats for a party, chosen by the server
+     * POST /api/reservations/auto-assign
+     */
+    @PostMapping("/auto-assign")
+    public ResponseEntity<?> autoAssignReservation(
+            @Valid @RequestBody AutoAssignRequest request,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        try {
+            List<Reservation> reservations = reservationService.autoAssignReservation(
+                    user.userId(),
+                    request.getFlightId(),
+                    request.getCabinClass(),
+                    request.getPartySize(),
+                    request.getSeatPreference());
+
+            List<ReservationResponse> response = reservations.stream()
+                    .map(ReservationResponse::fromEntity)
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Seats assigned successfully", response));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Get all reservations for authenticated user
+     * GET /api/reservations/my-reservations
+     */
+    @GetMapping("/my-reservations")
+    public ResponseEntity<?> getMyReservations(@AuthenticationPrincipal AuthenticatedUser user) {
+        try {
+            List<ReservationResponse> response = reservationService.getUserReservationViews(user.userId()).stream()
+                    .map(ReservationResponse::fromView)
+                    .collect(Collectors.toList());
+
             return ResponseEntity.ok(ApiResponse.success("Reservations retrieved", response));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -89,12 +134,9 @@ public class ReservationController {
     @GetMapping("/{id}")
     public ResponseEntity<?> getReservationById(
             @PathVariable Long id,
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            String email = authentication.getName();
-            User user = authService.getUserByEmail(email);
-
-            Reservation reservation = reservationService.getReservationByIdAndUserId(id, user.getUserId());
+            Reservation reservation = reservationService.getReservationByIdAndUserId(id, user.userId());
             ReservationResponse response = ReservationResponse.fromEntity(reservation);
 
             return ResponseEntity.ok(ApiResponse.success("Reservation retrieved", response));
@@ -111,12 +153,9 @@ public class ReservationController {
     @DeleteMapping("/{id}")
     public ResponseEntity<?> cancelReservation(
             @PathVariable Long id,
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            String email = authentication.getName();
-            User user = authService.getUserByEmail(email);
-
-            Reservation reservation = reservationService.cancelReservation(id, user.getUserId());
+            Reservation reservation = reservationService.cancelReservation(id, user.userId());
             ReservationResponse response = ReservationResponse.fromEntity(reservation);
 
             return ResponseEntity.ok(ApiResponse.success("Reservation cancelled successfully", response));
@@ -133,12 +172,9 @@ public class ReservationController {
     @PostMapping("/{id}/refund")
     public ResponseEntity<?> requestRefund(
             @PathVariable Long id,
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            String email = authentication.getName();
-            User user = authService.getUserByEmail(email);
-
-            Reservation reservation = reservationService.requestRefund(id, user.getUserId());
+            Reservation reservation = reservationService.requestRefund(id, user.userId());
             ReservationResponse response = ReservationResponse.fromEntity(reservation);
 
             return ResponseEntity.ok(ApiResponse.success("Refund requested successfully", response));
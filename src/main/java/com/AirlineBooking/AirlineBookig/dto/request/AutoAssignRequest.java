@@ -0,0 +1,29 @@
+package com.AirlineBooking.AirlineBookig.dto.request;
+
+import com.AirlineBooking.AirlineBookig.model.CabinClass;
+import com.AirlineBooking.AirlineBookig.model.SeatPreference;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutoAssignRequest {
+
+    @NotNull(message = "Flight ID is required")
+    private Long flightId;
+
+    @NotNull(message = "Cabin class is required")
+    private CabinClass cabinClass;
+
+    @NotNull(message = "Party size is required")
+    @Min(value = 1, message = "Party size must be at least 1")
+    @Max(value = 9, message = "Party size can be at most 9")
+    private Integer partySize;
+
+    private SeatPreference seatPreference = SeatPreference.NONE;
+}
@@ -1,5 +1,6 @@
 package com.AirlineBooking.AirlineBookig.dto.request;
 
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -36,4 +37,7 @@ public class FlightRequest {
     @NotNull(message = "Distance is required")
     @Positive(message = "Distance must be positive")
     private Double distance;
+
+    // Optional; defaults to the standard 3-3 narrowbody layout
+    private AircraftLayout aircraftLayout;
 }
\ No newline at end of file
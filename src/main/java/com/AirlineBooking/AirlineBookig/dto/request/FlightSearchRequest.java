@@ -0,0 +1,46 @@
+package com.AirlineBooking.AirlineBookig.dto.request;
+
+import com.AirlineBooking.AirlineBookig.model.CabinClass;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Flight search filters, bound from query parameters. Every field is optional.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightSearchRequest {
+
+    private String origin;
+
+    private String destination;
+
+    // First departure date, inclusive
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate departFrom;
+
+    // Last departure date, inclusive
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate departTo;
+
+    // Only flights with a seat left in this cabin, priced at this cabin's fare
+    private CabinClass cabinClass;
+
+    private Double maxPrice;
+
+    // departure (default), price or duration
+    private String sort;
+
+    // Number of results, 50 by default
+    private Integer limit;
+
+    public FlightSearchRequest(String origin, String destination) {
+        this.origin = origin;
+        this.destination = destination;
+    }
+}
@@ -0,0 +1,23 @@
+package com.AirlineBooking.AirlineBookig.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupReservationRequest {
+
+    @NotNull(message = "Flight ID is required")
+    private Long flightId;
+
+    @NotEmpty(message = "At least one seat ID is required")
+    @Size(max = 9, message = "A group booking can have at most 9 seats")
+    private List<@NotNull(message = "Seat ID is required") Long> seatIds;
+}
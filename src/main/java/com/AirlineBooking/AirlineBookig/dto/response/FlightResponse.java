@@ -1,5 +1,8 @@
 package com.AirlineBooking.AirlineBookig.dto.response;
 
+import com.AirlineBooking.AirlineBookig.dto.view.FlightView;
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.CabinClass;
 import com.AirlineBooking.AirlineBookig.model.Flight;
 import com.AirlineBooking.AirlineBookig.model.FlightStatus;
 import lombok.AllArgsConstructor;
@@ -22,16 +25,22 @@ public class FlightResponse {
     private FlightStatus status;
     private Integer seatCapacity;
     private Long availableSeats;
+    private Integer availableEconomySeats;
+    private Integer availableBusinessSeats;
+    private Integer availableFirstClassSeats;
     private Double distance;
+    private AircraftLayout aircraftLayout;
     private Double economyPrice;
     private Double businessPrice;
     private Double firstClassPrice;
     private LocalDateTime createdAt;
 
     /**
-     * Convert Flight entity to FlightResponse DTO
+     * Convert Flight entity to FlightResponse DTO.
+     * Available seats come from the flight's denormalized per-cabin counters,
+     * so listing flights needs no query per flight.
      */
-    public static FlightResponse fromEntity(Flight flight, Long availableSeats) {
+    public static FlightResponse fromEntity(Flight flight) {
         FlightResponse response = new FlightResponse();
         response.setFlightId(flight.getFlightId());
         response.setFlightNumber(flight.getFlightNumber());
@@ -41,14 +50,19 @@ public class FlightResponse {
         response.setArrivalTime(flight.getArrivalTime());
         response.setStatus(flight.getStatus());
         response.setSeatCapacity(flight.getSeatCapacity());
-        response.setAvailableSeats(availableSeats);
+        response.setAvailableSeats(flight.getAvailableSeats());
+        response.setAvailableEconomySeats(flight.getAvailableEconomySeats());
+        response.setAvailableBusinessSeats(flight.getAvailableBusinessSeats());
+        response.setAvailableFirstClassSeats(flight.getAvailableFirstSeats());
         response.setDistance(flight.getDistance());
+        response.setAircraftLayout(AircraftLayout.of(flight));
 
         // Calculate base prices for display
         if (flight.getDistance() != null) {
-            response.setEconomyPrice(flight.getDistance() * 100.0);
-            response.setBusinessPrice(flight.getDistance() * 125.0);
-            response.setFirstClassPrice(flight.getDistance() * 150.0);
+            AircraftLayout layout = AircraftLayout.of(flight);
+            response.setEconomyPrice(layout.fareFor(CabinClass.ECONOMY, flight.getDistance()));
+            response.setBusinessPrice(layout.fareFor(CabinClass.BUSINESS, flight.getDistance()));
+            response.setFirstClassPrice(layout.fareFor(CabinClass.FIRST, flight.getDistance()));
         }
 
         response.setCreatedAt(flight.getCreatedAt());
@@ -56,27 +70,37 @@ public class FlightResponse {
     }
 
     /**
-     * Convert Flight entity to FlightResponse DTO (without available seats count)
+     * Convert a read-only FlightView row to FlightResponse DTO
      */
-    public static FlightResponse fromEntity(Flight flight) {
+    public static FlightResponse fromView(FlightView flight) {
         FlightResponse response = new FlightResponse();
-        response.setFlightId(flight.getFlightId());
-        response.setFlightNumber(flight.getFlightNumber());
-        response.setOrigin(flight.getOrigin());
-        response.setDestination(flight.getDestination());
-        response.setDepartureTime(flight.getDepartureTime());
-        response.setArrivalTime(flight.getArrivalTime());
-        response.setStatus(flight.getStatus());
-        response.setSeatCapacity(flight.getSeatCapacity());
-        response.setDistance(flight.getDistance());
+        response.setFlightId(flight.flightId());
+        response.setFlightNumber(flight.flightNumber());
+        response.setOrigin(flight.origin());
+        response.setDestination(flight.destination());
+        response.setDepartureTime(flight.departureTime());
+        response.setArrivalTime(flight.arrivalTime());
+        response.setStatus(flight.status());
+        response.setSeatCapacity(flight.seatCapacity());
+        response.setAvailableEconomySeats(flight.availableEconomySeats());
+        response.setAvailableBusinessSeats(flight.availableBusinessSeats());
+        response.setAvailableFirstClassSeats(flight.availableFirstSeats());
+        if (flight.availableEconomySeats() != null && flight.availableBusinessSeats() != null
+                && flight.availableFirstSeats() != null) {
+            response.setAvailableSeats((long) flight.availableEconomySeats() + flight.availableBusinessSeats()
+                    + flight.availableFirstSeats());
+        }
+        response.setDistance(flight.distance());
+        AircraftLayout layout = flight.aircraftLayout() != null ? flight.aircraftLayout() : AircraftLayout.DEFAULT;
+        response.setAircraftLayout(layout);
 
-        if (flight.getDistance() != null) {
-            response.setEconomyPrice(flight.getDistance() * 100.0);
-            response.setBusinessPrice(flight.getDistance() * 125.0);
-            response.setFirstClassPrice(flight.getDistance() * 150.0);
+        if (flight.distance() != null) {
+            response.setEconomyPrice(layout.fareFor(CabinClass.ECONOMY, flight.distance()));
+            response.setBusinessPrice(layout.fareFor(CabinClass.BUSINESS, flight.distance()));
+            response.setFirstClassPrice(layout.fareFor(CabinClass.FIRST, flight.distance()));
         }
 
-        response.setCreatedAt(flight.getCreatedAt());
+        response.setCreatedAt(flight.createdAt());
         return response;
     }
-}
\ No newline at end of file
+}
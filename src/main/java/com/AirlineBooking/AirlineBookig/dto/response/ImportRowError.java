@@ -0,0 +1,15 @@
+package com.AirlineBooking.AirlineBookig.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowError {
+
+    private long row;
+    private String flightNumber;
+    private String message;
+}
@@ -0,0 +1,42 @@
+package com.AirlineBooking.AirlineBookig.dto.response;
+
+import com.AirlineBooking.AirlineBookig.dto.view.FlightView;
+import com.AirlineBooking.AirlineBookig.dto.view.ItineraryView;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItineraryResponse {
+
+    private int stops;
+    private String origin;
+    private String destination;
+    private LocalDateTime departureTime;
+    private LocalDateTime arrivalTime;
+    private long durationMinutes;
+    private List<FlightResponse> flights;
+
+    /**
+     * Convert an ItineraryView to ItineraryResponse DTO
+     */
+    public static ItineraryResponse fromView(ItineraryView itinerary) {
+        FlightView first = itinerary.flights().get(0);
+        FlightView last = itinerary.flights().get(itinerary.flights().size() - 1);
+        ItineraryResponse response = new ItineraryResponse();
+        response.setStops(itinerary.stops());
+        response.setOrigin(first.origin());
+        response.setDestination(last.destination());
+        response.setDepartureTime(first.departureTime());
+        response.setArrivalTime(last.arrivalTime());
+        response.setDurationMinutes(Duration.between(first.departureTime(), last.arrivalTime()).toMinutes());
+        response.setFlights(itinerary.flights().stream().map(FlightResponse::fromView).toList());
+        return response;
+    }
+}
@@ -0,0 +1,19 @@
+package com.AirlineBooking.AirlineBookig.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LockStripeStats {
+
+    private int stripe;
+    private long lastFlightId;
+    private long acquisitions;
+    private long contendedAcquisitions;
+    private long totalWaitMicros;
+    private long maxWaitMicros;
+    private int queueDepth;
+}
@@ -1,5 +1,6 @@
 package com.AirlineBooking.AirlineBookig.dto.response;
 
+import com.AirlineBooking.AirlineBookig.dto.view.ReservationView;
 import com.AirlineBooking.AirlineBookig.model.Reservation;
 import com.AirlineBooking.AirlineBookig.model.ReservationStatus;
 import lombok.AllArgsConstructor;
@@ -64,4 +65,28 @@ public class ReservationResponse {
 
         return response;
     }
-}
\ No newline at end of file
+
+    /**
+     * Convert a read-only ReservationView row to ReservationResponse DTO
+     */
+    public static ReservationResponse fromView(ReservationView reservation) {
+        return new ReservationResponse(
+                reservation.reservationId(),
+                reservation.userId(),
+                reservation.userName(),
+                reservation.userEmail(),
+                reservation.flightId(),
+                reservation.flightNumber(),
+                reservation.origin(),
+                reservation.destination(),
+                reservation.departureTime(),
+                reservation.arrivalTime(),
+                reservation.seatId(),
+                reservation.seatNumber(),
+                reservation.cabinClass().name(),
+                reservation.status(),
+                reservation.reservationDate(),
+                reservation.price(),
+                reservation.refundRequestDate());
+    }
+}
@@ -0,0 +1,25 @@
+package com.AirlineBooking.AirlineBookig.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleImportResult {
+
+    private String importId;
+    private String status;
+    private long rowsRead;
+    private long flightsCreated;
+    private long seatsCreated;
+    private long rowsRejected;
+    private List<ImportRowError> errors;
+    private boolean errorsTruncated;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
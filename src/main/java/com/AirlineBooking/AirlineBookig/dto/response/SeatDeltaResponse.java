@@ -0,0 +1,46 @@
+package com.AirlineBooking.AirlineBookig.dto.response;
+
+import com.AirlineBooking.AirlineBookig.dto.view.SeatView;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Seats of one flight whose booking status changed, grouped by their status now.
+ * version is the flight version the statuses were read at.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatDeltaResponse {
+
+    private Long flightId;
+    private long version;
+    private List<Long> available;
+    private List<Long> reserved;
+    private List<Long> occupied;
+
+    /**
+     * The current status of the changed seats, taken from the flight's seats; unknown ids are left out
+     */
+    public static SeatDeltaResponse fromViews(Long flightId, long version, List<SeatView> seats,
+            Collection<Long> changedSeatIds) {
+        SeatDeltaResponse delta = new SeatDeltaResponse(flightId, version,
+                new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        for (SeatView seat : seats) {
+            if (!changedSeatIds.contains(seat.seatId())) {
+                continue;
+            }
+            switch (seat.bookingStatus()) {
+                case AVAILABLE -> delta.available.add(seat.seatId());
+                case RESERVED -> delta.reserved.add(seat.seatId());
+                case OCCUPIED -> delta.occupied.add(seat.seatId());
+            }
+        }
+        return delta;
+    }
+}
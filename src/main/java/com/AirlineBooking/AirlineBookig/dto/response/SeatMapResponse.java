@@ -0,0 +1,190 @@
+package com.AirlineBooking.AirlineBookig.dto.response;
+
+import com.AirlineBooking.AirlineBookig.dto.view.SeatView;
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.BookingStatus;
+import com.AirlineBooking.AirlineBookig.model.CabinClass;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact seat map: the cabin layout once, then every seat position as one
+ * run-length encoded status string.
+ *
+ * Positions are read row by row (rows 1..rows), left to right in
+ * seatLetters order. Status characters: A available, R reserved,
+ * O occupied, '-' no seat; a run of n > 1 equal characters is written as
+ * n followed by the character, e.g. "2-4A" = two empty positions, then four
+ * available seats. seatIdRuns lists the seat ids of the real seats, in the
+ * same order, as [first id, count] runs of consecutive ids.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatMapResponse {
+
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.airline.seat-map+json";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private Long flightId;
+    private String flightNumber;
+    private AircraftLayout aircraftLayout;
+    private String seatLetters;
+    // Columns (0-based) followed by an aisle
+    private List<Integer> aisleAfter;
+    private int rows;
+    private List<Cabin> cabins;
+    private String seats;
+    private List<long[]> seatIdRuns;
+
+    /**
+     * Consecutive rows of one cabin and its seat price
+     */
+    public record Cabin(CabinClass cabinClass, int firstRow, int lastRow, Double price) {
+    }
+
+    /**
+     * Encode the seats of one flight; seats whose number is not letter + row are left out
+     */
+    public static SeatMapResponse fromViews(Long flightId, List<SeatView> seats) {
+        SeatView first = seats.isEmpty() ? null : seats.get(0);
+        AircraftLayout layout = first != null && first.aircraftLayout() != null
+                ? first.aircraftLayout() : AircraftLayout.DEFAULT;
+        int columns = layout.getSeatsPerRow();
+        StringBuilder letters = new StringBuilder(columns);
+        List<Integer> aisles = new ArrayList<>();
+        // Column of each seat letter, -1 if the layout has no such column
+        int[] columnOf = new int[128];
+        Arrays.fill(columnOf, -1);
+        for (int column = 0; column < columns; column++) {
+            letters.append(layout.getLetter(column));
+            columnOf[layout.getLetter(column)] = column;
+            if (layout.isAisleAfter(column)) {
+                aisles.add(column);
+            }
+        }
+
+        // Row and column of each seat, in list order
+        int[] seatRows = new int[seats.size()];
+        int[] seatColumns = new int[seats.size()];
+        int rows = 0;
+        for (int i = 0; i < seats.size(); i++) {
+            String number = seats.get(i).seatNumber();
+            char letter = number != null && !number.isEmpty() ? number.charAt(0) : 0;
+            seatColumns[i] = letter < columnOf.length ? columnOf[letter] : -1;
+            seatRows[i] = rowOf(number);
+            rows = Math.max(rows, seatRows[i]);
+        }
+        // One slot per position: status, seat id, and cabin/price per row
+        char[] status = new char[rows * columns];
+        long[] seatIds = new long[rows * columns];
+        CabinClass[] rowCabins = new CabinClass[rows + 1];
+        Double[] rowPrices = new Double[rows + 1];
+        Arrays.fill(status, '-');
+        for (int i = 0; i < seats.size(); i++) {
+            SeatView seat = seats.get(i);
+            int row = seatRows[i];
+            int column = seatColumns[i];
+            if (row <= 0 || column < 0) {
+                continue;
+            }
+            int slot = (row - 1) * columns + column;
+            status[slot] = statusOf(seat.bookingStatus());
+            seatIds[slot] = seat.seatId();
+            rowCabins[row] = seat.cabinClass();
+            if (seat.price() != null && (rowPrices[row] == null || seat.price() < rowPrices[row])) {
+                rowPrices[row] = seat.price();
+            }
+        }
+
+        return new SeatMapResponse(flightId, first != null ? first.flightNumber() : null, layout,
+                letters.toString(), aisles, rows, cabinsOf(rowCabins, rowPrices), runLength(status),
+                idRuns(status, seatIds));
+    }
+
+    private static List<Cabin> cabinsOf(CabinClass[] rowCabins, Double[] rowPrices) {
+        List<Cabin> cabins = new ArrayList<>();
+        int start = 1;
+        for (int row = 1; row < rowCabins.length; row++) {
+            boolean last = row == rowCabins.length - 1;
+            if (last || rowCabins[row + 1] != rowCabins[row]) {
+                if (rowCabins[row] != null) {
+                    Double price = null;
+                    for (int r = start; r <= row; r++) {
+                        if (rowPrices[r] != null && (price == null || rowPrices[r] < price)) {
+                            price = rowPrices[r];
+                        }
+                    }
+                    cabins.add(new Cabin(rowCabins[row], start, row, price));
+                }
+                start = row + 1;
+            }
+        }
+        return cabins;
+    }
+
+    private static String runLength(char[] status) {
+        StringBuilder encoded = new StringBuilder();
+        for (int i = 0; i < status.length; ) {
+            int run = 1;
+            while (i + run < status.length && status[i + run] == status[i]) {
+                run++;
+            }
+            if (run > 1) {
+                encoded.append(run);
+            }
+            encoded.append(status[i]);
+            i += run;
+        }
+        return encoded.toString();
+    }
+
+    private static List<long[]> idRuns(char[] status, long[] seatIds) {
+        List<long[]> runs = new ArrayList<>();
+        long[] run = null;
+        for (int slot = 0; slot < status.length; slot++) {
+            if (status[slot] == '-') {
+                continue;
+            }
+            if (run != null && seatIds[slot] == run[0] + run[1]) {
+                run[1]++;
+            } else {
+                run = new long[] { seatIds[slot], 1 };
+                runs.add(run);
+            }
+        }
+        return runs;
+    }
+
+    private static char statusOf(BookingStatus status) {
+        return switch (status) {
+            case AVAILABLE -> 'A';
+            case RESERVED -> 'R';
+            case OCCUPIED -> 'O';
+        };
+    }
+
+    /**
+     * Row of a seat number such as "C12", or 0 if it is not letter + row
+     */
+    private static int rowOf(String seatNumber) {
+        if (seatNumber == null || seatNumber.length() < 2 || seatNumber.length() > 6) {
+            return 0;
+        }
+        int row = 0;
+        for (int i = 1; i < seatNumber.length(); i++) {
+            char digit = seatNumber.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return 0;
+            }
+            row = row * 10 + (digit - '0');
+        }
+        return row;
+    }
+}
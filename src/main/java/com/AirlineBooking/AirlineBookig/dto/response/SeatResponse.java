@@ -1,5 +1,6 @@
 package com.AirlineBooking.AirlineBookig.dto.response;
 
+import com.AirlineBooking.AirlineBookig.dto.view.SeatView;
 import com.AirlineBooking.AirlineBookig.model.BookingStatus;
 import com.AirlineBooking.AirlineBookig.model.CabinClass;
 import com.AirlineBooking.AirlineBookig.model.Seat;
@@ -34,4 +35,12 @@ public class SeatResponse {
         response.setFlightNumber(seat.getFlight().getFlightNumber());
         return response;
     }
-}
\ No newline at end of file
+
+    /**
+     * Convert a read-only SeatView row to SeatResponse DTO
+     */
+    public static SeatResponse fromView(SeatView seat) {
+        return new SeatResponse(seat.seatId(), seat.seatNumber(), seat.cabinClass(), seat.bookingStatus(),
+                seat.price(), seat.flightId(), seat.flightNumber());
+    }
+}
@@ -0,0 +1,26 @@
+package com.AirlineBooking.AirlineBookig.dto.view;
+
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.FlightStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row of the flights table, selected straight from JPQL without a managed entity
+ */
+public record FlightView(
+        Long flightId,
+        String flightNumber,
+        String origin,
+        String destination,
+        LocalDateTime departureTime,
+        LocalDateTime arrivalTime,
+        FlightStatus status,
+        Integer seatCapacity,
+        Double distance,
+        AircraftLayout aircraftLayout,
+        Integer availableEconomySeats,
+        Integer availableBusinessSeats,
+        Integer availableFirstSeats,
+        LocalDateTime createdAt) {
+}
@@ -0,0 +1,13 @@
+package com.AirlineBooking.AirlineBookig.dto.view;
+
+import java.util.List;
+
+/**
+ * A trip of one or more connecting flights, in travel order
+ */
+public record ItineraryView(List<FlightView> flights) {
+
+    public int stops() {
+        return flights.size() - 1;
+    }
+}
@@ -0,0 +1,30 @@
+package com.AirlineBooking.AirlineBookig.dto.view;
+
+import com.AirlineBooking.AirlineBookig.model.CabinClass;
+import com.AirlineBooking.AirlineBookig.model.ReservationStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only reservation joined with its user, flight and seat, selected
+ * straight from JPQL without managed entities
+ */
+public record ReservationView(
+        Long reservationId,
+        Long userId,
+        String userName,
+        String userEmail,
+        Long flightId,
+        String flightNumber,
+        String origin,
+        String destination,
+        LocalDateTime departureTime,
+        LocalDateTime arrivalTime,
+        Long seatId,
+        String seatNumber,
+        CabinClass cabinClass,
+        ReservationStatus status,
+        LocalDateTime reservationDate,
+        Double price,
+        LocalDateTime refundRequestDate) {
+}
@@ -0,0 +1,19 @@
+package com.AirlineBooking.AirlineBookig.dto.view;
+
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.BookingStatus;
+import com.AirlineBooking.AirlineBookig.model.CabinClass;
+
+/**
+ * Read-only seat with its flight number and layout, selected straight from JPQL without a managed entity
+ */
+public record SeatView(
+        Long seatId,
+        String seatNumber,
+        CabinClass cabinClass,
+        BookingStatus bookingStatus,
+        Double price,
+        Long flightId,
+        String flightNumber,
+        AircraftLayout aircraftLayout) {
+}
@@ -0,0 +1,22 @@
+package com.AirlineBooking.AirlineBookig.event;
+
+import com.AirlineBooking.AirlineBookig.model.Flight;
+
+/**
+ * Published when a flight is created, updated, cancelled or deleted.
+ * Listeners that keep derived state should react after commit.
+ */
+public record FlightChangedEvent(Flight flight, boolean deleted) {
+
+    public static FlightChangedEvent saved(Flight flight) {
+        return new FlightChangedEvent(flight, false);
+    }
+
+    public static FlightChangedEvent deleted(Flight flight) {
+        return new FlightChangedEvent(flight, true);
+    }
+
+    public Long flightId() {
+        return flight.getFlightId();
+    }
+}
@@ -0,0 +1,19 @@
+package com.AirlineBooking.AirlineBookig.event;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published when the booking status of seats of a flight changes.
+ * An empty seat list means the whole flight was recounted.
+ */
+public record SeatsChangedEvent(Long flightId, Collection<Long> seatIds) {
+
+    public static SeatsChangedEvent of(Long flightId, Long seatId) {
+        return new SeatsChangedEvent(flightId, List.of(seatId));
+    }
+
+    public static SeatsChangedEvent recounted(Long flightId) {
+        return new SeatsChangedEvent(flightId, List.of());
+    }
+}
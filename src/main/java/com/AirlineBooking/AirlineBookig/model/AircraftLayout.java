@@ -0,0 +1,107 @@
+package com.AirlineBooking.AirlineBookig.model;
+
+/**
+ * Named aircraft seat layout templates.
+ *
+ * A layout defines the seat letters of a row (left to right), where the
+ * aisles are, how many rows each premium cabin takes and the fare
+ * multiplier (per unit of distance) of each cabin. Seats are numbered
+ * letter + row, e.g. "C12".
+ */
+public enum AircraftLayout {
+
+    /** 3-3 single aisle; the original default layout */
+    NARROWBODY_6("ABCDEF", new int[] { 2 }, 2, 3, 40, 150.0, 125.0, 100.0),
+
+    /** 2-2 regional jet, no first class */
+    REGIONAL_4("ABCD", new int[] { 1 }, 0, 3, 20, 150.0, 120.0, 100.0),
+
+    /** 3-3-3 twin aisle */
+    WIDEBODY_9("ABCDEFGHK", new int[] { 2, 5 }, 3, 8, 45, 180.0, 140.0, 100.0);
+
+    public static final AircraftLayout DEFAULT = NARROWBODY_6;
+
+    private final String letters;
+    private final int[] aisleAfter;
+    private final int firstClassRows;
+    private final int businessRows;
+    private final int maxRows;
+    private final double firstClassMultiplier;
+    private final double businessMultiplier;
+    private final double economyMultiplier;
+
+    AircraftLayout(String letters, int[] aisleAfter, int firstClassRows, int businessRows, int maxRows,
+            double firstClassMultiplier, double businessMultiplier, double economyMultiplier) {
+        this.letters = letters;
+        this.aisleAfter = aisleAfter;
+        this.firstClassRows = firstClassRows;
+        this.businessRows = businessRows;
+        this.maxRows = maxRows;
+        this.firstClassMultiplier = firstClassMultiplier;
+        this.businessMultiplier = businessMultiplier;
+        this.economyMultiplier = economyMultiplier;
+    }
+
+    /**
+     * Layout of a flight, falling back to the default for flights created before layouts existed
+     */
+    public static AircraftLayout of(Flight flight) {
+        return flight.getAircraftLayout() != null ? flight.getAircraftLayout() : DEFAULT;
+    }
+
+    public int getSeatsPerRow() {
+        return letters.length();
+    }
+
+    public char getLetter(int column) {
+        return letters.charAt(column);
+    }
+
+    public int getCapacity() {
+        return maxRows * letters.length();
+    }
+
+    /**
+     * Whether there is an aisle between this column and the next one
+     */
+    public boolean isAisleAfter(int column) {
+        for (int aisle : aisleAfter) {
+            if (aisle == column) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isWindow(int column) {
+        return column == 0 || column == letters.length() - 1;
+    }
+
+    public boolean isAisle(int column) {
+        return isAisleAfter(column) || (column > 0 && isAisleAfter(column - 1));
+    }
+
+    /**
+     * Cabin class of a (1-based) row
+     */
+    public CabinClass cabinOf(int row) {
+        if (row <= firstClassRows) {
+            return CabinClass.FIRST;
+        }
+        if (row <= firstClassRows + businessRows) {
+            return CabinClass.BUSINESS;
+        }
+        return CabinClass.ECONOMY;
+    }
+
+    /**
+     * Fare of a seat in a cabin for a flight of the given distance
+     */
+    public double fareFor(CabinClass cabinClass, double distance) {
+        return switch (cabinClass) {
+            case FIRST -> distance * firstClassMultiplier;
+            case BUSINESS -> distance * businessMultiplier;
+            case ECONOMY -> distance * economyMultiplier;
+        };
+    }
+}
@@ -14,7 +14,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "flights")
+@Table(name = "flights", indexes = {
+        @Index(name = "idx_flights_departure", columnList = "departure_time, flight_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -53,10 +55,25 @@ public class Flight {
     @Column(name = "seat_capacity", nullable = false)
     private Integer seatCapacity;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "aircraft_layout", length = 20)
+    private AircraftLayout aircraftLayout = AircraftLayout.DEFAULT;
+
     @Positive(message = "Distance must be positive")
     @Column(name = "distance", nullable = false)
     private Double distance = 0.0;
 
+    // Available seats per cabin, denormalized from the seats table. Only changed
+    // through FlightRepository's bulk updates, never by saving the entity.
+    @Column(name = "available_economy", updatable = false)
+    private Integer availableEconomySeats;
+
+    @Column(name = "available_business", updatable = false)
+    private Integer availableBusinessSeats;
+
+    @Column(name = "available_first", updatable = false)
+    private Integer availableFirstSeats;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -66,4 +83,37 @@ public class Flight {
 
     @OneToMany(mappedBy = "flight", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Reservation> reservations = new ArrayList<>();
+
+    /**
+     * Available seats in one cabin, or null if the counters have not been reconciled yet
+     */
+    public Integer getAvailableSeats(CabinClass cabinClass) {
+        switch (cabinClass) {
+            case FIRST:
+                return availableFirstSeats;
+            case BUSINESS:
+                return availableBusinessSeats;
+            default:
+                return availableEconomySeats;
+        }
+    }
+
+    /**
+     * Available seats over all cabins, or null if the counters have not been reconciled yet
+     */
+    public Long getAvailableSeats() {
+        if (availableEconomySeats == null || availableBusinessSeats == null || availableFirstSeats == null) {
+            return null;
+        }
+        return (long) availableEconomySeats + availableBusinessSeats + availableFirstSeats;
+    }
+
+    /**
+     * Set all cabin counters from a per-cabin count indexed by CabinClass ordinal
+     */
+    public void setAvailableSeats(int[] byCabin) {
+        this.availableEconomySeats = byCabin[CabinClass.ECONOMY.ordinal()];
+        this.availableBusinessSeats = byCabin[CabinClass.BUSINESS.ordinal()];
+        this.availableFirstSeats = byCabin[CabinClass.FIRST.ordinal()];
+    }
 }
\ No newline at end of file
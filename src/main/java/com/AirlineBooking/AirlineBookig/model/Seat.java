@@ -36,11 +36,12 @@ public class Seat {
     @Column(name = "price", nullable = false)
     private Double price = 0.0;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version = 0L;
+
     @NotNull(message = "Flight is required")
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "flight_id", nullable = false)
     private Flight flight;
-
-    @OneToOne(mappedBy = "seat")
-    private Reservation reservation;
-}
\ No newline at end of file
+}
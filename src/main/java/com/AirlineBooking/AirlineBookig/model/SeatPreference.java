@@ -0,0 +1,7 @@
+package com.AirlineBooking.AirlineBookig.model;
+
+public enum SeatPreference {
+    NONE,
+    WINDOW,
+    AISLE
+}
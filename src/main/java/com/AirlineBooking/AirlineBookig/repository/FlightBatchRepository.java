@@ -0,0 +1,17 @@
+package com.AirlineBooking.AirlineBookig.repository;
+
+import com.AirlineBooking.AirlineBookig.model.Flight;
+
+import java.util.List;
+
+/**
+ * Batched writes for flights (IDENTITY ids keep Hibernate from batching them)
+ */
+public interface FlightBatchRepository {
+
+    /**
+     * Insert flights in a single JDBC batch and set their generated ids.
+     * The available seat counters must already be set.
+     */
+    void insertFlights(List<Flight> flights);
+}
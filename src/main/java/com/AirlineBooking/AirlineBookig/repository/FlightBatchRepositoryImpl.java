@@ -0,0 +1,78 @@
+package com.AirlineBooking.AirlineBookig.repository;
+
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public class FlightBatchRepositoryImpl implements FlightBatchRepository {
+
+    private static final String INSERT_FLIGHT =
+            "INSERT INTO flights (flight_number, origin, destination, departure_time, arrival_time, " +
+            "status, seat_capacity, aircraft_layout, distance, " +
+            "available_economy, available_business, available_first, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public FlightBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertFlights(List<Flight> flights) {
+        if (flights.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_FLIGHT, new String[] { "flight_id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Flight flight = flights.get(i);
+                        ps.setString(1, flight.getFlightNumber());
+                        ps.setString(2, flight.getOrigin());
+                        ps.setString(3, flight.getDestination());
+                        ps.setTimestamp(4, Timestamp.valueOf(flight.getDepartureTime()));
+                        ps.setTimestamp(5, Timestamp.valueOf(flight.getArrivalTime()));
+                        ps.setString(6, flight.getStatus().name());
+                        ps.setInt(7, flight.getSeatCapacity());
+                        ps.setString(8, flight.getAircraftLayout().name());
+                        ps.setDouble(9, flight.getDistance());
+                        ps.setInt(10, flight.getAvailableEconomySeats());
+                        ps.setInt(11, flight.getAvailableBusinessSeats());
+                        ps.setInt(12, flight.getAvailableFirstSeats());
+                        ps.setTimestamp(13, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return flights.size();
+                    }
+                },
+                keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        if (generated.size() != flights.size()) {
+            throw new IllegalStateException("Expected " + flights.size() + " generated flight ids, got "
+                    + generated.size());
+        }
+        for (int i = 0; i < flights.size(); i++) {
+            Number id = (Number) generated.get(i).values().iterator().next();
+            flights.get(i).setFlightId(id.longValue());
+            flights.get(i).setCreatedAt(now.toLocalDateTime());
+        }
+    }
+}
@@ -1,18 +1,30 @@
 package com.AirlineBooking.AirlineBookig.repository;
 
+import com.AirlineBooking.AirlineBookig.dto.view.FlightView;
 import com.AirlineBooking.AirlineBookig.model.Flight;
 import com.AirlineBooking.AirlineBookig.model.FlightStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface FlightRepository extends JpaRepository<Flight, Long> {
+public interface FlightRepository extends JpaRepository<Flight, Long>, FlightBatchRepository {
+
+    /**
+     * Select list for read-only FlightView rows
+     */
+    String FLIGHT_VIEW = "SELECT new com.AirlineBooking.AirlineBookig.dto.view.FlightView(" +
+            "f.flightId, f.flightNumber, f.origin, f.destination, f.departureTime, f.arrivalTime, " +
+            "f.status, f.seatCapacity, f.distance, f.aircraftLayout, f.availableEconomySeats, " +
+            "f.availableBusinessSeats, f.availableFirstSeats, f.createdAt) FROM Flight f ";
     
     /**
      * Find flight by flight number
@@ -23,12 +35,61 @@ public interface FlightRepository extends JpaRepository<Flight, Long> {
      * Check if flight number already exists
      */
     boolean existsByFlightNumber(String flightNumber);
+
+    /**
+     * All flight numbers, for bulk duplicate checks
+     */
+    @Query("SELECT f.flightNumber FROM Flight f")
+    List<String> findAllFlightNumbers();
     
+    /**
+     * Adjust the available seat counters of a flight by the given deltas.
+     * A single-row update, so concurrent adjustments never lose a change.
+     */
+    @Modifying
+    @Query("UPDATE Flight f SET f.availableEconomySeats = f.availableEconomySeats + :economy, " +
+           "f.availableBusinessSeats = f.availableBusinessSeats + :business, " +
+           "f.availableFirstSeats = f.availableFirstSeats + :first " +
+           "WHERE f.flightId = :flightId")
+    int adjustAvailableSeats(@Param("flightId") Long flightId, @Param("economy") int economy,
+                             @Param("business") int business, @Param("first") int first);
+
+    /**
+     * Overwrite the available seat counters of a flight (reconciliation)
+     */
+    @Modifying
+    @Query("UPDATE Flight f SET f.availableEconomySeats = :economy, " +
+           "f.availableBusinessSeats = :business, f.availableFirstSeats = :first " +
+           "WHERE f.flightId = :flightId")
+    int setAvailableSeats(@Param("flightId") Long flightId, @Param("economy") int economy,
+                          @Param("business") int business, @Param("first") int first);
+
+    /**
+     * First page of all flights, ordered by departure time then id
+     */
+    @Query(FLIGHT_VIEW + "ORDER BY f.departureTime ASC, f.flightId ASC")
+    List<FlightView> findFirstPage(Limit limit);
+
+    /**
+     * Next page of all flights after the given (departure time, id) key
+     */
+    @Query(FLIGHT_VIEW + "WHERE f.departureTime > :departureTime " +
+           "OR (f.departureTime = :departureTime AND f.flightId > :flightId) " +
+           "ORDER BY f.departureTime ASC, f.flightId ASC")
+    List<FlightView> findPageAfter(@Param("departureTime") LocalDateTime departureTime,
+                               @Param("flightId") Long flightId, Limit limit);
+
     /**
      * Find all flights by status
      */
     List<Flight> findByStatus(FlightStatus status);
     
+    /**
+     * Flights with a given status as read-only rows, by departure time
+     */
+    @Query(FLIGHT_VIEW + "WHERE f.status = :status ORDER BY f.departureTime ASC, f.flightId ASC")
+    List<FlightView> findViewsByStatus(@Param("status") FlightStatus status);
+    
     /**
      * Find flights by origin and destination
      */
@@ -56,16 +117,8 @@ public interface FlightRepository extends JpaRepository<Flight, Long> {
     );
     
     /**
-     * Search flights by origin and/or destination with available seats
+     * Flights with the given ids as read-only rows (route search results and index refreshes)
      */
-    @Query("SELECT f FROM Flight f WHERE " +
-           "(LOWER(f.origin) LIKE LOWER(CONCAT('%', :origin, '%')) OR :origin IS NULL) " +
-           "AND (LOWER(f.destination) LIKE LOWER(CONCAT('%', :destination, '%')) OR :destination IS NULL) " +
-           "AND f.status = 'SCHEDULED' " +
-           "AND EXISTS (SELECT s FROM Seat s WHERE s.flight = f AND s.bookingStatus = 'AVAILABLE') " +
-           "ORDER BY f.departureTime ASC")
-    List<Flight> searchAvailableFlights(
-        @Param("origin") String origin,
-        @Param("destination") String destination
-    );
+    @Query(FLIGHT_VIEW + "WHERE f.flightId IN :flightIds")
+    List<FlightView> findViewsByIdIn(@Param("flightIds") Collection<Long> flightIds);
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.AirlineBooking.AirlineBookig.repository;
+
+import java.util.List;
+
+/**
+ * Batched writes for reservations that bypass per-entity inserts
+ * (IDENTITY ids keep Hibernate from batching them)
+ */
+public interface ReservationBatchRepository {
+
+    /**
+     * Insert one CONFIRMED reservation per seat in a single JDBC batch
+     */
+    void insertConfirmedReservations(Long userId, Long flightId, List<Long> seatIds);
+}
@@ -0,0 +1,36 @@
+package com.AirlineBooking.AirlineBookig.repository;
+
+import com.AirlineBooking.AirlineBookig.model.ReservationStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ReservationBatchRepositoryImpl implements ReservationBatchRepository {
+
+    private static final String INSERT_RESERVATION =
+            "INSERT INTO reservations (user_id, flight_id, seat_id, reservation_date, status, points_awarded) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ReservationBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertConfirmedReservations(Long userId, Long flightId, List<Long> seatIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_RESERVATION, seatIds, seatIds.size(), (ps, seatId) -> {
+            ps.setLong(1, userId);
+            ps.setLong(2, flightId);
+            ps.setLong(3, seatId);
+            ps.setTimestamp(4, now);
+            ps.setString(5, ReservationStatus.CONFIRMED.name());
+            ps.setBoolean(6, false);
+        });
+    }
+}
@@ -1,19 +1,35 @@
 package com.AirlineBooking.AirlineBookig.repository;
 
+import com.AirlineBooking.AirlineBookig.dto.view.ReservationView;
 import com.AirlineBooking.AirlineBookig.model.Reservation;
 import com.AirlineBooking.AirlineBookig.model.ReservationStatus;
 import com.AirlineBooking.AirlineBookig.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, ReservationBatchRepository {
+
+        /**
+         * Select list for read-only ReservationView rows
+         */
+        String RESERVATION_VIEW = "SELECT new com.AirlineBooking.AirlineBookig.dto.view.ReservationView(" +
+                        "r.reservationId, u.userId, u.name, u.email, f.flightId, f.flightNumber, f.origin, " +
+                        "f.destination, f.departureTime, f.arrivalTime, s.seatId, s.seatNumber, s.cabinClass, " +
+                        "r.status, r.reservationDate, s.price, r.refundRequestDate) " +
+                        "FROM Reservation r JOIN r.user u JOIN r.flight f JOIN r.seat s ";
 
         /**
          * Find all reservations for a specific user
@@ -21,10 +37,17 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
         List<Reservation> findByUser(User user);
 
         /**
-         * Find all reservations by user ID
+         * Find all reservations by user ID, with user, flight and seat fetched in the same query
          */
+        @EntityGraph(attributePaths = { "user", "flight", "seat" })
         List<Reservation> findByUser_UserId(Long userId);
 
+        /**
+         * Reservations of a user as read-only rows, newest first
+         */
+        @Query(RESERVATION_VIEW + "WHERE u.userId = :userId ORDER BY r.reservationId DESC")
+        List<ReservationView> findViewsByUserId(@Param("userId") Long userId);
+
         /**
          * Find all confirmed reservations for a user
          */
@@ -32,15 +55,78 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
 
         /**
          * Find reservation by user ID and reservation ID
-         * Used to verify ownership before cancellation
+         * Used to verify ownership before cancellation; user, flight and seat are fetched with it
          */
+        @EntityGraph(attributePaths = { "user", "flight", "seat" })
         Optional<Reservation> findByReservationIdAndUser_UserId(Long reservationId, Long userId);
 
+        /**
+         * Same as findByReservationIdAndUser_UserId, as a locking read: it sees the latest
+         * committed row even if the transaction already read an older snapshot
+         */
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @EntityGraph(attributePaths = { "user", "flight", "seat" })
+        Optional<Reservation> findLockedByReservationIdAndUser_UserId(Long reservationId, Long userId);
+
+        /**
+         * Find a reservation by ID with a locking read
+         */
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        Optional<Reservation> findLockedByReservationId(Long reservationId);
+
         /**
          * Find all reservations for a specific flight
          */
         List<Reservation> findByFlight_FlightId(Long flightId);
 
+        /**
+         * Page of all reservations, newest first, with ids below the given one
+         * (Long.MAX_VALUE for the first page)
+         */
+        @Query(RESERVATION_VIEW + "WHERE r.reservationId < :beforeId ORDER BY r.reservationId DESC")
+        List<ReservationView> findPageBefore(@Param("beforeId") Long beforeId, Limit limit);
+
+        /**
+         * Page of the reservations of a flight, newest first, with ids below the given one.
+         * Served by the flight_id foreign key index, which ends in the primary key.
+         */
+        @Query(RESERVATION_VIEW + "WHERE f.flightId = :flightId " +
+                        "AND r.reservationId < :beforeId ORDER BY r.reservationId DESC")
+        List<ReservationView> findFlightPageBefore(@Param("flightId") Long flightId,
+                        @Param("beforeId") Long beforeId, Limit limit);
+
+        /**
+         * Find all reservations with user, flight and seat (analytics)
+         */
+        @Query("SELECT r FROM Reservation r JOIN FETCH r.user JOIN FETCH r.flight JOIN FETCH r.seat")
+        List<Reservation> findAllWithDetails();
+
+        /**
+         * Find the flight of a reservation without loading the reservation
+         */
+        @Query("SELECT r.flight.flightId FROM Reservation r WHERE r.reservationId = :reservationId")
+        Optional<Long> findFlightIdByReservationId(@Param("reservationId") Long reservationId);
+
+        /**
+         * Cancel a reservation only if it is still CONFIRMED, in a single statement.
+         * Returns 1 if it was cancelled. The UPDATE checks the latest committed
+         * status, whatever snapshot the transaction has read so far.
+         */
+        @Modifying
+        @Query("UPDATE Reservation r SET r.status = com.AirlineBooking.AirlineBookig.model.ReservationStatus.CANCELLED " +
+                        "WHERE r.reservationId = :reservationId " +
+                        "AND r.status = com.AirlineBooking.AirlineBookig.model.ReservationStatus.CONFIRMED")
+        int cancelIfConfirmed(@Param("reservationId") Long reservationId);
+
+        /**
+         * Find the reservations of a flight for the given seats and status
+         */
+        @Query("SELECT r FROM Reservation r JOIN FETCH r.user JOIN FETCH r.flight JOIN FETCH r.seat " +
+                        "WHERE r.flight.flightId = :flightId AND r.seat.seatId IN :seatIds AND r.status = :status")
+        List<Reservation> findByFlightAndSeatsAndStatus(@Param("flightId") Long flightId,
+                        @Param("seatIds") Collection<Long> seatIds,
+                        @Param("status") ReservationStatus status);
+
         /**
          * Find reservation by seat ID
          * Used to check if seat is already reserved
@@ -77,14 +163,16 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
         /**
          * Find reservations that have departed but points not yet awarded
          */
-        @Query("SELECT r FROM Reservation r WHERE r.status = :status AND r.pointsAwarded = false AND r.flight.departureTime < :currentTime")
+        @Query("SELECT r FROM Reservation r JOIN FETCH r.user JOIN FETCH r.flight " +
+                        "WHERE r.status = :status AND r.pointsAwarded = false AND r.flight.departureTime < :currentTime")
         List<Reservation> findUnawardedDepartedReservations(@Param("status") ReservationStatus status,
                         @Param("currentTime") LocalDateTime currentTime);
 
         /**
-         * Find unpaid reservations that have already departed
+         * Find confirmed reservations that have no seat hold yet
+         * (reservations created before seat holds existed)
          */
-        @Query("SELECT r FROM Reservation r WHERE r.status = :status AND r.flight.departureTime <= :currentTime")
-        List<Reservation> findUnpaidDepartedReservations(@Param("status") ReservationStatus status,
-                        @Param("currentTime") LocalDateTime currentTime);
+        @Query("SELECT r FROM Reservation r JOIN FETCH r.flight WHERE r.status = 'CONFIRMED' " +
+                        "AND NOT EXISTS (SELECT h FROM SeatHold h WHERE h.reservationId = r.reservationId)")
+        List<Reservation> findConfirmedReservationsWithoutHold();
 }
@@ -0,0 +1,21 @@
+package com.AirlineBooking.AirlineBookig.repository;
+
+import com.AirlineBooking.AirlineBookig.model.Seat;
+
+import java.util.List;
+
+/**
+ * Batched writes for seats (IDENTITY ids keep Hibernate from batching them)
+ */
+public interface SeatBatchRepository {
+
+    /**
+     * Insert the seats of a flight in a single JDBC batch
+     */
+    void insertSeats(Long flightId, List<Seat> seats);
+
+    /**
+     * Insert seats of several flights in a single JDBC batch; each seat's flight must already have an id
+     */
+    void insertSeats(List<Seat> seats);
+}
@@ -0,0 +1,43 @@
+package com.AirlineBooking.AirlineBookig.repository;
+
+import com.AirlineBooking.AirlineBookig.model.Seat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+public class SeatBatchRepositoryImpl implements SeatBatchRepository {
+
+    private static final String INSERT_SEAT =
+            "INSERT INTO seats (flight_id, seat_number, cabin_class, booking_status, price, version) " +
+            "VALUES (?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SeatBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertSeats(Long flightId, List<Seat> seats) {
+        jdbcTemplate.batchUpdate(INSERT_SEAT, seats, seats.size(), (ps, seat) -> {
+            ps.setLong(1, flightId);
+            ps.setString(2, seat.getSeatNumber());
+            ps.setString(3, seat.getCabinClass().name());
+            ps.setString(4, seat.getBookingStatus().name());
+            ps.setDouble(5, seat.getPrice());
+        });
+    }
+
+    @Override
+    public void insertSeats(List<Seat> seats) {
+        jdbcTemplate.batchUpdate(INSERT_SEAT, seats, seats.size(), (ps, seat) -> {
+            ps.setLong(1, seat.getFlight().getFlightId());
+            ps.setString(2, seat.getSeatNumber());
+            ps.setString(3, seat.getCabinClass().name());
+            ps.setString(4, seat.getBookingStatus().name());
+            ps.setDouble(5, seat.getPrice());
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package com.AirlineBooking.AirlineBookig.repository;
+
+import com.AirlineBooking.AirlineBookig.model.SeatHold;
+
+import java.util.List;
+
+/**
+ * Batched writes for seat holds (IDENTITY ids keep Hibernate from batching them)
+ */
+public interface SeatHoldBatchRepository {
+
+    /**
+     * Insert the given holds in a single JDBC batch
+     */
+    void insertHolds(List<SeatHold> holds);
+}
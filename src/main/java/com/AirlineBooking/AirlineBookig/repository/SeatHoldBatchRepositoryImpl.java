@@ -0,0 +1,35 @@
+package com.AirlineBooking.AirlineBookig.repository;
+
+import com.AirlineBooking.AirlineBookig.model.SeatHold;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class SeatHoldBatchRepositoryImpl implements SeatHoldBatchRepository {
+
+    private static final String INSERT_HOLD =
+            "INSERT INTO seat_holds (reservation_id, flight_id, seat_id, expires_at, created_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SeatHoldBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertHolds(List<SeatHold> holds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_HOLD, holds, holds.size(), (ps, hold) -> {
+            ps.setLong(1, hold.getReservationId());
+            ps.setLong(2, hold.getFlightId());
+            ps.setLong(3, hold.getSeatId());
+            ps.setTimestamp(4, Timestamp.valueOf(hold.getExpiresAt()));
+            ps.setTimestamp(5, now);
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.AirlineBooking.AirlineBookig.repository;
+
+import com.AirlineBooking.AirlineBookig.model.SeatHold;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SeatHoldRepository extends JpaRepository<SeatHold, Long>, SeatHoldBatchRepository {
+
+    /**
+     * Find the holds of the given reservations
+     */
+    List<SeatHold> findByReservationIdIn(Collection<Long> reservationIds);
+
+    /**
+     * Holds that expired before the given time, oldest first, whichever node placed them
+     */
+    List<SeatHold> findByExpiresAtBeforeOrderByExpiresAt(LocalDateTime time, Limit limit);
+
+    /**
+     * Delete the hold of a reservation
+     */
+    @Modifying
+    @Query("DELETE FROM SeatHold h WHERE h.reservationId = :reservationId")
+    int deleteByReservationId(@Param("reservationId") Long reservationId);
+}
@@ -1,19 +1,30 @@
 package com.AirlineBooking.AirlineBookig.repository;
 
+import com.AirlineBooking.AirlineBookig.dto.view.SeatView;
 import com.AirlineBooking.AirlineBookig.model.BookingStatus;
 import com.AirlineBooking.AirlineBookig.model.CabinClass;
 import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.model.FlightStatus;
 import com.AirlineBooking.AirlineBookig.model.Seat;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface SeatRepository extends JpaRepository<Seat, Long> {
+public interface SeatRepository extends JpaRepository<Seat, Long>, SeatBatchRepository {
+
+    /**
+     * Select list for read-only SeatView rows
+     */
+    String SEAT_VIEW = "SELECT new com.AirlineBooking.AirlineBookig.dto.view.SeatView(" +
+            "s.seatId, s.seatNumber, s.cabinClass, s.bookingStatus, s.price, f.flightId, f.flightNumber, f.aircraftLayout) " +
+            "FROM Seat s JOIN s.flight f ";
     
     /**
      * Find all seats for a specific flight
@@ -37,6 +48,19 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
            "AND s.bookingStatus = 'AVAILABLE'")
     List<Seat> findAvailableSeatsByFlightId(@Param("flightId") Long flightId);
     
+    /**
+     * Seats of a flight as read-only rows
+     */
+    @Query(SEAT_VIEW + "WHERE f.flightId = :flightId ORDER BY s.seatId")
+    List<SeatView> findViewsByFlightId(@Param("flightId") Long flightId);
+
+    /**
+     * Available seats of a flight as read-only rows
+     */
+    @Query(SEAT_VIEW + "WHERE f.flightId = :flightId " +
+           "AND s.bookingStatus = com.AirlineBooking.AirlineBookig.model.BookingStatus.AVAILABLE ORDER BY s.seatId")
+    List<SeatView> findAvailableViewsByFlightId(@Param("flightId") Long flightId);
+    
     /**
      * Find seat by flight and seat number
      */
@@ -54,6 +78,35 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
            "AND s.bookingStatus = 'AVAILABLE'")
     long countAvailableSeatsByFlightId(@Param("flightId") Long flightId);
     
+    /**
+     * Available seats per cabin of a flight, counted from the seats table
+     */
+    @Query("SELECT s.flight.flightId AS flightId, s.cabinClass AS cabinClass, COUNT(s) AS available " +
+           "FROM Seat s WHERE s.flight.flightId = :flightId " +
+           "AND s.bookingStatus = com.AirlineBooking.AirlineBookig.model.BookingStatus.AVAILABLE " +
+           "GROUP BY s.flight.flightId, s.cabinClass")
+    List<CabinAvailability> countAvailableByCabin(@Param("flightId") Long flightId);
+
+    /**
+     * Available seats per flight and cabin for every flight with a given status
+     */
+    @Query("SELECT s.flight.flightId AS flightId, s.cabinClass AS cabinClass, COUNT(s) AS available " +
+           "FROM Seat s WHERE s.flight.status = :status " +
+           "AND s.bookingStatus = com.AirlineBooking.AirlineBookig.model.BookingStatus.AVAILABLE " +
+           "GROUP BY s.flight.flightId, s.cabinClass")
+    List<CabinAvailability> countAvailableByCabinForStatus(@Param("status") FlightStatus status);
+
+    /**
+     * Available seat count of one cabin of one flight
+     */
+    interface CabinAvailability {
+        Long getFlightId();
+
+        CabinClass getCabinClass();
+
+        long getAvailable();
+    }
+    
     /**
      * Find available seats by cabin class for a flight
      */
@@ -63,6 +116,30 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
         BookingStatus bookingStatus
     );
     
+    /**
+     * Atomically claim a seat (AVAILABLE -> RESERVED) in a single statement.
+     * Returns the number of rows updated: 1 if the claim won, 0 if the seat
+     * was not available or does not belong to the flight.
+     */
+    @Modifying
+    @Query("UPDATE Seat s SET s.bookingStatus = com.AirlineBooking.AirlineBookig.model.BookingStatus.RESERVED, " +
+           "s.version = s.version + 1 " +
+           "WHERE s.seatId = :seatId AND s.flight.flightId = :flightId " +
+           "AND s.bookingStatus = com.AirlineBooking.AirlineBookig.model.BookingStatus.AVAILABLE")
+    int claimSeat(@Param("flightId") Long flightId, @Param("seatId") Long seatId);
+    
+    /**
+     * Atomically claim several seats of a flight in a single statement.
+     * Returns the number of seats claimed; anything less than the number of
+     * seat IDs means at least one seat was taken or not on the flight.
+     */
+    @Modifying
+    @Query("UPDATE Seat s SET s.bookingStatus = com.AirlineBooking.AirlineBookig.model.BookingStatus.RESERVED, " +
+           "s.version = s.version + 1 " +
+           "WHERE s.seatId IN :seatIds AND s.flight.flightId = :flightId " +
+           "AND s.bookingStatus = com.AirlineBooking.AirlineBookig.model.BookingStatus.AVAILABLE")
+    int claimSeats(@Param("flightId") Long flightId, @Param("seatIds") Collection<Long> seatIds);
+    
     /**
      * Delete all seats for a specific flight
      * Used when flight is deleted
@@ -0,0 +1,29 @@
+package com.AirlineBooking.AirlineBookig.security;
+
+import com.AirlineBooking.AirlineBookig.model.Role;
+import com.AirlineBooking.AirlineBookig.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * The signed-in user of a request, built from the claims of a verified JWT
+ * (no user entity is loaded). The name is the email, as for UserDetails.
+ */
+public record AuthenticatedUser(Long userId, String email, Role role) implements Principal {
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getUserId(), user.getEmail(), user.getRole());
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+}
@@ -1,8 +1,11 @@
 package com.AirlineBooking.AirlineBookig.security;
 
+import com.AirlineBooking.AirlineBookig.config.ReplicaRoutingDataSource;
 import com.AirlineBooking.AirlineBookig.model.User;
 import com.AirlineBooking.AirlineBookig.repository.UserRepository;
+import com.AirlineBooking.AirlineBookig.util.BoundedCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,15 +16,21 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final BoundedCache<String, Optional<AuthenticatedUser>> accounts;
 
     @Autowired
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+            @Value("${booking.auth.account-cache-size:10000}") int accountCacheSize,
+            @Value("${booking.auth.account-cache-ttl-ms:30000}") long accountCacheTtlMillis) {
         this.userRepository = userRepository;
+        this.accounts = new BoundedCache<>("accounts", accountCacheSize, accountCacheTtlMillis);
     }
 
     /**
@@ -36,6 +45,25 @@ public class CustomUserDetailsService implements UserDetailsService {
         return buildUserDetails(user);
     }
 
+    /**
+     * The signed-in user for the claims of a verified token, or null if the
+     * account no longer exists or its id or role differ from the claims.
+     * Claims without a user id (tokens issued before they carried one) are
+     * filled in from the account. Accounts are read from the primary at most
+     * once per booking.auth.account-cache-ttl-ms per email.
+     */
+    public AuthenticatedUser verify(AuthenticatedUser claimed) {
+        String email = claimed.email();
+        AuthenticatedUser current = accounts.get(email,
+                () -> ReplicaRoutingDataSource.onPrimary(() -> userRepository.findByEmail(email)
+                        .map(AuthenticatedUser::of)),
+                account -> List.of()).orElse(null);
+        if (current == null || claimed.userId() == null) {
+            return current;
+        }
+        return current.equals(claimed) ? claimed : null;
+    }
+
     /**
      * Build Spring Security UserDetails from our User entity
      */
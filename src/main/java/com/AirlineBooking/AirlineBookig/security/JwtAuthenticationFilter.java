@@ -9,7 +9,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -26,7 +25,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private CustomUserDetailsService userDetailsService;
 
     /**
-     * Filter incoming requests to validate JWT tokens
+     * Filter incoming requests to validate JWT tokens. The principal is an
+     * AuthenticatedUser built from the token's claims; the account is only
+     * checked against the (briefly cached) current user state.
      */
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
@@ -36,30 +37,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Get Authorization header
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
+        AuthenticatedUser claimed = null;
 
-        // Extract JWT token from Bearer header
+        // Extract and verify JWT token from Bearer header (signature and expiry)
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            String jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
+                claimed = jwtUtil.extractUser(jwt);
             } catch (Exception e) {
-                logger.error("Error extracting username from token: " + e.getMessage());
+                logger.error("Error extracting user from token: " + e.getMessage());
             }
         }
 
-        // Validate token and set authentication
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        // Check the account and set authentication
+        if (claimed != null && claimed.email() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            if (jwtUtil.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authenticationToken = 
+            AuthenticatedUser user = this.userDetailsService.verify(claimed);
+
+            if (user != null) {
+                UsernamePasswordAuthenticationToken authenticationToken =
                     new UsernamePasswordAuthenticationToken(
-                        userDetails, 
-                        null, 
-                        userDetails.getAuthorities()
+                        user,
+                        null,
+                        user.authorities()
                     );
                 
                 authenticationToken.setDetails(
@@ -1,100 +1,177 @@
 package com.AirlineBooking.AirlineBookig.security;
 
+import com.AirlineBooking.AirlineBookig.model.Role;
+import com.AirlineBooking.AirlineBookig.model.User;
+import com.AirlineBooking.AirlineBookig.util.BoundedCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 
+/**
+ * Issues and verifies JWTs.
+ *
+ * The signing key and the parser are built once. A token is parsed and
+ * verified once: the result (the user it names and its expiry) is kept in
+ * a bounded cache keyed by a SHA-256 digest of the token, so the token
+ * itself is never held, and a cached token is still rejected once it has
+ * expired.
+ */
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
 
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long expiration;
+    private final LongSupplier clock;
+    private final BoundedCache<String, VerifiedToken> verifiedTokens;
 
     /**
-     * Generate secret key for JWT signing
+     * A token whose signature checked out: the user it names and when it expires
      */
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    private record VerifiedToken(AuthenticatedUser user, long expiresAtMillis) {
+    }
+
+    @Autowired
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+            @Value("${jwt.expiration}") long expiration,
+            @Value("${booking.auth.token-cache-size:10000}") int tokenCacheSize,
+            @Value("${booking.auth.token-cache-ttl-ms:300000}") long tokenCacheTtlMillis) {
+        this(secret, expiration, tokenCacheSize, tokenCacheTtlMillis, System::currentTimeMillis);
+    }
+
+    JwtUtil(String secret, long expiration, int tokenCacheSize, long tokenCacheTtlMillis, LongSupplier clock) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .clock(() -> new Date(clock.getAsLong()))
+                .build();
+        this.expiration = expiration;
+        this.clock = clock;
+        this.verifiedTokens = new BoundedCache<>("verified-tokens", tokenCacheSize, tokenCacheTtlMillis);
     }
 
     /**
      * Extract username (email) from JWT token
      */
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return extractUser(token).email();
     }
 
     /**
      * Extract expiration date from JWT token
      */
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return new Date(verify(token).expiresAtMillis());
+    }
+
+    /**
+     * The signed-in user named by a token, from its claims alone. Tokens
+     * issued before the claims existed give only the email.
+     * Throws if the token is invalid or expired.
+     */
+    public AuthenticatedUser extractUser(String token) {
+        return verify(token).user();
     }
 
     /**
      * Extract specific claim from token
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(extractAllClaims(token));
     }
 
     /**
-     * Extract all claims from token
+     * Hit, miss and eviction counters of the verified token cache
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith((javax.crypto.SecretKey) getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public BoundedCache.Stats getTokenCacheStats() {
+        return verifiedTokens.stats();
     }
 
     /**
-     * Check if token is expired
+     * Verify a token, or take it from the cache while it has not expired
      */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private VerifiedToken verify(String token) {
+        VerifiedToken verified = verifiedTokens.get(digest(token), () -> parse(token), t -> List.of());
+        if (verified.expiresAtMillis() <= clock.getAsLong()) {
+            // Expired since it was cached: parsing again rejects it
+            return parse(token);
+        }
+        return verified;
+    }
+
+    private VerifiedToken parse(String token) {
+        Claims claims = extractAllClaims(token);
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        AuthenticatedUser user = new AuthenticatedUser(userId != null ? userId.longValue() : null,
+                claims.getSubject(), role != null ? Role.valueOf(role) : null);
+        return new VerifiedToken(user, claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE);
+    }
+
+    /**
+     * Extract all claims from token
+     */
+    private Claims extractAllClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     /**
-     * Generate JWT token for user
+     * Generate JWT token for user, carrying the user id and role
      */
-    public String generateToken(UserDetails userDetails) {
+    public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername());
+        claims.put(USER_ID_CLAIM, user.getUserId());
+        claims.put(ROLE_CLAIM, user.getRole().name());
+        return createToken(claims, user.getEmail());
     }
 
     /**
      * Create JWT token with claims and subject
      */
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = clock.getAsLong();
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
     /**
-     * Validate JWT token
+     * Validate JWT token: signed by us, not expired, and naming this user
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return extractUsername(token).equals(userDetails.getUsername());
     }
-}
\ No newline at end of file
+}
@@ -111,11 +111,15 @@ public class SecurityConfig {
                 // Public endpoints - no authentication required
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/flights/search").permitAll()
+                .requestMatchers("/api/flights/places").permitAll()
+                .requestMatchers("/api/flights/connections").permitAll()
+                .requestMatchers("/api/flights/fare-calendar").permitAll()
                 .requestMatchers("/api/flights/available").permitAll()
                 .requestMatchers("/api/flights").permitAll()
                 .requestMatchers("/api/flights/{id}").permitAll()
                 .requestMatchers("/api/flights/{id}/seats").permitAll()
                 .requestMatchers("/api/flights/{id}/seats/available").permitAll()
+                .requestMatchers("/api/flights/{id}/seats/stream").permitAll()
                 .requestMatchers("/error").permitAll()
                 
                 // Admin-only endpoints
@@ -7,6 +7,7 @@ import com.AirlineBooking.AirlineBookig.repository.FlightRepository;
 import com.AirlineBooking.AirlineBookig.repository.ReservationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -25,8 +26,9 @@ public class AnalyticsService {
         this.reservationRepository = reservationRepository;
     }
 
+    @Transactional(readOnly = true)
     public AnalyticsResponse getAnalytics() {
-        List<Reservation> allReservations = reservationRepository.findAll();
+        List<Reservation> allReservations = reservationRepository.findAllWithDetails();
         List<Flight> allFlights = flightRepository.findAll();
 
         Map<LocalDate, Double> revenueMap = new TreeMap<>(Collections.reverseOrder());
@@ -2,6 +2,7 @@ package com.AirlineBooking.AirlineBookig.service;
 
 
 
+import com.AirlineBooking.AirlineBookig.config.ReplicaRoutingDataSource;
 import com.AirlineBooking.AirlineBookig.model.Role;
 import com.AirlineBooking.AirlineBookig.model.User;
 import com.AirlineBooking.AirlineBookig.repository.UserRepository;
@@ -9,7 +10,6 @@ import com.AirlineBooking.AirlineBookig.security.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -79,21 +79,18 @@ public class AuthService {
     }
 
     /**
-     * Authenticate user and generate JWT token
+     * Authenticate user and generate JWT token.
+     * Reads the account from the primary: it may have been registered a moment ago.
      */
     public String login(String email, String password) {
         try {
-            // Authenticate user
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(email, password)
-            );
-
-            // Load user details
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-
-            // Generate JWT token
-            return jwtUtil.generateToken(userDetails);
+            return ReplicaRoutingDataSource.onPrimary(() -> {
+                // Authenticate user
+                authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(email, password));
 
+                // Generate JWT token carrying the user id and role
+                return jwtUtil.generateToken(getUserByEmail(email));
+            });
         } catch (Exception e) {
             throw new RuntimeException("Invalid email or password");
         }
@@ -0,0 +1,44 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Slf4j
+public class AvailabilityReconcileScheduler {
+
+    private final SeatService seatService;
+
+    @Autowired
+    public AvailabilityReconcileScheduler(SeatService seatService) {
+        this.seatService = seatService;
+    }
+
+    /**
+     * Compares the denormalized available seat counters of scheduled flights
+     * with the seats table (every 10 minutes by default) and corrects any
+     * flight that drifted. Also fills in counters of flights created before
+     * the counters existed.
+     */
+    @Scheduled(initialDelay = 30000, fixedDelayString = "${booking.availability.reconcile-ms:600000}")
+    public void reconcileAvailability() {
+        try {
+            List<Long> candidates = seatService.findAvailabilityDrift();
+            int corrected = 0;
+            for (Long flightId : candidates) {
+                if (seatService.reconcileAvailableSeats(flightId)) {
+                    corrected++;
+                }
+            }
+            if (corrected > 0) {
+                log.warn("Corrected available seat counters of {} flights", corrected);
+            }
+        } catch (Exception e) {
+            log.error("Error reconciling available seat counters: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.config.ReplicaRoutingDataSource;
+import com.AirlineBooking.AirlineBookig.dto.response.CursorPage;
+import com.AirlineBooking.AirlineBookig.dto.view.FlightView;
+import com.AirlineBooking.AirlineBookig.dto.view.SeatView;
+import com.AirlineBooking.AirlineBookig.event.FlightChangedEvent;
+import com.AirlineBooking.AirlineBookig.event.SeatsChangedEvent;
+import com.AirlineBooking.AirlineBookig.model.FlightStatus;
+import com.AirlineBooking.AirlineBookig.util.BoundedCache;
+import com.AirlineBooking.AirlineBookig.util.RouteIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Node-local cache of the public catalog reads: flight pages, the scheduled
+ * flight list, search results and seat maps.
+ *
+ * Invalidated once a change commits (after FlightSearchIndex has applied it):
+ * - a flight created, edited, cancelled or deleted drops every flight list
+ *   and that flight's seat maps;
+ * - a seat change drops that flight's seat maps, the lists showing the
+ *   flight, and the searches the flight now qualifies for.
+ * Entries also expire after booking.cache.ttl-ms, which bounds how stale a
+ * result can get when the change happened on another node.
+ *
+ * Callers inside a transaction read through: they may see their own
+ * uncommitted writes, which must not be shared. Values are loaded in a
+ * read-only transaction, so from a replica, unless a flight they cover
+ * changed on this node within the replica lag (booking.datasource.primary-pin-ms,
+ * as recorded by FlightVersions): a load started after an invalidation has
+ * to see the change that caused it. Flight pages and status lists may cover
+ * any flight, so any recent change keeps them on the primary.
+ */
+@Component
+public class CatalogCache {
+
+    private final FlightSearchIndex flightSearchIndex;
+    private final FlightVersions flightVersions;
+    private final long replicaLagMillis;
+    private final TransactionTemplate readOnly;
+    private final BoundedCache<PageKey, CursorPage<FlightView>> pages;
+    private final BoundedCache<FlightStatus, List<FlightView>> byStatus;
+    private final BoundedCache<RouteIndex.Query, List<FlightView>> searches;
+    private final BoundedCache<SeatMapKey, List<SeatView>> seatMaps;
+
+    private record PageKey(String cursor, int size) {
+    }
+
+    private record SeatMapKey(Long flightId, boolean availableOnly) {
+    }
+
+    @Autowired
+    public CatalogCache(FlightSearchIndex flightSearchIndex, FlightVersions flightVersions,
+            PlatformTransactionManager transactionManager,
+            @Value("${booking.cache.max-entries:1000}") int maxEntries,
+            @Value("${booking.cache.ttl-ms:5000}") long ttlMillis,
+            @Value("${booking.datasource.primary-pin-ms:5000}") long replicaLagMillis) {
+        this.flightSearchIndex = flightSearchIndex;
+        this.flightVersions = flightVersions;
+        this.replicaLagMillis = replicaLagMillis;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.pages = new BoundedCache<>("flight-pages", maxEntries, ttlMillis);
+        this.byStatus = new BoundedCache<>("flights-by-status", FlightStatus.values().length, ttlMillis);
+        this.searches = new BoundedCache<>("flight-searches", maxEntries, ttlMillis);
+        this.seatMaps = new BoundedCache<>("seat-maps", maxEntries, ttlMillis);
+    }
+
+    /**
+     * One page of all flights
+     */
+    public CursorPage<FlightView> flightsPage(String cursor, int size, Supplier<CursorPage<FlightView>> loader) {
+        if (inTransaction()) {
+            return loader.get();
+        }
+        return pages.get(new PageKey(cursor, size), () -> readAnyFlights(loader), page -> flightIds(page.getItems()));
+    }
+
+    /**
+     * All flights with a status
+     */
+    public List<FlightView> flightsByStatus(FlightStatus status, Supplier<List<FlightView>> loader) {
+        if (inTransaction()) {
+            return loader.get();
+        }
+        return byStatus.get(status, () -> readAnyFlights(loader), CatalogCache::flightIds);
+    }
+
+    /**
+     * Results of a route index query; the loader reads the flights it found
+     * through {@link #readFlights}
+     */
+    public List<FlightView> search(RouteIndex.Query query, Supplier<List<FlightView>> loader) {
+        if (inTransaction()) {
+            return loader.get();
+        }
+        return searches.get(query, loader, CatalogCache::flightIds);
+    }
+
+    /**
+     * A flight's seats, or only its available ones
+     */
+    public List<SeatView> seatMap(Long flightId, boolean availableOnly, Supplier<List<SeatView>> loader) {
+        if (inTransaction()) {
+            return loader.get();
+        }
+        return seatMaps.get(new SeatMapKey(flightId, availableOnly), () -> readFlights(List.of(flightId), loader),
+                seats -> List.of(flightId));
+    }
+
+    /**
+     * Run a read of some flights on a replica, or on the primary if one of
+     * them changed on this node within the replica lag
+     */
+    public <T> T readFlights(Collection<Long> flightIds, Supplier<T> read) {
+        if (flightVersions.changedWithin(flightIds, replicaLagMillis)) {
+            return ReplicaRoutingDataSource.onPrimary(read);
+        }
+        return readOnly.execute(status -> read.get());
+    }
+
+    /**
+     * Hit, miss and eviction counters of each cache
+     */
+    public List<BoundedCache.Stats> getStats() {
+        return List.of(pages.stats(), byStatus.stats(), searches.stats(), seatMaps.stats());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(FlightSearchIndex.ORDER + 1)
+    public void onFlightChanged(FlightChangedEvent event) {
+        pages.invalidateAll();
+        byStatus.invalidateAll();
+        searches.invalidateAll();
+        seatMaps.invalidateTag(event.flightId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(FlightSearchIndex.ORDER + 1)
+    public void onSeatsChanged(SeatsChangedEvent event) {
+        Long flightId = event.flightId();
+        seatMaps.invalidateTag(flightId);
+        pages.invalidateTag(flightId);
+        byStatus.invalidateTag(flightId);
+        searches.invalidateTag(flightId);
+        // A flight that got a seat back may now qualify for searches it was missing from
+        searches.invalidateKeys(query -> flightSearchIndex.matches(flightId, query));
+    }
+
+    private <T> T readAnyFlights(Supplier<T> read) {
+        if (flightVersions.changedWithin(replicaLagMillis)) {
+            return ReplicaRoutingDataSource.onPrimary(read);
+        }
+        return readOnly.execute(status -> read.get());
+    }
+
+    private static boolean inTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    private static List<Long> flightIds(List<FlightView> flights) {
+        return flights.stream().map(FlightView::flightId).toList();
+    }
+}
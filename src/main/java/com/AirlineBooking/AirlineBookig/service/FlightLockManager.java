@@ -0,0 +1,161 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.dto.response.LockStripeStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process booking locks, striped by flightId.
+ *
+ * A flight maps to stripe (flightId mod stripes), so any window of
+ * consecutive flight ids up to the stripe count never shares a lock;
+ * bookings on the same flight serialize on one ReentrantLock. Each stripe
+ * records acquisitions, contention and wait time, and reports its current
+ * queue depth, so hot flights show up in the metrics.
+ */
+@Component
+public class FlightLockManager {
+
+    private final Stripe[] stripes;
+    private final long timeoutMillis;
+
+    @Autowired
+    public FlightLockManager(@Value("${booking.lock.stripes:256}") int stripeCount,
+            @Value("${booking.lock.timeout-ms:5000}") long timeoutMillis) {
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(i);
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Lock a flight until the current transaction completes.
+     * Outside a transaction use {@link #lock(Long)} and {@link #unlock(Long)}.
+     */
+    public void lockForTransaction(Long flightId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("No active transaction to bind the flight lock to");
+        }
+        lock(flightId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                unlock(flightId);
+            }
+        });
+    }
+
+    /**
+     * Lock several flights until the current transaction completes.
+     * Their stripes are locked once each in ascending stripe order so that
+     * callers cannot deadlock (flight id order would not do: flights 2 and
+     * 257 map to stripes 2 and 1 of 256).
+     */
+    public void lockForTransaction(Collection<Long> flightIds) {
+        TreeMap<Integer, Long> byStripe = new TreeMap<>();
+        for (Long flightId : flightIds) {
+            byStripe.putIfAbsent(stripeIndexOf(flightId), flightId);
+        }
+        for (Long flightId : byStripe.values()) {
+            lockForTransaction(flightId);
+        }
+    }
+
+    /**
+     * Acquire the lock of a flight, waiting at most the configured timeout
+     */
+    public void lock(Long flightId) {
+        Stripe stripe = stripeOf(flightId);
+        long start = System.nanoTime();
+        boolean acquired = stripe.lock.tryLock();
+        boolean contended = !acquired;
+        try {
+            if (contended) {
+                acquired = stripe.lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!acquired) {
+            throw new RuntimeException("Flight is busy, please try again");
+        }
+        stripe.record(flightId, contended, System.nanoTime() - start);
+    }
+
+    /**
+     * Release the lock of a flight
+     */
+    public void unlock(Long flightId) {
+        stripeOf(flightId).lock.unlock();
+    }
+
+    /**
+     * Per-stripe metrics for every stripe that has been used
+     */
+    public List<LockStripeStats> getStats() {
+        List<LockStripeStats> stats = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            if (stripe.acquisitions.get() > 0) {
+                stats.add(stripe.snapshot());
+            }
+        }
+        stats.sort((a, b) -> Long.compare(b.getTotalWaitMicros(), a.getTotalWaitMicros()));
+        return stats;
+    }
+
+    private Stripe stripeOf(Long flightId) {
+        return stripes[stripeIndexOf(flightId)];
+    }
+
+    private int stripeIndexOf(Long flightId) {
+        return (int) Math.floorMod(flightId, (long) stripes.length);
+    }
+
+    private static final class Stripe {
+
+        private final int index;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final AtomicLong acquisitions = new AtomicLong();
+        private final AtomicLong contended = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private volatile long lastFlightId;
+
+        Stripe(int index) {
+            this.index = index;
+        }
+
+        void record(Long flightId, boolean wasContended, long waitNanos) {
+            lastFlightId = flightId;
+            acquisitions.incrementAndGet();
+            if (wasContended) {
+                contended.incrementAndGet();
+            }
+            totalWaitNanos.addAndGet(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        }
+
+        LockStripeStats snapshot() {
+            return new LockStripeStats(
+                    index,
+                    lastFlightId,
+                    acquisitions.get(),
+                    contended.get(),
+                    totalWaitNanos.get() / 1_000,
+                    maxWaitNanos.get() / 1_000,
+                    lock.getQueueLength());
+        }
+    }
+}
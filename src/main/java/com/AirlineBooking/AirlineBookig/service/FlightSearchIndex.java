@@ -0,0 +1,247 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.config.ReplicaRoutingDataSource;
+import com.AirlineBooking.AirlineBookig.dto.view.FlightView;
+import com.AirlineBooking.AirlineBookig.event.FlightChangedEvent;
+import com.AirlineBooking.AirlineBookig.event.SeatsChangedEvent;
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.CabinClass;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.model.FlightStatus;
+import com.AirlineBooking.AirlineBookig.repository.FlightRepository;
+import com.AirlineBooking.AirlineBookig.repository.SeatRepository;
+import com.AirlineBooking.AirlineBookig.repository.SeatRepository.CabinAvailability;
+import com.AirlineBooking.AirlineBookig.util.ConnectionIndex;
+import com.AirlineBooking.AirlineBookig.util.ConnectionIndex.Itinerary;
+import com.AirlineBooking.AirlineBookig.util.FareCalendar;
+import com.AirlineBooking.AirlineBookig.util.PlaceSuggester;
+import com.AirlineBooking.AirlineBookig.util.PlaceSuggester.Suggestion;
+import com.AirlineBooking.AirlineBookig.util.RouteIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Node-local route search, connection search, fare calendar and place
+ * suggestions over scheduled flights.
+ *
+ * Built from the flights table on startup and kept current from
+ * FlightChangedEvent and SeatsChangedEvent once their transaction commits,
+ * reading from the primary so that a lagging replica cannot undo a change.
+ * A flight is searchable while it is SCHEDULED and has a seat left; the
+ * seat counters on the flight decide which cabins are available, and the
+ * layout and distance give each cabin's fare (the price every seat of
+ * that cabin was created with). Seat changes only update availability. Place
+ * suggestions cover the origins and destinations of all scheduled flights
+ * and are answered from memory only.
+ */
+@Component
+@Slf4j
+public class FlightSearchIndex {
+
+    /**
+     * Listener order: the index is updated before anything that reads it reacts to the same change
+     */
+    public static final int ORDER = 0;
+
+    private static final CabinClass[] CABINS = CabinClass.values();
+
+    private final FlightRepository flightRepository;
+    private final SeatRepository seatRepository;
+    private final RouteIndex index = new RouteIndex();
+    private final ConnectionIndex connections = new ConnectionIndex();
+    private final FareCalendar fareCalendar = new FareCalendar();
+    private final PlaceSuggester places = new PlaceSuggester();
+    private final Duration minConnection;
+    private final Duration maxLayover;
+
+    @Autowired
+    public FlightSearchIndex(FlightRepository flightRepository, SeatRepository seatRepository,
+            @Value("${booking.connections.min-connection-minutes:45}") long minConnectionMinutes,
+            @Value("${booking.connections.max-layover-minutes:720}") long maxLayoverMinutes) {
+        this.flightRepository = flightRepository;
+        this.seatRepository = seatRepository;
+        this.minConnection = Duration.ofMinutes(minConnectionMinutes);
+        this.maxLayover = Duration.ofMinutes(maxLayoverMinutes);
+    }
+
+    /**
+     * Index all scheduled flights once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<FlightView> scheduled = ReplicaRoutingDataSource.onPrimary(
+                () -> flightRepository.findViewsByStatus(FlightStatus.SCHEDULED));
+        for (FlightView flight : scheduled) {
+            put(flight);
+        }
+        log.info("Route search index built for {} scheduled flights", scheduled.size());
+    }
+
+    /**
+     * Ids of the best scheduled flights with seats left for a query, in the requested order
+     */
+    public List<Long> search(RouteIndex.Query query) {
+        return index.search(query);
+    }
+
+    /**
+     * Whether a flight currently qualifies for a query
+     */
+    public boolean matches(Long flightId, RouteIndex.Query query) {
+        return index.matches(flightId, query);
+    }
+
+    /**
+     * The best itineraries with up to maxStops stops from origin to destination,
+     * with the first flight departing in [departFrom, departBefore)
+     */
+    public List<Itinerary> searchConnections(String origin, String destination, LocalDateTime departFrom,
+            LocalDateTime departBefore, int maxStops, int limit) {
+        return connections.search(origin, destination, departFrom, departBefore,
+                new ConnectionIndex.Rules(maxStops, minConnection, maxLayover), limit);
+    }
+
+    /**
+     * Cheapest available fare per cabin for each day from first to last (inclusive) on a route
+     */
+    public List<FareCalendar.Day> fareCalendar(String origin, String destination, LocalDate first, LocalDate last) {
+        return fareCalendar.days(origin, destination, first, last);
+    }
+
+    /**
+     * Up to limit origins or destinations matching what the user typed so far
+     */
+    public List<Suggestion> suggestPlaces(String query, int limit) {
+        return places.suggest(query, limit);
+    }
+
+    /**
+     * Number of indexed flights
+     */
+    public int size() {
+        return index.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(ORDER)
+    public void onFlightChanged(FlightChangedEvent event) {
+        Flight flight = event.flight();
+        if (event.deleted() || flight.getStatus() != FlightStatus.SCHEDULED) {
+            remove(flight.getFlightId());
+            return;
+        }
+        if (!index.contains(flight.getFlightId())) {
+            // New flight: its seat counters were just written
+            put(flight.getFlightId(), flight.getOrigin(), flight.getDestination(), flight.getDepartureTime(),
+                    flight.getArrivalTime(), faresOf(AircraftLayout.of(flight), flight.getDistance()),
+                    availableSeatsOf(flight.getFlightId(), flight.getAvailableEconomySeats(),
+                            flight.getAvailableBusinessSeats(), flight.getAvailableFirstSeats()));
+            return;
+        }
+        // Changed flight: the entity's counters may be older than the database
+        refresh(flight.getFlightId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(ORDER)
+    public void onSeatsChanged(SeatsChangedEvent event) {
+        if (index.contains(event.flightId())) {
+            refresh(event.flightId(), true);
+        }
+    }
+
+    private void refresh(Long flightId) {
+        refresh(flightId, false);
+    }
+
+    /**
+     * Re-read a flight; when only its seats changed, just its availability is updated
+     */
+    private void refresh(Long flightId, boolean seatsOnly) {
+        try {
+            List<FlightView> rows = ReplicaRoutingDataSource.onPrimary(
+                    () -> flightRepository.findViewsByIdIn(List.of(flightId)));
+            if (rows.isEmpty() || rows.get(0).status() != FlightStatus.SCHEDULED) {
+                remove(flightId);
+            } else if (seatsOnly) {
+                setAvailableSeats(rows.get(0));
+            } else {
+                put(rows.get(0));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh search index entry of flight {}", flightId, e);
+        }
+    }
+
+    private void put(FlightView flight) {
+        AircraftLayout layout = flight.aircraftLayout() != null ? flight.aircraftLayout() : AircraftLayout.DEFAULT;
+        put(flight.flightId(), flight.origin(), flight.destination(), flight.departureTime(), flight.arrivalTime(),
+                faresOf(layout, flight.distance()),
+                availableSeatsOf(flight.flightId(), flight.availableEconomySeats(),
+                        flight.availableBusinessSeats(), flight.availableFirstSeats()));
+    }
+
+    private void put(Long flightId, String origin, String destination, LocalDateTime departureTime,
+            LocalDateTime arrivalTime, double[] fares, int[] availableSeats) {
+        index.put(flightId, origin, destination, departureTime, arrivalTime, fares, availableSeats);
+        connections.put(flightId, origin, destination, departureTime, arrivalTime,
+                Arrays.stream(availableSeats).anyMatch(seats -> seats > 0));
+        fareCalendar.put(flightId, origin, destination, departureTime.toLocalDate(), fares, availableSeats);
+        places.put(flightId, origin, destination);
+    }
+
+    private void setAvailableSeats(FlightView flight) {
+        int[] availableSeats = availableSeatsOf(flight.flightId(), flight.availableEconomySeats(),
+                flight.availableBusinessSeats(), flight.availableFirstSeats());
+        index.setAvailableSeats(flight.flightId(), availableSeats);
+        connections.setAvailable(flight.flightId(), Arrays.stream(availableSeats).anyMatch(seats -> seats > 0));
+        fareCalendar.setAvailableSeats(flight.flightId(), availableSeats);
+    }
+
+    private void remove(Long flightId) {
+        index.remove(flightId);
+        connections.remove(flightId);
+        fareCalendar.remove(flightId);
+        places.remove(flightId);
+    }
+
+    private static double[] faresOf(AircraftLayout layout, Double distance) {
+        double[] fares = new double[CABINS.length];
+        for (CabinClass cabin : CABINS) {
+            fares[cabin.ordinal()] = layout.fareFor(cabin, distance != null ? distance : 0.0);
+        }
+        return fares;
+    }
+
+    /**
+     * Available seats by cabin from the flight's counters; flights created
+     * before the counters existed are counted from the seats table until
+     * the reconciler fills their counters in
+     */
+    private int[] availableSeatsOf(Long flightId, Integer economy, Integer business, Integer first) {
+        int[] available = new int[CABINS.length];
+        if (economy != null && business != null && first != null) {
+            available[CabinClass.ECONOMY.ordinal()] = economy;
+            available[CabinClass.BUSINESS.ordinal()] = business;
+            available[CabinClass.FIRST.ordinal()] = first;
+            return available;
+        }
+        for (CabinAvailability row : ReplicaRoutingDataSource.onPrimary(
+                () -> seatRepository.countAvailableByCabin(flightId))) {
+            available[row.getCabinClass().ordinal()] = (int) row.getAvailable();
+        }
+        return available;
+    }
+}
@@ -1,26 +1,63 @@
 package com.AirlineBooking.AirlineBookig.service;
 
+import com.AirlineBooking.AirlineBookig.config.ReplicaRoutingDataSource;
+import com.AirlineBooking.AirlineBookig.dto.request.FlightSearchRequest;
+import com.AirlineBooking.AirlineBookig.dto.response.CursorPage;
+import com.AirlineBooking.AirlineBookig.dto.view.FlightView;
+import com.AirlineBooking.AirlineBookig.dto.view.ItineraryView;
+import com.AirlineBooking.AirlineBookig.event.FlightChangedEvent;
 import com.AirlineBooking.AirlineBookig.model.*;
 import com.AirlineBooking.AirlineBookig.repository.FlightRepository;
 import com.AirlineBooking.AirlineBookig.repository.SeatRepository;
+import com.AirlineBooking.AirlineBookig.util.ConnectionIndex.Itinerary;
+import com.AirlineBooking.AirlineBookig.util.FareCalendar;
+import com.AirlineBooking.AirlineBookig.util.PageCursor;
+import com.AirlineBooking.AirlineBookig.util.PlaceSuggester.Suggestion;
+import com.AirlineBooking.AirlineBookig.util.RouteIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Service
 public class FlightService {
 
+    private static final int HYDRATE_BATCH = 500;
+    private static final int DEFAULT_SEARCH_RESULTS = 50;
+    private static final int MAX_SEARCH_RESULTS = 200;
+    private static final int DEFAULT_CONNECTION_RESULTS = 20;
+    private static final int MAX_STOPS = 2;
+    private static final int DEFAULT_CALENDAR_DAYS = 15;
+    private static final int MAX_CALENDAR_DAYS = 31;
+    private static final int DEFAULT_SUGGESTIONS = 10;
+    private static final int MAX_SUGGESTIONS = 25;
+
     private final FlightRepository flightRepository;
     private final SeatRepository seatRepository;
+    private final SeatInventory seatInventory;
+    private final FlightSearchIndex flightSearchIndex;
+    private final CatalogCache catalogCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public FlightService(FlightRepository flightRepository, SeatRepository seatRepository) {
+    public FlightService(FlightRepository flightRepository, SeatRepository seatRepository,
+            SeatInventory seatInventory, FlightSearchIndex flightSearchIndex, CatalogCache catalogCache,
+            ApplicationEventPublisher eventPublisher) {
         this.flightRepository = flightRepository;
         this.seatRepository = seatRepository;
+        this.seatInventory = seatInventory;
+        this.flightSearchIndex = flightSearchIndex;
+        this.catalogCache = catalogCache;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -29,18 +66,15 @@ public class FlightService {
     @Transactional
     public Flight createFlight(String flightNumber, String origin, String destination,
             LocalDateTime departureTime, LocalDateTime arrivalTime,
-            Integer seatCapacity, Double distance) {
+            Integer seatCapacity, Double distance, AircraftLayout layout) {
         // Check if flight number already exists
         if (flightRepository.existsByFlightNumber(flightNumber)) {
             throw new RuntimeException("Flight number already exists");
         }
 
-        // Validate times
-        if (arrivalTime.isBefore(departureTime)) {
-            throw new RuntimeException("Arrival time must be after departure time");
-        }
-        if (departureTime.isBefore(LocalDateTime.now())) {
-            throw new RuntimeException("Departure time cannot be in the past");
+        validateSchedule(departureTime, arrivalTime, seatCapacity, layout);
+        if (layout == null) {
+            layout = AircraftLayout.DEFAULT;
         }
 
         // Create flight
@@ -52,59 +86,98 @@ public class FlightService {
         flight.setArrivalTime(arrivalTime);
         flight.setSeatCapacity(seatCapacity);
         flight.setDistance(distance);
+        flight.setAircraftLayout(layout);
         flight.setStatus(FlightStatus.SCHEDULED);
 
+        // Generate seats for the flight (this also sets its availability counters)
+        List<Seat> seats = buildSeats(flight);
         Flight savedFlight = flightRepository.save(flight);
 
-        // Generate seats for the flight
-        generateSeatsForFlight(savedFlight, seatCapacity, distance);
+        // Seats are written in one JDBC batch
+        seatRepository.insertSeats(savedFlight.getFlightId(), seats);
+        eventPublisher.publishEvent(FlightChangedEvent.saved(savedFlight));
 
         return savedFlight;
     }
 
     /**
-     * Generate seats for a flight
+     * Validate the times and seat capacity of a new flight. Without a layout
+     * the capacity is not limited: the default layout gets as many rows as
+     * the capacity needs, as flights had before layouts existed.
      */
-    private void generateSeatsForFlight(Flight flight, Integer capacity, Double distance) {
-        List<Seat> seats = new ArrayList<>();
+    public void validateSchedule(LocalDateTime departureTime, LocalDateTime arrivalTime,
+            Integer seatCapacity, AircraftLayout layout) {
+        // Validate times
+        if (arrivalTime.isBefore(departureTime)) {
+            throw new RuntimeException("Arrival time must be after departure time");
+        }
+        if (departureTime.isBefore(LocalDateTime.now())) {
+            throw new RuntimeException("Departure time cannot be in the past");
+        }
+
+        // Validate capacity against the aircraft layout
+        if (layout != null && seatCapacity > layout.getCapacity()) {
+            throw new RuntimeException("Seat capacity exceeds the " + layout + " layout ("
+                    + layout.getCapacity() + " seats)");
+        }
+    }
 
-        // Generate seats (e.g., A1, A2, B1, B2, etc.)
-        int seatsPerRow = 6; // A, B, C, D, E, F
-        char[] seatLetters = { 'A', 'B', 'C', 'D', 'E', 'F' };
+    /**
+     * Build the seats of a flight from its aircraft layout, front row first,
+     * and initialise the flight's available seat counters to match
+     */
+    public List<Seat> buildSeats(Flight flight) {
+        AircraftLayout layout = AircraftLayout.of(flight);
+        int seatsPerRow = layout.getSeatsPerRow();
+        int capacity = flight.getSeatCapacity();
+        Double distance = flight.getDistance();
+        List<Seat> seats = new ArrayList<>(capacity);
+        int[] availableByCabin = new int[CabinClass.values().length];
 
         for (int i = 0; i < capacity; i++) {
             int row = (i / seatsPerRow) + 1;
-            char letter = seatLetters[i % seatsPerRow];
-            String seatNumber = letter + String.valueOf(row);
+            CabinClass cabinClass = layout.cabinOf(row);
 
             Seat seat = new Seat();
-            seat.setSeatNumber(seatNumber);
-            seat.setFlight(flight);
+            seat.setSeatNumber(layout.getLetter(i % seatsPerRow) + String.valueOf(row));
             seat.setBookingStatus(BookingStatus.AVAILABLE);
-
-            // Assign cabin class and calculate price based on row and distance
-            if (row <= 2) {
-                seat.setCabinClass(CabinClass.FIRST);
-                seat.setPrice(distance * 150.0);
-            } else if (row <= 5) {
-                seat.setCabinClass(CabinClass.BUSINESS);
-                seat.setPrice(distance * 125.0);
-            } else {
-                seat.setCabinClass(CabinClass.ECONOMY);
-                seat.setPrice(distance * 100.0);
-            }
-
+            seat.setCabinClass(cabinClass);
+            seat.setFlight(flight);
+            seat.setPrice(layout.fareFor(cabinClass, distance));
             seats.add(seat);
+            availableByCabin[cabinClass.ordinal()]++;
         }
-
-        seatRepository.saveAll(seats);
+        flight.setAvailableSeats(availableByCabin);
+        return seats;
     }
 
     /**
-     * Get all flights
+     * Get one page of all flights, ordered by departure time.
+     * Pass the nextCursor of the previous page to continue.
      */
-    public List<Flight> getAllFlights() {
-        return flightRepository.findAll();
+    public CursorPage<FlightView> getFlightsPage(String cursor, Integer size) {
+        int pageSize = PageCursor.pageSize(size);
+        return catalogCache.flightsPage(cursor, pageSize, () -> loadFlightsPage(cursor, pageSize));
+    }
+
+    private CursorPage<FlightView> loadFlightsPage(String cursor, int pageSize) {
+        Limit limit = Limit.of(pageSize + 1);
+        List<FlightView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = flightRepository.findFirstPage(limit);
+        } else {
+            String[] key = PageCursor.decode(cursor, 2);
+            LocalDateTime departureTime;
+            Long flightId;
+            try {
+                departureTime = LocalDateTime.parse(key[0]);
+                flightId = Long.valueOf(key[1]);
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid page cursor");
+            }
+            rows = flightRepository.findPageAfter(departureTime, flightId, limit);
+        }
+        return CursorPage.of(rows, pageSize, f -> PageCursor.encode(f.departureTime(), f.flightId()));
     }
 
     /**
@@ -115,6 +188,13 @@ public class FlightService {
                 .orElseThrow(() -> new RuntimeException("Flight not found"));
     }
 
+    /**
+     * Check whether a flight exists (a primary key probe on the primary, nothing is loaded)
+     */
+    public boolean flightExists(Long flightId) {
+        return ReplicaRoutingDataSource.onPrimary(() -> flightRepository.existsById(flightId));
+    }
+
     /**
      * Get flight by flight number
      */
@@ -124,17 +204,141 @@ public class FlightService {
     }
 
     /**
-     * Search available flights by origin and destination
+     * Search scheduled flights with seats left. Matching and ranking run on
+     * the in-memory route index; only the top results are loaded. Results
+     * are cached (see CatalogCache).
+     */
+    public List<FlightView> searchFlights(FlightSearchRequest request) {
+        if (request.getDepartFrom() != null && request.getDepartTo() != null
+                && request.getDepartTo().isBefore(request.getDepartFrom())) {
+            throw new RuntimeException("departTo must not be before departFrom");
+        }
+        if (request.getMaxPrice() != null && request.getMaxPrice() < 0) {
+            throw new RuntimeException("maxPrice must not be negative");
+        }
+        int limit = request.getLimit() == null ? DEFAULT_SEARCH_RESULTS
+                : Math.max(1, Math.min(request.getLimit(), MAX_SEARCH_RESULTS));
+
+        RouteIndex.Query query = new RouteIndex.Query(
+                request.getOrigin(),
+                request.getDestination(),
+                request.getDepartFrom() != null ? request.getDepartFrom().atStartOfDay() : null,
+                request.getDepartTo() != null ? request.getDepartTo().plusDays(1).atStartOfDay() : null,
+                request.getCabinClass(),
+                request.getMaxPrice(),
+                sortKeyOf(request.getSort()),
+                limit);
+        return catalogCache.search(query, () -> {
+            List<Long> flightIds = flightSearchIndex.search(query);
+            return catalogCache.readFlights(flightIds, () -> hydrate(flightIds));
+        });
+    }
+
+    /**
+     * Direct and connecting itineraries from origin to destination whose first
+     * flight departs on the given date, earliest arrival first. Places match
+     * exactly (ignoring case); connections are planned on the in-memory flight graph.
+     * The legs are read from a replica unless one of them changed on this
+     * node within the replica lag (see CatalogCache#readFlights).
+     */
+    @Transactional(readOnly = true)
+    public List<ItineraryView> searchConnections(String origin, String destination, LocalDate date,
+            Integer maxStops, Integer limit) {
+        if (origin == null || origin.isBlank() || destination == null || destination.isBlank()) {
+            throw new RuntimeException("Origin and destination are required");
+        }
+        if (date == null) {
+            throw new RuntimeException("Departure date is required");
+        }
+        int stops = maxStops == null ? MAX_STOPS : Math.max(0, Math.min(maxStops, MAX_STOPS));
+        int size = limit == null ? DEFAULT_CONNECTION_RESULTS : Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+
+        List<Itinerary> itineraries = flightSearchIndex.searchConnections(origin, destination,
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay(), stops, size);
+        Map<Long, FlightView> flights = new HashMap<>();
+        List<Long> flightIds = itineraries.stream()
+                .flatMap(itinerary -> itinerary.flightIds().stream())
+                .distinct()
+                .toList();
+        for (FlightView flight : catalogCache.readFlights(flightIds, () -> hydrate(flightIds))) {
+            flights.put(flight.flightId(), flight);
+        }
+
+        List<ItineraryView> found = new ArrayList<>(itineraries.size());
+        for (Itinerary itinerary : itineraries) {
+            List<FlightView> legs = itinerary.flightIds().stream().map(flights::get).toList();
+            if (!legs.contains(null)) {
+                found.add(new ItineraryView(legs));
+            }
+        }
+        return found;
+    }
+
+    private static RouteIndex.SortKey sortKeyOf(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return RouteIndex.SortKey.DEPARTURE;
+        }
+        try {
+            return RouteIndex.SortKey.valueOf(sort.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid sort: " + sort + " (use departure, price or duration)");
+        }
+    }
+
+    /**
+     * Cheapest available fare per cabin for every day within the given number
+     * of days either side of a date on one route (places match exactly,
+     * ignoring case). Served from the in-memory fare calendar.
      */
-    public List<Flight> searchFlights(String origin, String destination) {
-        return flightRepository.searchAvailableFlights(origin, destination);
+    public List<FareCalendar.Day> getFareCalendar(String origin, String destination, LocalDate date,
+            Integer days) {
+        if (origin == null || origin.isBlank() || destination == null || destination.isBlank()) {
+            throw new RuntimeException("Origin and destination are required");
+        }
+        if (date == null) {
+            throw new RuntimeException("Date is required");
+        }
+        int span = days == null ? DEFAULT_CALENDAR_DAYS : Math.max(0, Math.min(days, MAX_CALENDAR_DAYS));
+        return flightSearchIndex.fareCalendar(origin, destination, date.minusDays(span), date.plusDays(span));
+    }
+
+    /**
+     * Suggest origins and destinations for a partly typed place name.
+     * Served from the in-memory index, without a database round trip.
+     */
+    public List<Suggestion> suggestPlaces(String query, Integer limit) {
+        int size = limit == null ? DEFAULT_SUGGESTIONS : Math.min(Math.max(limit, 1), MAX_SUGGESTIONS);
+        return flightSearchIndex.suggestPlaces(query, size);
+    }
+
+    /**
+     * Load the flights found by the search index, in index order. Flights that
+     * changed after the index saw them (deleted, no longer scheduled) are dropped.
+     */
+    private List<FlightView> hydrate(List<Long> flightIds) {
+        List<FlightView> flights = new ArrayList<>(flightIds.size());
+        for (int from = 0; from < flightIds.size(); from += HYDRATE_BATCH) {
+            List<Long> batch = flightIds.subList(from, Math.min(from + HYDRATE_BATCH, flightIds.size()));
+            Map<Long, FlightView> byId = new HashMap<>();
+            for (FlightView flight : flightRepository.findViewsByIdIn(batch)) {
+                byId.put(flight.flightId(), flight);
+            }
+            for (Long flightId : batch) {
+                FlightView flight = byId.get(flightId);
+                if (flight != null && flight.status() == FlightStatus.SCHEDULED) {
+                    flights.add(flight);
+                }
+            }
+        }
+        return flights;
     }
 
     /**
      * Get all scheduled flights
      */
-    public List<Flight> getScheduledFlights() {
-        return flightRepository.findByStatus(FlightStatus.SCHEDULED);
+    public List<FlightView> getScheduledFlights() {
+        return catalogCache.flightsByStatus(FlightStatus.SCHEDULED,
+                () -> flightRepository.findViewsByStatus(FlightStatus.SCHEDULED));
     }
 
     /**
@@ -162,7 +366,9 @@ public class FlightService {
             throw new RuntimeException("Departure time cannot be in the past");
         }
 
-        return flightRepository.save(flight);
+        Flight saved = flightRepository.save(flight);
+        eventPublisher.publishEvent(FlightChangedEvent.saved(saved));
+        return saved;
     }
 
     /**
@@ -172,7 +378,9 @@ public class FlightService {
     public Flight cancelFlight(Long flightId) {
         Flight flight = getFlightById(flightId);
         flight.setStatus(FlightStatus.CANCELLED);
-        return flightRepository.save(flight);
+        Flight saved = flightRepository.save(flight);
+        eventPublisher.publishEvent(FlightChangedEvent.saved(saved));
+        return saved;
     }
 
     /**
@@ -182,13 +390,17 @@ public class FlightService {
     public void deleteFlight(Long flightId) {
         Flight flight = getFlightById(flightId);
         flightRepository.delete(flight);
+        seatInventory.invalidate(flightId);
+        eventPublisher.publishEvent(FlightChangedEvent.deleted(flight));
     }
 
     /**
-     * Get available seat count for a flight
+     * Get available seat count for a flight, from its seat counters (counted
+     * from the seats table while they have not been reconciled yet)
      */
     public long getAvailableSeatCount(Long flightId) {
-        return seatRepository.countAvailableSeatsByFlightId(flightId);
+        Long available = getFlightById(flightId).getAvailableSeats();
+        return available != null ? available : seatRepository.countAvailableSeatsByFlightId(flightId);
     }
 
     /**
@@ -0,0 +1,212 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.event.FlightChangedEvent;
+import com.AirlineBooking.AirlineBookig.event.SeatsChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Node-local version counter per flight, for ETags on the flight and seat map endpoints.
+ *
+ * A flight's version goes up once any change to the flight or its seats has
+ * committed, after the search index and the catalog cache have applied it,
+ * so a response built after reading a version is never older than that
+ * version. Flights never changed since startup are at version 0; the
+ * startup epoch in the ETag keeps versions from an earlier run (or another
+ * node) from matching. The ETag is the epoch and the version only, so it
+ * stays the same for as long as the flight does.
+ *
+ * Changes committed on another node do not move the counter here. Each
+ * representation served is fingerprinted instead, and a matching ETag is
+ * trusted from memory for booking.cache.ttl-ms after that; past it the
+ * endpoint loads the data again, and a fingerprint that differs from the
+ * last one moves the version. With the catalog cache in between, a client
+ * revalidating sees such a change within two TTLs.
+ *
+ * Deleted flights are kept as tombstones so that a revalidation for them
+ * is answered from memory too; so are flights a full load found missing,
+ * for one TTL, as the load may have failed for another reason.
+ *
+ * The time of each flight's last change on this node is recorded too,
+ * before the catalog cache drops what it invalidates, so that CatalogCache
+ * can keep loads of just-changed flights off a replica that may lag.
+ */
+@Component
+public class FlightVersions {
+
+    private static final int MAX_TOMBSTONES = 10000;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private final Map<Long, Map<String, Fingerprint>> fingerprints = new ConcurrentHashMap<>();
+    private final Map<Long, Long> tombstones = new ConcurrentHashMap<>();
+    private final Map<Long, Long> changedAt = new ConcurrentHashMap<>();
+    private volatile Long lastChangedAt;
+    private final long trustMillis;
+    private final LongSupplier clock;
+
+    private record Fingerprint(int hash, long takenAt) {
+    }
+
+    @Autowired
+    public FlightVersions(@Value("${booking.cache.ttl-ms:5000}") long ttlMillis) {
+        this(ttlMillis, System::currentTimeMillis);
+    }
+
+    FlightVersions(long ttlMillis, LongSupplier clock) {
+        this.trustMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Current version of a flight
+     */
+    public long version(Long flightId) {
+        return versions.getOrDefault(flightId, 0L);
+    }
+
+    /**
+     * Strong ETag for a version of a flight; read the version before loading the data it tags
+     */
+    public String etag(long version) {
+        return etag(version, "");
+    }
+
+    /**
+     * Strong ETag for one representation of a version of a flight;
+     * each media type of the same resource needs its own variant suffix
+     */
+    public String etag(long version, String variant) {
+        return "\"" + epoch + "-" + version + variant + "\"";
+    }
+
+    /**
+     * Whether a revalidation of a representation can be answered without
+     * loading it: the flight is a tombstone, or the representation was
+     * fingerprinted within the last TTL
+     */
+    public boolean isCurrent(Long flightId, String representation) {
+        if (isMissing(flightId)) {
+            return true;
+        }
+        Map<String, Fingerprint> taken = fingerprints.get(flightId);
+        Fingerprint fingerprint = taken == null ? null : taken.get(representation);
+        return fingerprint != null && clock.getAsLong() - fingerprint.takenAt() < trustMillis;
+    }
+
+    /**
+     * Whether a flight is known to be deleted or missing
+     */
+    public boolean isMissing(Long flightId) {
+        Long until = tombstones.get(flightId);
+        return until != null && clock.getAsLong() - until < 0;
+    }
+
+    /**
+     * Remember for one TTL that a full load found no such flight
+     */
+    public void markMissing(Long flightId) {
+        tombstone(flightId, clock.getAsLong() + trustMillis);
+    }
+
+    /**
+     * Whether any of the flights changed on this node within the last millis
+     */
+    public boolean changedWithin(Collection<Long> flightIds, long millis) {
+        long now = clock.getAsLong();
+        for (Long flightId : flightIds) {
+            Long at = changedAt.get(flightId);
+            if (at != null && now - at < millis) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether any flight changed on this node within the last millis
+     */
+    public boolean changedWithin(long millis) {
+        Long at = lastChangedAt;
+        return at != null && clock.getAsLong() - at < millis;
+    }
+
+    /**
+     * Fingerprint a representation just loaded at the given version (read
+     * before the load). Content that differs from the last fingerprint was
+     * changed where this node did not see it, so the version moves; returns
+     * the version to tag the content with.
+     */
+    public long observe(Long flightId, String representation, Object content, long version) {
+        tombstones.remove(flightId);
+        Fingerprint fingerprint = new Fingerprint(Objects.hashCode(content), clock.getAsLong());
+        Fingerprint previous = fingerprints.computeIfAbsent(flightId, id -> new ConcurrentHashMap<>())
+                .put(representation, fingerprint);
+        if (previous == null || previous.hash() == fingerprint.hash()) {
+            return version;
+        }
+        long changed = bump(flightId);
+        fingerprints.computeIfAbsent(flightId, id -> new ConcurrentHashMap<>()).put(representation, fingerprint);
+        return changed;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(FlightSearchIndex.ORDER)
+    public void onFlightCommitted(FlightChangedEvent event) {
+        changed(event.flightId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(FlightSearchIndex.ORDER)
+    public void onSeatsCommitted(SeatsChangedEvent event) {
+        changed(event.flightId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(FlightSearchIndex.ORDER + 2)
+    public void onFlightChanged(FlightChangedEvent event) {
+        if (event.deleted()) {
+            tombstone(event.flightId(), Long.MAX_VALUE);
+        } else {
+            tombstones.remove(event.flightId());
+        }
+        bump(event.flightId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(FlightSearchIndex.ORDER + 2)
+    public void onSeatsChanged(SeatsChangedEvent event) {
+        bump(event.flightId());
+    }
+
+    private void changed(Long flightId) {
+        long now = clock.getAsLong();
+        changedAt.put(flightId, now);
+        lastChangedAt = now;
+    }
+
+    private void tombstone(Long flightId, long until) {
+        if (tombstones.size() >= MAX_TOMBSTONES) {
+            long now = clock.getAsLong();
+            tombstones.values().removeIf(expiry -> now - expiry >= 0);
+        }
+        tombstones.put(flightId, until);
+    }
+
+    /**
+     * Move a flight to its next version; the fingerprints of the old one no longer apply
+     */
+    private long bump(Long flightId) {
+        fingerprints.remove(flightId);
+        return versions.merge(flightId, 1L, Long::sum);
+    }
+}
@@ -1,29 +1,47 @@
 package com.AirlineBooking.AirlineBookig.service;
 
+import com.AirlineBooking.AirlineBookig.dto.response.CursorPage;
+import com.AirlineBooking.AirlineBookig.dto.view.ReservationView;
 import com.AirlineBooking.AirlineBookig.model.*;
 import com.AirlineBooking.AirlineBookig.repository.ReservationRepository;
+import com.AirlineBooking.AirlineBookig.repository.UserRepository;
+import com.AirlineBooking.AirlineBookig.util.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.scheduling.annotation.Scheduled;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
 
 @Service
 public class ReservationService {
 
     private final ReservationRepository reservationRepository;
+    private final UserRepository userRepository;
     private final SeatService seatService;
     private final FlightService flightService;
+    private final FlightLockManager flightLockManager;
+    private final SeatHoldService seatHoldService;
+    private final SeatAllocator seatAllocator;
 
     @Autowired
     public ReservationService(ReservationRepository reservationRepository,
+            UserRepository userRepository,
             SeatService seatService,
-            FlightService flightService) {
+            FlightService flightService,
+            FlightLockManager flightLockManager,
+            SeatHoldService seatHoldService,
+            SeatAllocator seatAllocator) {
         this.reservationRepository = reservationRepository;
+        this.userRepository = userRepository;
         this.seatService = seatService;
         this.flightService = flightService;
+        this.flightLockManager = flightLockManager;
+        this.seatHoldService = seatHoldService;
+        this.seatAllocator = seatAllocator;
     }
 
     /**
@@ -31,37 +49,102 @@ public class ReservationService {
      */
     @Transactional
     public Reservation createReservation(User user, Long flightId, Long seatId) {
-        // Validate flight exists and is scheduled
-        Flight flight = flightService.getFlightById(flightId);
-        if (flight.getStatus() != FlightStatus.SCHEDULED) {
-            throw new RuntimeException("Flight is not available for booking");
-        }
-        if (flight.getDepartureTime().isBefore(LocalDateTime.now())) {
-            throw new RuntimeException("Cannot book a flight that has already departed");
-        }
+        flightLockManager.lockForTransaction(flightId);
+        Flight flight = getBookableFlight(flightId);
 
-        // Validate seat exists and is available
-        Seat seat = seatService.getSeatById(seatId);
-        if (!seatService.isSeatAvailable(seatId)) {
-            throw new RuntimeException("Seat is not available");
-        }
-
-        // Verify seat belongs to the flight
-        if (!seat.getFlight().getFlightId().equals(flightId)) {
+        // Verify seat belongs to the flight (seat inventory, no DB hit)
+        if (!seatService.isSeatOnFlight(flightId, seatId)) {
             throw new RuntimeException("Seat does not belong to this flight");
         }
 
-        // Reserve the seat
-        seatService.reserveSeat(seatId);
+        // Claim the seat in one conditional update, no prior SELECT; fails if it is not available
+        seatService.reserveSeat(flightId, seatId);
 
         // Create reservation
         Reservation reservation = new Reservation();
         reservation.setUser(user);
         reservation.setFlight(flight);
-        reservation.setSeat(seat);
+        reservation.setSeat(seatService.getSeatReference(seatId));
         reservation.setStatus(ReservationStatus.CONFIRMED);
 
-        return reservationRepository.save(reservation);
+        Reservation saved = reservationRepository.save(reservation);
+
+        // Hold the seat until payment or hold expiry
+        seatHoldService.placeHold(saved);
+
+        return saved;
+    }
+
+    /**
+     * Create a new reservation for the user with this id, without loading the user
+     */
+    @Transactional
+    public Reservation createReservation(Long userId, Long flightId, Long seatId) {
+        return createReservation(userRepository.getReferenceById(userId), flightId, seatId);
+    }
+
+    /**
+     * Book several seats on one flight in a single transaction (all or nothing).
+     * The flight is validated once, the seats are claimed in one batched update
+     * and the reservations are inserted in one JDBC batch.
+     */
+    @Transactional
+    public List<Reservation> createGroupReservation(Long userId, Long flightId, List<Long> seatIds) {
+        flightLockManager.lockForTransaction(flightId);
+        getBookableFlight(flightId);
+
+        if (new HashSet<>(seatIds).size() != seatIds.size()) {
+            throw new RuntimeException("The same seat cannot be booked twice");
+        }
+        for (Long seatId : seatIds) {
+            if (!seatService.isSeatOnFlight(flightId, seatId)) {
+                throw new RuntimeException("Seat " + seatId + " does not belong to this flight");
+            }
+        }
+
+        return reserveSeatsForUser(userId, flightId, seatIds);
+    }
+
+    /**
+     * Book the best available seats for a party in a cabin (all or nothing).
+     * Seats are picked by the seat allocator, preferring one contiguous block.
+     */
+    @Transactional
+    public List<Reservation> autoAssignReservation(Long userId, Long flightId, CabinClass cabinClass,
+            int partySize, SeatPreference preference) {
+        flightLockManager.lockForTransaction(flightId);
+        Flight flight = getBookableFlight(flightId);
+
+        List<Long> seatIds = seatAllocator.findBestSeats(flightId, AircraftLayout.of(flight), cabinClass,
+                partySize, preference != null ? preference : SeatPreference.NONE);
+        return reserveSeatsForUser(userId, flightId, seatIds);
+    }
+
+    /**
+     * Claim the seats, insert the reservations in one batch and hold the seats
+     */
+    private List<Reservation> reserveSeatsForUser(Long userId, Long flightId, List<Long> seatIds) {
+        seatService.reserveSeats(flightId, seatIds);
+        reservationRepository.insertConfirmedReservations(userId, flightId, seatIds);
+
+        List<Reservation> reservations = reservationRepository.findByFlightAndSeatsAndStatus(
+                flightId, seatIds, ReservationStatus.CONFIRMED);
+        seatHoldService.placeHolds(reservations);
+        return reservations;
+    }
+
+    /**
+     * Validate flight exists, is scheduled and has not departed
+     */
+    private Flight getBookableFlight(Long flightId) {
+        Flight flight = flightService.getFlightById(flightId);
+        if (flight.getStatus() != FlightStatus.SCHEDULED) {
+            throw new RuntimeException("Flight is not available for booking");
+        }
+        if (flight.getDepartureTime().isBefore(LocalDateTime.now())) {
+            throw new RuntimeException("Cannot book a flight that has already departed");
+        }
+        return flight;
     }
 
     /**
@@ -71,6 +154,14 @@ public class ReservationService {
         return reservationRepository.findByUser_UserId(userId);
     }
 
+    /**
+     * Get all reservations for a user as read-only rows, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<ReservationView> getUserReservationViews(Long userId) {
+        return reservationRepository.findViewsByUserId(userId);
+    }
+
     /**
      * Get confirmed reservations for a user
      */
@@ -100,7 +191,7 @@ public class ReservationService {
     @Transactional
     public Reservation cancelReservation(Long reservationId, Long userId) {
         // Get reservation and verify ownership
-        Reservation reservation = getReservationByIdAndUserId(reservationId, userId);
+        Reservation reservation = lockReservation(reservationId, userId);
 
         // Check if already cancelled
         if (reservation.getStatus() == ReservationStatus.CANCELLED) {
@@ -112,16 +203,39 @@ public class ReservationService {
 
         // Release the seat
         seatService.releaseSeat(reservation.getSeat().getSeatId());
+        seatHoldService.releaseHold(reservationId);
 
         return reservationRepository.save(reservation);
     }
 
+    /**
+     * Lock the flight of a reservation for the rest of the transaction, then
+     * load the reservation of this user with a locking read.
+     */
+    private Reservation lockReservation(Long reservationId, Long userId) {
+        lockFlightOf(reservationId);
+        return reservationRepository.findLockedByReservationIdAndUser_UserId(reservationId, userId)
+                .orElseThrow(() -> new RuntimeException("Reservation not found or unauthorized"));
+    }
+
+    /**
+     * Lock the flight of a reservation for the rest of the transaction.
+     * The flight id lookup already fixes the read snapshot of the transaction
+     * (REPEATABLE READ on MySQL), so a status changed by a transaction that
+     * committed while we waited for the lock is only seen by a locking read:
+     * load the reservation with one after this.
+     */
+    private void lockFlightOf(Long reservationId) {
+        reservationRepository.findFlightIdByReservationId(reservationId)
+                .ifPresent(flightLockManager::lockForTransaction);
+    }
+
     /**
      * Checkout successful, mark reservation as PAID
      */
     @Transactional
     public Reservation checkoutReservation(Long reservationId, Long userId, Integer pointsToRedeem) {
-        Reservation reservation = getReservationByIdAndUserId(reservationId, userId);
+        Reservation reservation = lockReservation(reservationId, userId);
 
         if (reservation.getStatus() == ReservationStatus.CANCELLED) {
             throw new RuntimeException("Cannot checkout a cancelled reservation");
@@ -140,6 +254,7 @@ public class ReservationService {
         }
 
         reservation.setStatus(ReservationStatus.PAID);
+        seatHoldService.releaseHold(reservationId);
         return reservationRepository.save(reservation);
     }
 
@@ -148,7 +263,7 @@ public class ReservationService {
      */
     @Transactional
     public Reservation requestRefund(Long reservationId, Long userId) {
-        Reservation reservation = getReservationByIdAndUserId(reservationId, userId);
+        Reservation reservation = lockReservation(reservationId, userId);
 
         if (reservation.getStatus() != ReservationStatus.PAID) {
             throw new RuntimeException("Only PAID reservations can be refunded");
@@ -184,10 +299,14 @@ public class ReservationService {
     }
 
     /**
-     * Get all reservations for a flight
+     * Get one page of the reservations of a flight, newest first
      */
-    public List<Reservation> getFlightReservations(Long flightId) {
-        return reservationRepository.findByFlight_FlightId(flightId);
+    @Transactional(readOnly = true)
+    public CursorPage<ReservationView> getFlightReservationsPage(Long flightId, String cursor, Integer size) {
+        int pageSize = PageCursor.pageSize(size);
+        List<ReservationView> rows = reservationRepository.findFlightPageBefore(
+                flightId, reservationIdBefore(cursor), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, r -> PageCursor.encode(r.reservationId()));
     }
 
     /**
@@ -212,10 +331,25 @@ public class ReservationService {
     }
 
     /**
-     * Get all reservations (Admin only)
+     * Get one page of all reservations, newest first (Admin only)
      */
-    public List<Reservation> getAllReservations() {
-        return reservationRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<ReservationView> getReservationsPage(String cursor, Integer size) {
+        int pageSize = PageCursor.pageSize(size);
+        List<ReservationView> rows = reservationRepository.findPageBefore(
+                reservationIdBefore(cursor), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, r -> PageCursor.encode(r.reservationId()));
+    }
+
+    private static Long reservationIdBefore(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.valueOf(PageCursor.decode(cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid page cursor");
+        }
     }
 
     /**
@@ -223,12 +357,15 @@ public class ReservationService {
      */
     @Transactional
     public void deleteReservation(Long reservationId) {
-        Reservation reservation = getReservationById(reservationId);
+        lockFlightOf(reservationId);
+        Reservation reservation = reservationRepository.findLockedByReservationId(reservationId)
+                .orElseThrow(() -> new RuntimeException("Reservation not found"));
 
         // Release seat if reservation was confirmed
         if (reservation.getStatus() == ReservationStatus.CONFIRMED) {
             seatService.releaseSeat(reservation.getSeat().getSeatId());
         }
+        seatHoldService.releaseHold(reservationId);
 
         reservationRepository.delete(reservation);
     }
@@ -255,21 +392,4 @@ public class ReservationService {
             reservationRepository.save(res);
         }
     }
-
-    /**
-     * Automatically cancel CONFIRMED reservations if flight departs unpaid
-     */
-    @Transactional
-    @Scheduled(fixedRate = 60000) // Runs every minute
-    public void cancelUnpaidDepartedReservations() {
-        LocalDateTime now = LocalDateTime.now();
-        List<Reservation> actionable = reservationRepository.findUnpaidDepartedReservations(ReservationStatus.CONFIRMED,
-                now);
-
-        for (Reservation res : actionable) {
-            res.setStatus(ReservationStatus.CANCELLED);
-            seatService.releaseSeat(res.getSeat().getSeatId());
-            reservationRepository.save(res);
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,433 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.dto.request.FlightRequest;
+import com.AirlineBooking.AirlineBookig.dto.response.ImportRowError;
+import com.AirlineBooking.AirlineBookig.dto.response.ScheduleImportResult;
+import com.AirlineBooking.AirlineBookig.event.FlightChangedEvent;
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.model.FlightStatus;
+import com.AirlineBooking.AirlineBookig.model.Seat;
+import com.AirlineBooking.AirlineBookig.repository.FlightRepository;
+import com.AirlineBooking.AirlineBookig.repository.SeatRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk schedule import.
+ *
+ * Uploads are parsed as a stream (CSV line by line, JSON token by token),
+ * so memory is bounded by the chunk size and not by the file. Each row is
+ * validated like a single createFlight call, but duplicate flight numbers
+ * are checked against one pre-loaded set instead of a query per row.
+ * Valid flights are written in chunks, each chunk in its own transaction:
+ * one batch insert for the flights and one for all of their seats.
+ * Progress and per-row errors of recent imports can be polled while an
+ * import is still running.
+ */
+@Service
+@Slf4j
+public class ScheduleImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_TRACKED_IMPORTS = 20;
+    private static final List<String> REQUIRED_COLUMNS = List.of("flightNumber", "origin", "destination",
+            "departureTime", "arrivalTime", "seatCapacity", "distance");
+
+    private final FlightRepository flightRepository;
+    private final SeatRepository seatRepository;
+    private final FlightService flightService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    private final Map<String, ImportJob> imports = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ImportJob> eldest) {
+            return size() > MAX_TRACKED_IMPORTS;
+        }
+    };
+
+    @Autowired
+    public ScheduleImportService(FlightRepository flightRepository, SeatRepository seatRepository,
+            FlightService flightService, Validator validator, ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+            @Value("${booking.import.chunk-size:200}") int chunkSize) {
+        this.flightRepository = flightRepository;
+        this.seatRepository = seatRepository;
+        this.flightService = flightService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Import flights from a CSV stream. The first line is a header naming the
+     * columns (flightNumber, origin, destination, departureTime, arrivalTime,
+     * seatCapacity, distance and optionally aircraftLayout) in any order.
+     */
+    public ScheduleImportResult importCsv(String importId, InputStream input) {
+        ImportRun run = start(importId);
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            String header = reader.readLine();
+            if (header == null) {
+                throw new RuntimeException("CSV upload is empty");
+            }
+            Map<String, Integer> columns = csvColumns(header);
+
+            String line;
+            long row = 1;
+            while ((line = reader.readLine()) != null) {
+                row++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                run.job.rowsRead.incrementAndGet();
+                List<String> fields = splitCsvLine(line);
+                try {
+                    run.accept(row, csvRow(columns, fields));
+                } catch (RuntimeException e) {
+                    String flightNumber = field(columns, fields, "flightNumber");
+                    run.job.reject(row, flightNumber, e.getMessage());
+                }
+            }
+            run.flush();
+            return run.job.finish("COMPLETED");
+        } catch (IOException | RuntimeException e) {
+            return run.abort(e);
+        }
+    }
+
+    /**
+     * Import flights from a JSON array of FlightRequest objects, reading one object at a time
+     */
+    public ScheduleImportResult importJson(String importId, InputStream input) {
+        ImportRun run = start(importId);
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new RuntimeException("Expected a JSON array of flights");
+            }
+            long row = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                row++;
+                run.job.rowsRead.incrementAndGet();
+                JsonNode node = objectMapper.readTree(parser);
+                try {
+                    run.accept(row, objectMapper.treeToValue(node, FlightRequest.class));
+                } catch (JsonProcessingException e) {
+                    run.job.reject(row, node.path("flightNumber").asText(null),
+                            "Invalid row: " + e.getOriginalMessage());
+                } catch (RuntimeException e) {
+                    run.job.reject(row, node.path("flightNumber").asText(null), e.getMessage());
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new RuntimeException("Expected a flight object in row " + (row + 1));
+            }
+            run.flush();
+            return run.job.finish("COMPLETED");
+        } catch (IOException | RuntimeException e) {
+            return run.abort(e);
+        }
+    }
+
+    /**
+     * Progress of a running or recently finished import
+     */
+    public ScheduleImportResult getImport(String importId) {
+        ImportJob job;
+        synchronized (imports) {
+            job = imports.get(importId);
+        }
+        if (job == null) {
+            throw new RuntimeException("Import not found");
+        }
+        return job.snapshot();
+    }
+
+    /**
+     * Progress of recent imports, oldest first
+     */
+    public List<ScheduleImportResult> getRecentImports() {
+        List<ImportJob> jobs;
+        synchronized (imports) {
+            jobs = new ArrayList<>(imports.values());
+        }
+        return jobs.stream().map(ImportJob::snapshot).collect(Collectors.toList());
+    }
+
+    private ImportRun start(String importId) {
+        String id = importId != null && !importId.isBlank() ? importId : UUID.randomUUID().toString();
+        ImportJob job = new ImportJob(id);
+        synchronized (imports) {
+            ImportJob existing = imports.get(id);
+            if (existing != null && "RUNNING".equals(existing.status)) {
+                throw new RuntimeException("Import " + id + " is already running");
+            }
+            imports.put(id, job);
+        }
+        return new ImportRun(job, new HashSet<>(flightRepository.findAllFlightNumbers()));
+    }
+
+    private Map<String, Integer> csvColumns(String header) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsvLine(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required.toLowerCase(Locale.ROOT))) {
+                throw new RuntimeException("Missing CSV column: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private FlightRequest csvRow(Map<String, Integer> columns, List<String> fields) {
+        FlightRequest request = new FlightRequest();
+        request.setFlightNumber(field(columns, fields, "flightNumber"));
+        request.setOrigin(field(columns, fields, "origin"));
+        request.setDestination(field(columns, fields, "destination"));
+        request.setDepartureTime(parse(columns, fields, "departureTime", LocalDateTime::parse));
+        request.setArrivalTime(parse(columns, fields, "arrivalTime", LocalDateTime::parse));
+        request.setSeatCapacity(parse(columns, fields, "seatCapacity", Integer::valueOf));
+        request.setDistance(parse(columns, fields, "distance", Double::valueOf));
+        request.setAircraftLayout(parse(columns, fields, "aircraftLayout",
+                value -> AircraftLayout.valueOf(value.toUpperCase(Locale.ROOT))));
+        return request;
+    }
+
+    private static String field(Map<String, Integer> columns, List<String> fields, String column) {
+        Integer index = columns.get(column.toLowerCase(Locale.ROOT));
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parse(Map<String, Integer> columns, List<String> fields, String column,
+            Function<String, T> parser) {
+        String value = field(columns, fields, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid " + column + ": " + value);
+        }
+    }
+
+    /**
+     * Split one CSV line; fields may be quoted, with "" for a literal quote
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    /**
+     * State of one import while it streams: known flight numbers and the chunk being filled
+     */
+    private final class ImportRun {
+
+        private final ImportJob job;
+        private final Set<String> knownFlightNumbers;
+        private final List<Flight> chunk = new ArrayList<>(chunkSize);
+        private final List<Long> chunkRows = new ArrayList<>(chunkSize);
+
+        ImportRun(ImportJob job, Set<String> knownFlightNumbers) {
+            this.job = job;
+            this.knownFlightNumbers = knownFlightNumbers;
+        }
+
+        /**
+         * Validate a row and queue it for the next chunk; throws with the reason if it is rejected
+         */
+        void accept(long row, FlightRequest request) {
+            Set<ConstraintViolation<FlightRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                throw new RuntimeException(violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+
+            flightService.validateSchedule(request.getDepartureTime(), request.getArrivalTime(),
+                    request.getSeatCapacity(), request.getAircraftLayout());
+            AircraftLayout layout = request.getAircraftLayout() != null
+                    ? request.getAircraftLayout()
+                    : AircraftLayout.DEFAULT;
+            if (!knownFlightNumbers.add(request.getFlightNumber())) {
+                throw new RuntimeException("Flight number already exists");
+            }
+
+            Flight flight = new Flight();
+            flight.setFlightNumber(request.getFlightNumber());
+            flight.setOrigin(request.getOrigin());
+            flight.setDestination(request.getDestination());
+            flight.setDepartureTime(request.getDepartureTime());
+            flight.setArrivalTime(request.getArrivalTime());
+            flight.setSeatCapacity(request.getSeatCapacity());
+            flight.setDistance(request.getDistance());
+            flight.setAircraftLayout(layout);
+            flight.setStatus(FlightStatus.SCHEDULED);
+            chunk.add(flight);
+            chunkRows.add(row);
+
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Write the queued flights and their seats in one transaction
+         */
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                List<Seat> seats = new ArrayList<>();
+                for (Flight flight : chunk) {
+                    seats.addAll(flightService.buildSeats(flight));
+                }
+                transactionTemplate.executeWithoutResult(status -> {
+                    flightRepository.insertFlights(chunk);
+                    seatRepository.insertSeats(seats);
+                    chunk.forEach(flight -> eventPublisher.publishEvent(FlightChangedEvent.saved(flight)));
+                });
+                job.flightsCreated.addAndGet(chunk.size());
+                job.seatsCreated.addAndGet(seats.size());
+            } catch (RuntimeException e) {
+                log.warn("Import {}: chunk of {} flights failed", job.importId, chunk.size(), e);
+                // None of them exist after the rollback, so later rows may use these numbers
+                chunk.forEach(flight -> knownFlightNumbers.remove(flight.getFlightNumber()));
+                for (int i = 0; i < chunk.size(); i++) {
+                    job.reject(chunkRows.get(i), chunk.get(i).getFlightNumber(),
+                            "Could not save flight: " + e.getMessage());
+                }
+            }
+            chunk.clear();
+            chunkRows.clear();
+            log.info("Import {}: {} rows read, {} flights created, {} rows rejected", job.importId,
+                    job.rowsRead.get(), job.flightsCreated.get(), job.rowsRejected.get());
+        }
+
+        /**
+         * Stop on an unreadable upload; chunks written so far stay committed
+         */
+        ScheduleImportResult abort(Exception e) {
+            flush();
+            job.reject(0, null, "Import stopped: " + e.getMessage());
+            return job.finish("FAILED");
+        }
+    }
+
+    /**
+     * Progress of one import, updated by the importing thread and read by progress requests
+     */
+    private static final class ImportJob {
+
+        private final String importId;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong flightsCreated = new AtomicLong();
+        private final AtomicLong seatsCreated = new AtomicLong();
+        private final AtomicLong rowsRejected = new AtomicLong();
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private volatile String status = "RUNNING";
+        private volatile LocalDateTime finishedAt;
+
+        ImportJob(String importId) {
+            this.importId = importId;
+        }
+
+        void reject(long row, String flightNumber, String message) {
+            if (row > 0) {
+                rowsRejected.incrementAndGet();
+            }
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new ImportRowError(row, flightNumber, message));
+                }
+            }
+        }
+
+        ScheduleImportResult finish(String finalStatus) {
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+            return snapshot();
+        }
+
+        ScheduleImportResult snapshot() {
+            List<ImportRowError> reported;
+            synchronized (errors) {
+                reported = new ArrayList<>(errors);
+            }
+            return new ScheduleImportResult(importId, status, rowsRead.get(), flightsCreated.get(),
+                    seatsCreated.get(), rowsRejected.get(), reported, rowsRejected.get() > reported.size(),
+                    startedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.CabinClass;
+import com.AirlineBooking.AirlineBookig.model.SeatPreference;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Best-available seat allocation.
+ *
+ * Works on per-row availability bitmasks taken from the seat inventory, with
+ * bit i standing for the i-th seat letter of the flight's aircraft layout. A
+ * party is placed in the best contiguous block of one row: front rows first,
+ * blocks that cross an aisle or leave a lone seat behind are penalised, and
+ * blocks with the preferred window/aisle seat are favoured. If no row can
+ * seat the whole party together, it is split over the front-most rows.
+ */
+@Service
+public class SeatAllocator {
+
+    private static final int ROW_WEIGHT = 10;
+    private static final int PREFERENCE_BONUS = 15;
+    private static final int AISLE_CROSSING_PENALTY = 8;
+    private static final int LONE_SEAT_PENALTY = 4;
+
+    private final SeatInventory seatInventory;
+
+    @Autowired
+    public SeatAllocator(SeatInventory seatInventory) {
+        this.seatInventory = seatInventory;
+    }
+
+    /**
+     * Pick the best available seats for a party in a cabin
+     */
+    public List<Long> findBestSeats(Long flightId, AircraftLayout layout, CabinClass cabinClass, int partySize,
+            SeatPreference preference) {
+        SeatInventory.CabinRows cabin = seatInventory.availableRows(flightId, cabinClass);
+        RowShape shape = new RowShape(layout);
+
+        int bestRow = -1;
+        int bestBlock = 0;
+        int bestScore = Integer.MAX_VALUE;
+        int available = 0;
+        for (int r = 0; r < cabin.rows().length; r++) {
+            int mask = shape.availableMask(cabin.seatIds()[r]);
+            available += Integer.bitCount(mask);
+            if (Integer.bitCount(mask) < partySize) {
+                continue;
+            }
+            int block = (1 << partySize) - 1;
+            for (int start = 0; start + partySize <= shape.width; start++, block <<= 1) {
+                if ((mask & block) != block) {
+                    continue;
+                }
+                int score = r * ROW_WEIGHT + shape.blockScore(mask, block, preference);
+                if (score < bestScore) {
+                    bestScore = score;
+                    bestRow = r;
+                    bestBlock = block;
+                }
+            }
+        }
+
+        if (available < partySize) {
+            throw new RuntimeException("Not enough " + cabinClass + " seats available");
+        }
+        if (bestRow >= 0) {
+            return shape.seatsOf(cabin.seatIds()[bestRow], bestBlock);
+        }
+        return shape.splitOverRows(cabin, partySize);
+    }
+
+    /**
+     * Bitmask view of one row of an aircraft layout
+     */
+    private static final class RowShape {
+
+        private final AircraftLayout layout;
+        private final int width;
+        private final int windowMask;
+        private final int aisleSeatMask;
+        private final int[] sideMasks;
+
+        RowShape(AircraftLayout layout) {
+            this.layout = layout;
+            this.width = layout.getSeatsPerRow();
+            int window = 0;
+            int aisleSeats = 0;
+            List<Integer> sides = new ArrayList<>();
+            int side = 0;
+            for (int c = 0; c < width; c++) {
+                if (layout.isWindow(c)) {
+                    window |= 1 << c;
+                }
+                if (layout.isAisle(c)) {
+                    aisleSeats |= 1 << c;
+                }
+                side |= 1 << c;
+                if (layout.isAisleAfter(c) || c == width - 1) {
+                    sides.add(side);
+                    side = 0;
+                }
+            }
+            this.windowMask = window;
+            this.aisleSeatMask = aisleSeats;
+            this.sideMasks = sides.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        int availableMask(long[] rowSeatIds) {
+            int mask = 0;
+            for (int c = 0; c < width; c++) {
+                if (rowSeatIds[column(c)] != 0) {
+                    mask |= 1 << c;
+                }
+            }
+            return mask;
+        }
+
+        int blockScore(int mask, int block, SeatPreference preference) {
+            int score = 0;
+            for (int side : sideMasks) {
+                if ((block & side) != 0 && (block & ~side) != 0) {
+                    score += AISLE_CROSSING_PENALTY;
+                    break;
+                }
+            }
+            score += LONE_SEAT_PENALTY * loneSeats(mask & ~block);
+            if (preference == SeatPreference.WINDOW && (block & windowMask) != 0
+                    || preference == SeatPreference.AISLE && (block & aisleSeatMask) != 0) {
+                score -= PREFERENCE_BONUS;
+            }
+            return score;
+        }
+
+        /**
+         * Count available seats with no available neighbour between the same aisles
+         */
+        int loneSeats(int mask) {
+            int count = 0;
+            for (int sideMask : sideMasks) {
+                int side = mask & sideMask;
+                count += Integer.bitCount(side & ~(side << 1) & ~(side >>> 1));
+            }
+            return count;
+        }
+
+        List<Long> seatsOf(long[] rowSeatIds, int block) {
+            List<Long> seatIds = new ArrayList<>();
+            for (int c = 0; c < width; c++) {
+                if ((block & (1 << c)) != 0) {
+                    seatIds.add(rowSeatIds[column(c)]);
+                }
+            }
+            return seatIds;
+        }
+
+        /**
+         * Fill the front-most rows in seat order until the whole party is seated
+         */
+        List<Long> splitOverRows(SeatInventory.CabinRows cabin, int partySize) {
+            List<Long> seatIds = new ArrayList<>(partySize);
+            for (int r = 0; r < cabin.rows().length && seatIds.size() < partySize; r++) {
+                for (int c = 0; c < width && seatIds.size() < partySize; c++) {
+                    long seatId = cabin.seatIds()[r][column(c)];
+                    if (seatId != 0) {
+                        seatIds.add(seatId);
+                    }
+                }
+            }
+            return seatIds;
+        }
+
+        /**
+         * Inventory column (letter - 'A') of the c-th seat of the layout
+         */
+        private int column(int c) {
+            return layout.getLetter(c) - 'A';
+        }
+    }
+}
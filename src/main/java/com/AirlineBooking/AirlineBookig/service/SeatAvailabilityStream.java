@@ -0,0 +1,261 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.dto.response.SeatDeltaResponse;
+import com.AirlineBooking.AirlineBookig.dto.response.SeatMapResponse;
+import com.AirlineBooking.AirlineBookig.dto.view.SeatView;
+import com.AirlineBooking.AirlineBookig.event.FlightChangedEvent;
+import com.AirlineBooking.AirlineBookig.event.SeatsChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent seat availability per flight, for seat selection pages that
+ * would otherwise poll the seat map.
+ *
+ * A subscriber first gets a "snapshot" event (the compact seat map), then
+ * a "delta" event with the current status of the seats that changed. Seat
+ * changes are only collected when they commit; every flush-ms the changes
+ * of each flight are coalesced, read once from the seat map and encoded
+ * once, and the same event is written to all of that flight's subscribers.
+ * A recount or a change to the flight itself sends a new snapshot instead;
+ * a flight that no longer has seats ends its streams. Event ids are the
+ * flight version (as in the seat map ETag) the event was read at.
+ *
+ * Subscribers are node-local: a change made on another node reaches them
+ * once the seat map here is reloaded (after booking.cache.ttl-ms).
+ *
+ * Every stream holds a servlet connection for up to timeout-ms, so the
+ * number of open streams is capped per node and per flight; subscribing
+ * past a cap is refused.
+ */
+@Component
+@Slf4j
+public class SeatAvailabilityStream {
+
+    private final SeatService seatService;
+    private final FlightVersions flightVersions;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+    private final int maxSubscribersPerFlight;
+
+    private final Map<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger totalSubscribers = new AtomicInteger();
+    private final Map<Long, Changes> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Seats changed since the last flush; snapshot when the whole flight has to be resent
+     */
+    private record Changes(Set<Long> seatIds, boolean snapshot) {
+
+        Changes plus(Changes other) {
+            Set<Long> merged = new HashSet<>(seatIds);
+            merged.addAll(other.seatIds);
+            return new Changes(merged, snapshot || other.snapshot);
+        }
+    }
+
+    @Autowired
+    public SeatAvailabilityStream(SeatService seatService, FlightVersions flightVersions, ObjectMapper objectMapper,
+            @Value("${booking.seat-stream.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${booking.seat-stream.max-subscribers:5000}") int maxSubscribers,
+            @Value("${booking.seat-stream.max-subscribers-per-flight:500}") int maxSubscribersPerFlight) {
+        this.seatService = seatService;
+        this.flightVersions = flightVersions;
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeoutMillis;
+        this.maxSubscribers = maxSubscribers;
+        this.maxSubscribersPerFlight = maxSubscribersPerFlight;
+    }
+
+    /**
+     * Open a stream for an existing flight and send its snapshot; null if
+     * the node or the flight already has as many streams as allowed.
+     * A flight without seats gets a stream that ends at once.
+     */
+    public SseEmitter subscribe(Long flightId) throws IOException {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        // Registered before the snapshot is read, so no change committed after the read is missed;
+        // a delta flushed meanwhile waits for the snapshot to be sent first
+        synchronized (emitter) {
+            if (!register(flightId, emitter)) {
+                return null;
+            }
+            emitter.onCompletion(() -> unsubscribe(flightId, emitter));
+            emitter.onTimeout(() -> unsubscribe(flightId, emitter));
+            emitter.onError(e -> unsubscribe(flightId, emitter));
+
+            try {
+                long version = flightVersions.version(flightId);
+                List<SeatView> seats = seatService.getSeatViews(flightId);
+                if (seats.isEmpty()) {
+                    unsubscribe(flightId, emitter);
+                    emitter.complete();
+                    return emitter;
+                }
+                emitter.send(snapshot(flightId, version, seats));
+            } catch (IOException | RuntimeException e) {
+                unsubscribe(flightId, emitter);
+                throw e;
+            }
+        }
+        return emitter;
+    }
+
+    /**
+     * Number of open streams for a flight
+     */
+    public int subscriberCount(Long flightId) {
+        Set<SseEmitter> emitters = subscribers.get(flightId);
+        return emitters == null ? 0 : emitters.size();
+    }
+
+    /**
+     * Number of open streams on this node
+     */
+    public int subscriberCount() {
+        return totalSubscribers.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(FlightSearchIndex.ORDER + 3)
+    public void onSeatsChanged(SeatsChangedEvent event) {
+        Collection<Long> seatIds = event.seatIds();
+        collect(event.flightId(), new Changes(Set.copyOf(seatIds), seatIds.isEmpty()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(FlightSearchIndex.ORDER + 3)
+    public void onFlightChanged(FlightChangedEvent event) {
+        collect(event.flightId(), new Changes(Set.of(), true));
+    }
+
+    /**
+     * Send the changes collected since the last flush, one event per flight
+     */
+    @Scheduled(fixedDelayString = "${booking.seat-stream.flush-ms:250}")
+    public void flush() {
+        for (Long flightId : List.copyOf(pending.keySet())) {
+            Changes changes = pending.remove(flightId);
+            Set<SseEmitter> emitters = subscribers.get(flightId);
+            if (changes == null || emitters == null || emitters.isEmpty()) {
+                continue;
+            }
+            try {
+                long version = flightVersions.version(flightId);
+                List<SeatView> seats = seatService.getSeatViews(flightId);
+                if (seats.isEmpty()) {
+                    List<SseEmitter> ended = List.copyOf(emitters);
+                    ended.forEach(emitter -> unsubscribe(flightId, emitter));
+                    ended.forEach(SseEmitter::complete);
+                    continue;
+                }
+                Set<DataWithMediaType> event;
+                if (changes.snapshot()) {
+                    event = snapshot(flightId, version, seats);
+                } else {
+                    SeatDeltaResponse delta = SeatDeltaResponse.fromViews(flightId, version, seats, changes.seatIds());
+                    if (delta.getAvailable().isEmpty() && delta.getReserved().isEmpty()
+                            && delta.getOccupied().isEmpty()) {
+                        continue;
+                    }
+                    event = event("delta", version, delta);
+                }
+                broadcast(flightId, emitters, event);
+            } catch (Exception e) {
+                log.error("Error pushing seat changes of flight {}: {}", flightId, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Keep idle streams open through proxies that close silent connections
+     */
+    @Scheduled(fixedDelayString = "${booking.seat-stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        subscribers.forEach((flightId, emitters) -> broadcast(flightId, emitters, ping));
+    }
+
+    private void collect(Long flightId, Changes changes) {
+        if (subscriberCount(flightId) > 0) {
+            pending.merge(flightId, changes, Changes::plus);
+        }
+    }
+
+    private Set<DataWithMediaType> snapshot(Long flightId, long version, List<SeatView> seats)
+            throws JsonProcessingException {
+        return event("snapshot", version, SeatMapResponse.fromViews(flightId, seats));
+    }
+
+    /**
+     * Encode an event once, to be written as is to every subscriber
+     */
+    private Set<DataWithMediaType> event(String name, long version, Object payload) throws JsonProcessingException {
+        return SseEmitter.event()
+                .name(name)
+                .id(Long.toString(version))
+                .data(objectMapper.writeValueAsString(payload))
+                .build();
+    }
+
+    private void broadcast(Long flightId, Set<SseEmitter> emitters, Set<DataWithMediaType> event) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the container completes the emitter
+                unsubscribe(flightId, emitter);
+            }
+        }
+    }
+
+    /**
+     * Add a subscriber unless that would exceed the node or the flight limit
+     */
+    private boolean register(Long flightId, SseEmitter emitter) {
+        if (totalSubscribers.incrementAndGet() > maxSubscribers) {
+            totalSubscribers.decrementAndGet();
+            return false;
+        }
+        boolean[] added = new boolean[1];
+        subscribers.compute(flightId, (id, emitters) -> {
+            Set<SseEmitter> current = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            if (current.size() < maxSubscribersPerFlight) {
+                added[0] = current.add(emitter);
+            }
+            return current.isEmpty() ? null : current;
+        });
+        if (!added[0]) {
+            totalSubscribers.decrementAndGet();
+        }
+        return added[0];
+    }
+
+    private void unsubscribe(Long flightId, SseEmitter emitter) {
+        subscribers.computeIfPresent(flightId, (id, emitters) -> {
+            if (emitters.remove(emitter)) {
+                totalSubscribers.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
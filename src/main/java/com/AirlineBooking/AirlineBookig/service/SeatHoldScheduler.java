@@ -0,0 +1,51 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class SeatHoldScheduler {
+
+    private final SeatHoldService seatHoldService;
+
+    @Autowired
+    public SeatHoldScheduler(SeatHoldService seatHoldService) {
+        this.seatHoldService = seatHoldService;
+    }
+
+    /**
+     * Advances the seat hold timing wheel every second. Only holds that are
+     * due touch the database.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void expireHolds() {
+        try {
+            int expired = seatHoldService.expireDueHolds();
+            if (expired > 0) {
+                log.info("Released {} seats from expired holds", expired);
+            }
+        } catch (Exception e) {
+            log.error("Error expiring seat holds: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sweeps seat_holds for holds overdue past the grace period (every minute
+     * by default), which catches holds placed on other nodes or on a node
+     * that went down before expiring them.
+     */
+    @Scheduled(initialDelay = 30000, fixedDelayString = "${booking.hold.sweep-ms:60000}")
+    public void sweepOverdueHolds() {
+        try {
+            int expired = seatHoldService.expireOverdueHolds();
+            if (expired > 0) {
+                log.info("Released {} seats from overdue holds found in the database", expired);
+            }
+        } catch (Exception e) {
+            log.error("Error sweeping overdue seat holds: {}", e.getMessage(), e);
+        }
+    }
+}
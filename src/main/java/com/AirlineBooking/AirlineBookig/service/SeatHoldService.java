@@ -0,0 +1,230 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.model.Reservation;
+import com.AirlineBooking.AirlineBookig.model.SeatHold;
+import com.AirlineBooking.AirlineBookig.repository.ReservationRepository;
+import com.AirlineBooking.AirlineBookig.repository.SeatHoldRepository;
+import com.AirlineBooking.AirlineBookig.util.HierarchicalTimingWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Timed seat holds for unpaid reservations.
+ *
+ * Every CONFIRMED reservation holds its seat until it is paid, cancelled or
+ * the hold expires (after the configured TTL, or at departure if sooner).
+ * Holds are persisted in seat_holds and kept in a hierarchical timing wheel,
+ * so expiry costs nothing until a hold is actually due.
+ *
+ * The wheel is node-local and only knows the holds placed on this node (or
+ * found on startup). A periodic sweep of seat_holds expires the holds that
+ * are overdue by more than a grace period, so holds placed on another node,
+ * or on a node that went down, are still expired. Expiring the same hold
+ * twice is harmless: the reservation is cancelled with a conditional UPDATE.
+ */
+@Service
+@Slf4j
+public class SeatHoldService {
+
+    private static final long TICK_MILLIS = 1000;
+
+    private final SeatHoldRepository seatHoldRepository;
+    private final ReservationRepository reservationRepository;
+    private final SeatService seatService;
+    private final FlightLockManager flightLockManager;
+    private final long ttlSeconds;
+    private final long sweepGraceSeconds;
+    private final int sweepBatchSize;
+    private final HierarchicalTimingWheel<Long> wheel =
+            new HierarchicalTimingWheel<>(TICK_MILLIS, 64, 4, System.currentTimeMillis());
+
+    @Autowired
+    public SeatHoldService(SeatHoldRepository seatHoldRepository,
+            ReservationRepository reservationRepository,
+            SeatService seatService,
+            FlightLockManager flightLockManager,
+            @Value("${booking.hold.ttl-seconds:900}") long ttlSeconds,
+            @Value("${booking.hold.sweep-grace-seconds:60}") long sweepGraceSeconds,
+            @Value("${booking.hold.sweep-batch-size:500}") int sweepBatchSize) {
+        this.seatHoldRepository = seatHoldRepository;
+        this.reservationRepository = reservationRepository;
+        this.seatService = seatService;
+        this.flightLockManager = flightLockManager;
+        this.ttlSeconds = ttlSeconds;
+        this.sweepGraceSeconds = sweepGraceSeconds;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    /**
+     * Rebuild the timing wheel from the persisted holds on startup.
+     * Confirmed reservations created before holds existed keep their seat until departure.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildHolds() {
+        List<SeatHold> legacy = new ArrayList<>();
+        for (Reservation reservation : reservationRepository.findConfirmedReservationsWithoutHold()) {
+            legacy.add(newHold(reservation, reservation.getFlight().getDepartureTime()));
+        }
+        seatHoldRepository.saveAll(legacy);
+
+        List<SeatHold> holds = seatHoldRepository.findAll();
+        for (SeatHold hold : holds) {
+            wheel.schedule(hold.getReservationId(), toMillis(hold.getExpiresAt()));
+        }
+        log.info("Seat holds rebuilt: {} active ({} created for existing reservations)", holds.size(), legacy.size());
+    }
+
+    /**
+     * Hold the seat of a new reservation for the configured TTL (or until departure if sooner)
+     */
+    @Transactional
+    public SeatHold placeHold(Reservation reservation) {
+        SeatHold hold = seatHoldRepository.save(newHold(reservation, holdExpiry(reservation)));
+        long deadline = toMillis(hold.getExpiresAt());
+        afterCommit(() -> wheel.schedule(hold.getReservationId(), deadline));
+        return hold;
+    }
+
+    /**
+     * Hold the seats of several new reservations of one flight, inserted in one batch
+     */
+    @Transactional
+    public void placeHolds(List<Reservation> reservations) {
+        List<SeatHold> holds = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            holds.add(newHold(reservation, holdExpiry(reservation)));
+        }
+        seatHoldRepository.insertHolds(holds);
+        afterCommit(() -> holds.forEach(hold -> wheel.schedule(hold.getReservationId(), toMillis(hold.getExpiresAt()))));
+    }
+
+    /**
+     * Release the hold of a reservation (paid, cancelled or deleted)
+     */
+    @Transactional
+    public void releaseHold(Long reservationId) {
+        if (seatHoldRepository.deleteByReservationId(reservationId) > 0) {
+            afterCommit(() -> wheel.cancel(reservationId));
+        }
+    }
+
+    /**
+     * Cancel the reservations whose holds are due and release their seats.
+     * Each reservation is cancelled with a conditional UPDATE rather than a
+     * read and a save: the holds are read before the flight locks are taken,
+     * which on MySQL fixes the read snapshot, so a plain read could miss a
+     * checkout that committed in between and cancel a paid reservation.
+     */
+    @Transactional
+    public int expireDueHolds() {
+        List<Long> due = wheel.advanceTo(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return 0;
+        }
+        retryOnRollback(due);
+        return expire(seatHoldRepository.findByReservationIdIn(due));
+    }
+
+    /**
+     * Expire the holds in seat_holds that are overdue by more than the sweep
+     * grace period, up to one batch, including holds this node's wheel never
+     * saw. The grace period leaves holds that are just due to the wheel of
+     * the node that placed them.
+     */
+    @Transactional
+    public int expireOverdueHolds() {
+        List<SeatHold> holds = seatHoldRepository.findByExpiresAtBeforeOrderByExpiresAt(
+                LocalDateTime.now().minusSeconds(sweepGraceSeconds), Limit.of(sweepBatchSize));
+        if (holds.isEmpty()) {
+            return 0;
+        }
+        afterCommit(() -> holds.forEach(hold -> wheel.cancel(hold.getReservationId())));
+        return expire(holds);
+    }
+
+    /**
+     * Cancel the reservations of these holds that are still unpaid, release
+     * their seats and delete the holds, under the locks of their flights
+     */
+    private int expire(List<SeatHold> holds) {
+        flightLockManager.lockForTransaction(holds.stream().map(SeatHold::getFlightId).toList());
+
+        int expired = 0;
+        for (SeatHold hold : holds) {
+            if (reservationRepository.cancelIfConfirmed(hold.getReservationId()) == 1) {
+                seatService.releaseSeat(hold.getSeatId());
+                expired++;
+            }
+        }
+        seatHoldRepository.deleteAllInBatch(holds);
+        return expired;
+    }
+
+    /**
+     * Number of holds currently scheduled
+     */
+    public int getActiveHoldCount() {
+        return wheel.size();
+    }
+
+    private LocalDateTime holdExpiry(Reservation reservation) {
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(ttlSeconds);
+        LocalDateTime departure = reservation.getFlight().getDepartureTime();
+        return departure.isBefore(expiresAt) ? departure : expiresAt;
+    }
+
+    private SeatHold newHold(Reservation reservation, LocalDateTime expiresAt) {
+        SeatHold hold = new SeatHold();
+        hold.setReservationId(reservation.getReservationId());
+        hold.setFlightId(reservation.getFlight().getFlightId());
+        hold.setSeatId(reservation.getSeat().getSeatId());
+        hold.setExpiresAt(expiresAt);
+        return hold;
+    }
+
+    /**
+     * Put due holds back on the wheel if their expiry transaction rolls back
+     */
+    private void retryOnRollback(List<Long> reservationIds) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    long retryAt = System.currentTimeMillis() + TICK_MILLIS;
+                    reservationIds.forEach(id -> wheel.schedule(id, retryAt));
+                }
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,342 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.config.ReplicaRoutingDataSource;
+import com.AirlineBooking.AirlineBookig.model.BookingStatus;
+import com.AirlineBooking.AirlineBookig.model.CabinClass;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.model.FlightStatus;
+import com.AirlineBooking.AirlineBookig.model.Seat;
+import com.AirlineBooking.AirlineBookig.repository.FlightRepository;
+import com.AirlineBooking.AirlineBookig.repository.SeatRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node-local seat inventory.
+ *
+ * Keeps one availability bitset per flight and cabin so that availability
+ * checks and seat allocation do not touch the database. Seat counts come
+ * from the available seat counters on the flight, not from here. The seats
+ * table stays the durable store: SeatService writes through to it, and a
+ * flight is (re)loaded from SeatRepository on startup or on a cache miss,
+ * always from the primary: a lagging replica would bring back seats that
+ * were just taken.
+ *
+ * Only changes made through this node reach the bitsets, so a seat
+ * released through another node still shows as taken here. SeatService
+ * therefore treats "taken" as a hint and asks the seats table before
+ * turning a booking away, and invalidates the flight when the two disagree.
+ */
+@Component
+@Slf4j
+public class SeatInventory {
+
+    private static final CabinClass[] CABINS = CabinClass.values();
+
+    /**
+     * Widest supported row (column letters A..P)
+     */
+    public static final int MAX_COLUMNS = 16;
+
+    private final SeatRepository seatRepository;
+    private final FlightRepository flightRepository;
+
+    private final Map<Long, FlightSeats> flights = new ConcurrentHashMap<>();
+    private final Map<Long, Long> flightBySeat = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SeatInventory(SeatRepository seatRepository, FlightRepository flightRepository) {
+        this.seatRepository = seatRepository;
+        this.flightRepository = flightRepository;
+    }
+
+    /**
+     * Load inventory for all scheduled flights once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<Flight> scheduled = ReplicaRoutingDataSource.onPrimary(
+                () -> flightRepository.findByStatus(FlightStatus.SCHEDULED));
+        for (Flight flight : scheduled) {
+            reload(flight.getFlightId());
+        }
+        log.info("Seat inventory loaded for {} scheduled flights", scheduled.size());
+    }
+
+    /**
+     * Rebuild the inventory of a flight from the seats table
+     */
+    public void reload(Long flightId) {
+        flights.put(flightId, load(flightId));
+    }
+
+    /**
+     * Drop a flight from the inventory (e.g. when it is deleted)
+     */
+    public void evict(Long flightId) {
+        FlightSeats removed = flights.remove(flightId);
+        if (removed != null) {
+            for (long seatId : removed.seatIds) {
+                flightBySeat.remove(seatId);
+            }
+        }
+    }
+
+    /**
+     * Drop a flight once the surrounding transaction completes, so that the
+     * next access reloads it from the seats table (used when the flight is
+     * deleted, or when the inventory is found to disagree with the database).
+     * Evicting earlier would let a concurrent access reload the rows the
+     * transaction is about to change.
+     */
+    public void invalidate(Long flightId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(flightId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(flightId);
+            }
+        });
+    }
+
+    /**
+     * Flight a seat belongs to, or null if the seat has not been loaded yet
+     */
+    public Long findFlightId(Long seatId) {
+        return flightBySeat.get(seatId);
+    }
+
+    /**
+     * Check whether a seat is part of a flight
+     */
+    public boolean containsSeat(Long flightId, Long seatId) {
+        return seatsOf(flightId).slotOf(seatId) >= 0;
+    }
+
+    /**
+     * Cabin class of a seat of a flight, or null if the seat is not on the flight
+     */
+    public CabinClass cabinOf(Long flightId, Long seatId) {
+        FlightSeats seats = seatsOf(flightId);
+        int slot = seats.slotOf(seatId);
+        return slot >= 0 ? CABINS[seats.cabins[slot]] : null;
+    }
+
+    /**
+     * Check if a seat of a flight is available
+     */
+    public boolean isAvailable(Long flightId, Long seatId) {
+        FlightSeats seats = seatsOf(flightId);
+        synchronized (seats) {
+            int slot = seats.slotOf(seatId);
+            return slot >= 0 && seats.available[seats.cabins[slot]].get(slot);
+        }
+    }
+
+    /**
+     * Available seats of one cabin grouped by row, for row-based seat allocation.
+     * seatIds[r][c] is the seat with letter ('A' + c) in rows[r], or 0 if that seat is not available.
+     */
+    public CabinRows availableRows(Long flightId, CabinClass cabinClass) {
+        FlightSeats seats = seatsOf(flightId);
+        TreeMap<Integer, long[]> byRow = new TreeMap<>();
+        synchronized (seats) {
+            BitSet bits = seats.available[cabinClass.ordinal()];
+            for (int slot = bits.nextSetBit(0); slot >= 0; slot = bits.nextSetBit(slot + 1)) {
+                if (seats.rows[slot] < 0) {
+                    continue;
+                }
+                byRow.computeIfAbsent(seats.rows[slot], row -> new long[MAX_COLUMNS])[seats.columns[slot]] =
+                        seats.seatIds[slot];
+            }
+        }
+
+        int[] rowNumbers = new int[byRow.size()];
+        long[][] seatIds = new long[byRow.size()][];
+        int r = 0;
+        for (Map.Entry<Integer, long[]> row : byRow.entrySet()) {
+            rowNumbers[r] = row.getKey();
+            seatIds[r++] = row.getValue();
+        }
+        return new CabinRows(rowNumbers, seatIds);
+    }
+
+    /**
+     * Snapshot of the available seats of a cabin, row by row
+     */
+    public record CabinRows(int[] rows, long[][] seatIds) {
+    }
+
+    /**
+     * Claim an available seat. Returns false if the seat is not available.
+     * When called inside a transaction the claim is undone on rollback.
+     */
+    public boolean tryClaim(Long flightId, Long seatId) {
+        FlightSeats seats = seatsOf(flightId);
+        if (!seats.set(seatId, false)) {
+            return false;
+        }
+        afterRollback(() -> seats.set(seatId, true));
+        return true;
+    }
+
+    /**
+     * Mark a seat as available again. Applied once the surrounding transaction commits.
+     */
+    public void release(Long flightId, Long seatId) {
+        afterCommit(() -> setIfLoaded(flightId, seatId, true));
+    }
+
+    /**
+     * Mark a seat as no longer available (e.g. occupied). Applied once the surrounding transaction commits.
+     */
+    public void markUnavailable(Long flightId, Long seatId) {
+        afterCommit(() -> setIfLoaded(flightId, seatId, false));
+    }
+
+    /**
+     * A flight that is not loaded yet is left alone: loading it inside the
+     * transaction would pick up its uncommitted changes, and once committed
+     * the next access reads them from the seats table anyway
+     */
+    private void setIfLoaded(Long flightId, Long seatId, boolean available) {
+        FlightSeats seats = flights.get(flightId);
+        if (seats != null) {
+            seats.set(seatId, available);
+        }
+    }
+
+    private FlightSeats seatsOf(Long flightId) {
+        return flights.computeIfAbsent(flightId, this::load);
+    }
+
+    private FlightSeats load(Long flightId) {
+        List<Seat> seats = ReplicaRoutingDataSource.onPrimary(() -> seatRepository.findByFlight_FlightId(flightId));
+        FlightSeats flightSeats = new FlightSeats(seats);
+        for (Seat seat : seats) {
+            flightBySeat.put(seat.getSeatId(), flightId);
+        }
+        return flightSeats;
+    }
+
+    private static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Seats of one flight: slot index per seat, cabin per slot and one
+     * availability bitset per cabin. Guarded by its own monitor.
+     */
+    private static final class FlightSeats {
+
+        private final long[] seatIds;
+        private final Map<Long, Integer> slots;
+        private final byte[] cabins;
+        private final BitSet[] available = new BitSet[CABINS.length];
+        private final int[] rows;
+        private final byte[] columns;
+
+        FlightSeats(List<Seat> seats) {
+            int size = seats.size();
+            seatIds = new long[size];
+            slots = new HashMap<>(size * 2);
+            cabins = new byte[size];
+            rows = new int[size];
+            columns = new byte[size];
+            for (int c = 0; c < CABINS.length; c++) {
+                available[c] = new BitSet(size);
+            }
+            for (int slot = 0; slot < size; slot++) {
+                Seat seat = seats.get(slot);
+                int cabin = seat.getCabinClass().ordinal();
+                seatIds[slot] = seat.getSeatId();
+                slots.put(seat.getSeatId(), slot);
+                cabins[slot] = (byte) cabin;
+                parsePosition(slot, seat.getSeatNumber());
+                if (seat.getBookingStatus() == BookingStatus.AVAILABLE) {
+                    available[cabin].set(slot);
+                }
+            }
+        }
+
+        /**
+         * Seat numbers are a column letter followed by the row number (e.g. "C12");
+         * anything else gets row -1 and is left out of row-based allocation
+         */
+        private void parsePosition(int slot, String seatNumber) {
+            rows[slot] = -1;
+            if (seatNumber == null || seatNumber.length() < 2) {
+                return;
+            }
+            char letter = seatNumber.charAt(0);
+            if (letter < 'A' || letter >= 'A' + MAX_COLUMNS) {
+                return;
+            }
+            try {
+                rows[slot] = Integer.parseInt(seatNumber.substring(1));
+                columns[slot] = (byte) (letter - 'A');
+            } catch (NumberFormatException e) {
+                rows[slot] = -1;
+            }
+        }
+
+        int slotOf(Long seatId) {
+            Integer slot = slots.get(seatId);
+            return slot != null ? slot : -1;
+        }
+
+        /**
+         * Flip the availability bit of a seat; returns false if it already had that value
+         */
+        synchronized boolean set(Long seatId, boolean value) {
+            int slot = slotOf(seatId);
+            if (slot < 0) {
+                return false;
+            }
+            BitSet bits = available[cabins[slot]];
+            if (bits.get(slot) == value) {
+                return false;
+            }
+            bits.set(slot, value);
+            return true;
+        }
+    }
+}
@@ -1,25 +1,52 @@
 package com.AirlineBooking.AirlineBookig.service;
 
-
-
+import com.AirlineBooking.AirlineBookig.config.ReplicaRoutingDataSource;
+import com.AirlineBooking.AirlineBookig.dto.view.SeatView;
+import com.AirlineBooking.AirlineBookig.event.SeatsChangedEvent;
 import com.AirlineBooking.AirlineBookig.model.BookingStatus;
+import com.AirlineBooking.AirlineBookig.model.CabinClass;
 import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.model.FlightStatus;
 import com.AirlineBooking.AirlineBookig.model.Seat;
+import com.AirlineBooking.AirlineBookig.repository.FlightRepository;
 import com.AirlineBooking.AirlineBookig.repository.SeatRepository;
+import com.AirlineBooking.AirlineBookig.repository.SeatRepository.CabinAvailability;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
+@Slf4j
 public class SeatService {
 
+    private static final int CABIN_COUNT = CabinClass.values().length;
+
     private final SeatRepository seatRepository;
+    private final SeatInventory seatInventory;
+    private final FlightRepository flightRepository;
+    private final FlightLockManager flightLockManager;
+    private final CatalogCache catalogCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public SeatService(SeatRepository seatRepository) {
+    public SeatService(SeatRepository seatRepository, SeatInventory seatInventory,
+            FlightRepository flightRepository, FlightLockManager flightLockManager, CatalogCache catalogCache,
+            ApplicationEventPublisher eventPublisher) {
         this.seatRepository = seatRepository;
+        this.seatInventory = seatInventory;
+        this.flightRepository = flightRepository;
+        this.flightLockManager = flightLockManager;
+        this.catalogCache = catalogCache;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -30,10 +57,17 @@ public class SeatService {
     }
 
     /**
-     * Get available seats for a flight
+     * Get all seats for a flight as read-only rows (cached, see CatalogCache)
+     */
+    public List<SeatView> getSeatViews(Long flightId) {
+        return catalogCache.seatMap(flightId, false, () -> seatRepository.findViewsByFlightId(flightId));
+    }
+
+    /**
+     * Get available seats for a flight as read-only rows (cached, see CatalogCache)
      */
-    public List<Seat> getAvailableSeats(Long flightId) {
-        return seatRepository.findAvailableSeatsByFlightId(flightId);
+    public List<SeatView> getAvailableSeatViews(Long flightId) {
+        return catalogCache.seatMap(flightId, true, () -> seatRepository.findAvailableViewsByFlightId(flightId));
     }
 
     /**
@@ -48,23 +82,94 @@ public class SeatService {
      * Check if seat is available
      */
     public boolean isSeatAvailable(Long seatId) {
-        Seat seat = getSeatById(seatId);
-        return seat.getBookingStatus() == BookingStatus.AVAILABLE;
+        Long flightId = seatInventory.findFlightId(seatId);
+        if (flightId == null) {
+            Seat seat = getSeatById(seatId);
+            return seat.getBookingStatus() == BookingStatus.AVAILABLE;
+        }
+        return seatInventory.isAvailable(flightId, seatId);
     }
 
     /**
-     * Reserve a seat (mark as RESERVED)
+     * Check if a seat of a flight is available (served from the seat inventory).
+     * A seat the inventory has as taken may have been released through another
+     * node since the flight was loaded, so that answer is checked against the
+     * seats table on the primary, and the flight is reloaded if the two disagree.
      */
-    @Transactional
-    public Seat reserveSeat(Long seatId) {
-        Seat seat = getSeatById(seatId);
+    public boolean isSeatAvailable(Long flightId, Long seatId) {
+        if (seatInventory.isAvailable(flightId, seatId)) {
+            return true;
+        }
+        boolean available = ReplicaRoutingDataSource.onPrimary(() -> seatRepository.findById(seatId))
+                .filter(seat -> seat.getFlight().getFlightId().equals(flightId))
+                .map(seat -> seat.getBookingStatus() == BookingStatus.AVAILABLE)
+                .orElse(false);
+        if (available) {
+            seatInventory.invalidate(flightId);
+        }
+        return available;
+    }
 
-        if (seat.getBookingStatus() != BookingStatus.AVAILABLE) {
+    /**
+     * Check if a seat belongs to a flight (served from the seat inventory)
+     */
+    public boolean isSeatOnFlight(Long flightId, Long seatId) {
+        return seatInventory.containsSeat(flightId, seatId);
+    }
+
+    /**
+     * Reserve a seat (mark as RESERVED).
+     * Claims the seat with a single conditional UPDATE instead of a
+     * read-check-save, so concurrent bookers cannot both win. The seat
+     * inventory only mirrors the seats table: a seat it has as taken may
+     * have been released through another node, so the UPDATE decides.
+     */
+    @Transactional
+    public void reserveSeat(Long flightId, Long seatId) {
+        boolean claimedLocally = seatInventory.tryClaim(flightId, seatId);
+        boolean claimed = seatRepository.claimSeat(flightId, seatId) == 1;
+        if (claimed != claimedLocally) {
+            // Inventory was stale; let the next access reload it from the database
+            seatInventory.invalidate(flightId);
+        }
+        if (!claimed) {
             throw new RuntimeException("Seat is not available");
         }
+        adjustAvailableSeats(flightId, cabinOf(flightId, seatId), -1);
+        eventPublisher.publishEvent(SeatsChangedEvent.of(flightId, seatId));
+    }
 
-        seat.setBookingStatus(BookingStatus.RESERVED);
-        return seatRepository.save(seat);
+    /**
+     * Reserve several seats of a flight at once, all or nothing.
+     * All seats are claimed in one batched conditional UPDATE, which decides
+     * over the seat inventory as in {@link #reserveSeat(Long, Long)}.
+     */
+    @Transactional
+    public void reserveSeats(Long flightId, Collection<Long> seatIds) {
+        boolean claimedLocally = true;
+        for (Long seatId : seatIds) {
+            claimedLocally &= seatInventory.tryClaim(flightId, seatId);
+        }
+        boolean claimed = seatRepository.claimSeats(flightId, seatIds) == seatIds.size();
+        if (claimed != claimedLocally) {
+            seatInventory.invalidate(flightId);
+        }
+        if (!claimed) {
+            throw new RuntimeException("One or more seats are not available");
+        }
+        int[] deltas = new int[CABIN_COUNT];
+        for (Long seatId : seatIds) {
+            deltas[cabinOf(flightId, seatId).ordinal()]--;
+        }
+        adjustAvailableSeats(flightId, deltas);
+        eventPublisher.publishEvent(new SeatsChangedEvent(flightId, List.copyOf(seatIds)));
+    }
+
+    /**
+     * Get a seat reference without loading it
+     */
+    public Seat getSeatReference(Long seatId) {
+        return seatRepository.getReferenceById(seatId);
     }
 
     /**
@@ -73,8 +178,15 @@ public class SeatService {
     @Transactional
     public Seat releaseSeat(Long seatId) {
         Seat seat = getSeatById(seatId);
+        Long flightId = seat.getFlight().getFlightId();
+        if (seat.getBookingStatus() != BookingStatus.AVAILABLE) {
+            adjustAvailableSeats(flightId, seat.getCabinClass(), 1);
+        }
         seat.setBookingStatus(BookingStatus.AVAILABLE);
-        return seatRepository.save(seat);
+        Seat saved = seatRepository.save(seat);
+        seatInventory.release(flightId, seatId);
+        eventPublisher.publishEvent(SeatsChangedEvent.of(flightId, seatId));
+        return saved;
     }
 
     /**
@@ -83,14 +195,135 @@ public class SeatService {
     @Transactional
     public Seat occupySeat(Long seatId) {
         Seat seat = getSeatById(seatId);
+        Long flightId = seat.getFlight().getFlightId();
+        if (seat.getBookingStatus() == BookingStatus.AVAILABLE) {
+            adjustAvailableSeats(flightId, seat.getCabinClass(), -1);
+        }
         seat.setBookingStatus(BookingStatus.OCCUPIED);
-        return seatRepository.save(seat);
+        Seat saved = seatRepository.save(seat);
+        seatInventory.markUnavailable(flightId, seatId);
+        eventPublisher.publishEvent(SeatsChangedEvent.of(flightId, seatId));
+        return saved;
     }
 
     /**
-     * Count available seats for a flight
+     * Count available seats for a flight, from its seat counters (counted
+     * from the seats table while they have not been reconciled yet)
      */
     public long countAvailableSeats(Long flightId) {
-        return seatRepository.countAvailableSeatsByFlightId(flightId);
+        Long available = findFlight(flightId).getAvailableSeats();
+        return available != null ? available : seatRepository.countAvailableSeatsByFlightId(flightId);
+    }
+
+    /**
+     * Count available seats of a cabin class for a flight, from its seat counters
+     */
+    public long countAvailableSeats(Long flightId, CabinClass cabinClass) {
+        Integer available = findFlight(flightId).getAvailableSeats(cabinClass);
+        return available != null ? available : countActual(flightId)[cabinClass.ordinal()];
+    }
+
+    /**
+     * Scheduled flights whose available seat counters disagree with the seats table.
+     * Read from the primary (a lagging replica would report drift that is not
+     * there) but without locks, so a flight may show up while a booking is committing;
+     * {@link #reconcileAvailableSeats(Long)} re-checks under the flight lock.
+     */
+    public List<Long> findAvailabilityDrift() {
+        Map<Long, int[]> counted = new HashMap<>();
+        List<CabinAvailability> rows = ReplicaRoutingDataSource.onPrimary(
+                () -> seatRepository.countAvailableByCabinForStatus(FlightStatus.SCHEDULED));
+        for (CabinAvailability row : rows) {
+            counted.computeIfAbsent(row.getFlightId(), id -> new int[CABIN_COUNT])[row.getCabinClass().ordinal()] =
+                    (int) row.getAvailable();
+        }
+
+        List<Long> drifted = new ArrayList<>();
+        List<Flight> scheduled = ReplicaRoutingDataSource.onPrimary(
+                () -> flightRepository.findByStatus(FlightStatus.SCHEDULED));
+        for (Flight flight : scheduled) {
+            int[] actual = counted.getOrDefault(flight.getFlightId(), new int[CABIN_COUNT]);
+            if (!matches(flight, actual)) {
+                drifted.add(flight.getFlightId());
+            }
+        }
+        return drifted;
+    }
+
+    /**
+     * Recount the available seats of a flight under its booking lock and fix
+     * the counters if they drifted. Returns true if they were corrected.
+     */
+    @Transactional
+    public boolean reconcileAvailableSeats(Long flightId) {
+        flightLockManager.lockForTransaction(flightId);
+        Flight flight = findFlight(flightId);
+
+        int[] actual = countActual(flightId);
+        if (matches(flight, actual)) {
+            return false;
+        }
+
+        log.warn("Available seat counters of flight {} drifted: economy {}, business {}, first {}; actual {}",
+                flight.getFlightNumber(), flight.getAvailableEconomySeats(), flight.getAvailableBusinessSeats(),
+                flight.getAvailableFirstSeats(), Arrays.toString(actual));
+        flightRepository.setAvailableSeats(flightId,
+                actual[CabinClass.ECONOMY.ordinal()],
+                actual[CabinClass.BUSINESS.ordinal()],
+                actual[CabinClass.FIRST.ordinal()]);
+        eventPublisher.publishEvent(SeatsChangedEvent.recounted(flightId));
+        return true;
+    }
+
+    /**
+     * Cabin of a seat from the seat inventory, or from the seats table if
+     * the inventory does not know the seat yet
+     */
+    private CabinClass cabinOf(Long flightId, Long seatId) {
+        CabinClass cabinClass = seatInventory.cabinOf(flightId, seatId);
+        return cabinClass != null ? cabinClass : getSeatById(seatId).getCabinClass();
+    }
+
+    private Flight findFlight(Long flightId) {
+        return flightRepository.findById(flightId)
+                .orElseThrow(() -> new RuntimeException("Flight not found"));
+    }
+
+    /**
+     * Available seats per cabin (indexed by CabinClass ordinal), counted from the seats table
+     */
+    private int[] countActual(Long flightId) {
+        int[] actual = new int[CABIN_COUNT];
+        for (CabinAvailability row : seatRepository.countAvailableByCabin(flightId)) {
+            actual[row.getCabinClass().ordinal()] = (int) row.getAvailable();
+        }
+        return actual;
+    }
+
+    private static boolean matches(Flight flight, int[] actual) {
+        for (CabinClass cabin : CabinClass.values()) {
+            Integer counter = flight.getAvailableSeats(cabin);
+            if (counter == null || counter != actual[cabin.ordinal()]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void adjustAvailableSeats(Long flightId, CabinClass cabinClass, int delta) {
+        int[] deltas = new int[CABIN_COUNT];
+        deltas[cabinClass.ordinal()] = delta;
+        adjustAvailableSeats(flightId, deltas);
+    }
+
+    /**
+     * Apply per-cabin deltas (indexed by CabinClass ordinal) to the flight's
+     * available seat counters, inside the caller's transaction
+     */
+    private void adjustAvailableSeats(Long flightId, int[] deltas) {
+        flightRepository.adjustAvailableSeats(flightId,
+                deltas[CabinClass.ECONOMY.ordinal()],
+                deltas[CabinClass.BUSINESS.ordinal()],
+                deltas[CabinClass.FIRST.ordinal()]);
     }
-}
\ No newline at end of file
+}
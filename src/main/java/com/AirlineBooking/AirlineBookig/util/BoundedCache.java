@@ -0,0 +1,180 @@
+package com.AirlineBooking.AirlineBookig.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Small read-through cache with a size bound, a time-to-live and tags.
+ *
+ * Entries are kept in access order and the least recently used one is
+ * evicted past maxEntries; an entry older than the time-to-live is never
+ * returned. Each entry carries the tags (ids) its value was built from, so
+ * a change to one id drops exactly the entries that used it.
+ *
+ * Values are loaded outside the lock. Every invalidation starts a new
+ * generation, and a value whose load started in an older generation is
+ * returned to its caller but not stored, so a load racing a change can
+ * not put the old state back.
+ */
+public class BoundedCache<K, V> {
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, Set<K>> keysByTag = new HashMap<>();
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    /**
+     * Counters since startup
+     */
+    public record Stats(String name, int size, int maxEntries, long hits, long misses, double hitRate,
+            long evictions, long expirations, long invalidations) {
+    }
+
+    /**
+     * A cache holding up to maxEntries values (0 disables caching) for at most ttlMillis each
+     */
+    public BoundedCache(String name, int maxEntries, long ttlMillis) {
+        this(name, maxEntries, ttlMillis, System::nanoTime);
+    }
+
+    BoundedCache(String name, int maxEntries, long ttlMillis, LongSupplier clock) {
+        this.name = name;
+        this.maxEntries = Math.max(maxEntries, 0);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * The cached value for key, or the loaded one; tagsOf names the ids the value depends on
+     */
+    public V get(K key, Supplier<V> loader, Function<? super V, ? extends Collection<Long>> tagsOf) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (clock.getAsLong() - entry.loadedAt < ttlNanos) {
+                    hits++;
+                    return entry.value;
+                }
+                expirations++;
+                unlink(key, entries.remove(key));
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        V value = loader.get();
+        if (maxEntries == 0 || ttlNanos <= 0) {
+            return value;
+        }
+        long[] tags = tagsOf.apply(value).stream().mapToLong(Long::longValue).distinct().toArray();
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                unlink(key, entries.put(key, new Entry<>(value, tags, clock.getAsLong())));
+                for (long tag : tags) {
+                    keysByTag.computeIfAbsent(tag, t -> new HashSet<>()).add(key);
+                }
+                Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+                while (entries.size() > maxEntries) {
+                    Map.Entry<K, Entry<V>> evicted = eldest.next();
+                    eldest.remove();
+                    unlink(evicted.getKey(), evicted.getValue());
+                    evictions++;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drop every entry built from the given id
+     */
+    public synchronized void invalidateTag(long tag) {
+        generation++;
+        Set<K> keys = keysByTag.get(tag);
+        if (keys != null) {
+            for (K key : List.copyOf(keys)) {
+                remove(key);
+            }
+        }
+    }
+
+    /**
+     * Drop every entry whose key matches
+     */
+    public synchronized void invalidateKeys(Predicate<? super K> matching) {
+        generation++;
+        for (K key : List.copyOf(entries.keySet())) {
+            if (matching.test(key)) {
+                remove(key);
+            }
+        }
+    }
+
+    /**
+     * Drop every entry
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations += entries.size();
+        entries.clear();
+        keysByTag.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized Stats stats() {
+        long requests = hits + misses;
+        return new Stats(name, entries.size(), maxEntries, hits, misses,
+                requests == 0 ? 0.0 : (double) hits / requests, evictions, expirations, invalidations);
+    }
+
+    private void remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry != null) {
+            unlink(key, entry);
+            invalidations++;
+        }
+    }
+
+    private void unlink(K key, Entry<V> entry) {
+        if (entry == null) {
+            return;
+        }
+        for (long tag : entry.tags) {
+            Set<K> keys = keysByTag.get(tag);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    keysByTag.remove(tag);
+                }
+            }
+        }
+    }
+
+    private record Entry<V>(V value, long[] tags, long loadedAt) {
+    }
+}
@@ -0,0 +1,278 @@
+package com.AirlineBooking.AirlineBookig.util;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory time-dependent flight graph for connection search.
+ *
+ * Places are nodes (normalized names, matched exactly); flights are legs
+ * kept sorted by departure time both per origin and per origin/destination
+ * pair. A search walks the time-expanded graph depth-first from the legs
+ * leaving the origin in the departure window: every transfer has to leave
+ * between the minimum connection time and the maximum layover after the
+ * previous arrival, the last leg is looked up directly on its route into
+ * the destination, and two-stop paths only go through places that have a
+ * route into the destination. The best itineraries are kept in a bounded
+ * heap.
+ *
+ * Reads are lock-free; writes are synchronized.
+ */
+public class ConnectionIndex {
+
+    private static final Comparator<Leg> BY_DEPARTURE =
+            Comparator.comparing((Leg l) -> l.departureTime).thenComparingLong(l -> l.flightId);
+
+    /**
+     * Earliest arrival first, then fewer stops, then the latest departure
+     */
+    private static final Comparator<Itinerary> BEST_FIRST = Comparator.comparing(Itinerary::arrivalTime)
+            .thenComparingInt(Itinerary::stops)
+            .thenComparing(Itinerary::departureTime, Comparator.reverseOrder());
+
+    private final Map<Long, Leg> legs = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Leg>> departures = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, NavigableSet<Leg>>> arrivals = new ConcurrentHashMap<>();
+
+    /**
+     * Flights of one trip in travel order
+     */
+    public record Itinerary(List<Long> flightIds, LocalDateTime departureTime, LocalDateTime arrivalTime) {
+
+        public int stops() {
+            return flightIds.size() - 1;
+        }
+    }
+
+    /**
+     * Connection search limits: stops allowed (0 = direct only) and the
+     * shortest and longest time allowed between arriving and leaving a place
+     */
+    public record Rules(int maxStops, Duration minConnection, Duration maxLayover) {
+    }
+
+    /**
+     * Add a flight, or move it if its places or times changed
+     */
+    public synchronized void put(long flightId, String origin, String destination,
+            LocalDateTime departureTime, LocalDateTime arrivalTime, boolean available) {
+        remove(flightId);
+        String from = RouteIndex.normalize(origin);
+        String to = RouteIndex.normalize(destination);
+        if (from == null || to == null || from.equals(to) || departureTime == null || arrivalTime == null) {
+            return;
+        }
+        Leg leg = new Leg(flightId, from, to, departureTime, arrivalTime, available);
+        legs.put(flightId, leg);
+        departures.computeIfAbsent(from, o -> new ConcurrentSkipListSet<>(BY_DEPARTURE)).add(leg);
+        arrivals.computeIfAbsent(to, d -> new ConcurrentHashMap<>())
+                .computeIfAbsent(from, o -> new ConcurrentSkipListSet<>(BY_DEPARTURE))
+                .add(leg);
+    }
+
+    /**
+     * Remove a flight; returns false if it was not indexed
+     */
+    public synchronized boolean remove(long flightId) {
+        Leg leg = legs.remove(flightId);
+        if (leg == null) {
+            return false;
+        }
+        NavigableSet<Leg> leaving = departures.get(leg.origin);
+        leaving.remove(leg);
+        if (leaving.isEmpty()) {
+            departures.remove(leg.origin);
+        }
+        Map<String, NavigableSet<Leg>> byOrigin = arrivals.get(leg.destination);
+        NavigableSet<Leg> route = byOrigin.get(leg.origin);
+        route.remove(leg);
+        if (route.isEmpty()) {
+            byOrigin.remove(leg.origin);
+            if (byOrigin.isEmpty()) {
+                arrivals.remove(leg.destination);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mark whether a flight still has seats; returns false if it is not indexed
+     */
+    public boolean setAvailable(long flightId, boolean available) {
+        Leg leg = legs.get(flightId);
+        if (leg == null) {
+            return false;
+        }
+        leg.available = available;
+        return true;
+    }
+
+    /**
+     * Number of indexed flights
+     */
+    public int size() {
+        return legs.size();
+    }
+
+    /**
+     * The best itineraries (earliest arrival first) from origin to destination whose
+     * first flight departs in [departFrom, departBefore)
+     */
+    public List<Itinerary> search(String origin, String destination, LocalDateTime departFrom,
+            LocalDateTime departBefore, Rules rules, int limit) {
+        String from = RouteIndex.normalize(origin);
+        String to = RouteIndex.normalize(destination);
+        if (from == null || to == null || from.equals(to) || limit <= 0) {
+            return List.of();
+        }
+        NavigableSet<Leg> first = departures.get(from);
+        Map<String, NavigableSet<Leg>> into = arrivals.get(to);
+        if (first == null || into == null) {
+            return List.of();
+        }
+
+        Search search = new Search(from, to, into, rules, limit);
+        for (Leg leg : first.subSet(Leg.probe(departFrom), true, Leg.probe(departBefore), false)) {
+            if (leg.available) {
+                search.extend(leg, null, null);
+            }
+        }
+        return search.results();
+    }
+
+    /**
+     * One search: the destination's inbound routes, the rules and the best itineraries so far
+     */
+    private final class Search {
+
+        private final String origin;
+        private final String destination;
+        private final Map<String, NavigableSet<Leg>> into;
+        private final Rules rules;
+        private final int limit;
+        private final PriorityQueue<Itinerary> best;
+
+        Search(String origin, String destination, Map<String, NavigableSet<Leg>> into, Rules rules, int limit) {
+            this.origin = origin;
+            this.destination = destination;
+            this.into = into;
+            this.rules = rules;
+            this.limit = limit;
+            this.best = new PriorityQueue<>(Math.min(limit, 1024) + 1, BEST_FIRST.reversed());
+        }
+
+        /**
+         * Continue a trip whose latest flight is leg; first and second are the
+         * flights before it, in order, or null
+         */
+        void extend(Leg leg, Leg first, Leg second) {
+            if (leg.destination.equals(destination)) {
+                offer(first, second, leg);
+                return;
+            }
+            int stopsSoFar = (first != null ? 1 : 0) + (second != null ? 1 : 0);
+            if (stopsSoFar >= rules.maxStops() || cannotImprove(leg.arrivalTime)) {
+                return;
+            }
+
+            // Last leg: straight from here into the destination
+            NavigableSet<Leg> direct = into.get(leg.destination);
+            if (direct != null) {
+                for (Leg next : connecting(direct, leg)) {
+                    if (next.available && !cannotImprove(next.arrivalTime)) {
+                        offer(first, second, leg, next);
+                    }
+                }
+            }
+
+            // One more stop, only through places with a route into the destination
+            if (stopsSoFar + 1 < rules.maxStops()) {
+                NavigableSet<Leg> onward = departures.get(leg.destination);
+                if (onward == null) {
+                    return;
+                }
+                for (Leg next : connecting(onward, leg)) {
+                    if (next.available && !next.destination.equals(destination) && !next.destination.equals(origin)
+                            && !next.destination.equals(leg.origin) && into.containsKey(next.destination)) {
+                        extend(next, first != null ? first : leg, first != null ? leg : null);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Flights of a set leaving between the minimum connection time and the maximum layover after leg lands
+         */
+        private NavigableSet<Leg> connecting(NavigableSet<Leg> flights, Leg leg) {
+            return flights.subSet(Leg.probe(leg.arrivalTime.plus(rules.minConnection())), true,
+                    Leg.probe(leg.arrivalTime.plus(rules.maxLayover())), true);
+        }
+
+        /**
+         * Whether a trip arriving at this time can no longer make the top results
+         */
+        private boolean cannotImprove(LocalDateTime arrivalTime) {
+            return best.size() >= limit && arrivalTime.isAfter(best.peek().arrivalTime());
+        }
+
+        private void offer(Leg... trip) {
+            List<Long> flightIds = new ArrayList<>(trip.length);
+            Leg start = null;
+            Leg end = null;
+            for (Leg leg : trip) {
+                if (leg != null) {
+                    flightIds.add(leg.flightId);
+                    start = start == null ? leg : start;
+                    end = leg;
+                }
+            }
+            Itinerary itinerary = new Itinerary(List.copyOf(flightIds), start.departureTime, end.arrivalTime);
+            if (best.size() < limit) {
+                best.add(itinerary);
+            } else if (BEST_FIRST.compare(itinerary, best.peek()) < 0) {
+                best.poll();
+                best.add(itinerary);
+            }
+        }
+
+        List<Itinerary> results() {
+            List<Itinerary> sorted = new ArrayList<>(best);
+            sorted.sort(BEST_FIRST);
+            return sorted;
+        }
+    }
+
+    private static final class Leg {
+        private final long flightId;
+        private final String origin;
+        private final String destination;
+        private final LocalDateTime departureTime;
+        private final LocalDateTime arrivalTime;
+        private volatile boolean available;
+
+        Leg(long flightId, String origin, String destination, LocalDateTime departureTime,
+                LocalDateTime arrivalTime, boolean available) {
+            this.flightId = flightId;
+            this.origin = origin;
+            this.destination = destination;
+            this.departureTime = departureTime;
+            this.arrivalTime = arrivalTime;
+            this.available = available;
+        }
+
+        /**
+         * Search key that sorts before every flight departing at the given time
+         */
+        static Leg probe(LocalDateTime departureTime) {
+            return new Leg(Long.MIN_VALUE, null, null, departureTime, departureTime, false);
+        }
+    }
+}
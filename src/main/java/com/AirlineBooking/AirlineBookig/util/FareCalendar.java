@@ -0,0 +1,175 @@
+package com.AirlineBooking.AirlineBookig.util;
+
+import com.AirlineBooking.AirlineBookig.model.CabinClass;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Cheapest available fare per route, departure day and cabin.
+ *
+ * Routes are keyed by normalized origin and destination (matched exactly).
+ * Every route keeps one cell per day with flights; a cell holds its
+ * flights' fares and seat counts and a precomputed snapshot of the
+ * cheapest fare per cabin among flights with a seat left in that cabin.
+ * A flight change only recomputes the cell (or two cells, if it moved)
+ * the flight is in, so reading a month is a range of snapshots.
+ *
+ * Reads are lock-free; writes are synchronized.
+ */
+public class FareCalendar {
+
+    private static final CabinClass[] CABINS = CabinClass.values();
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, NavigableMap<LocalDate, Cell>> routes = new ConcurrentHashMap<>();
+
+    /**
+     * One day of a route: the cheapest fare with a seat left in each cabin
+     * (null when that cabin is sold out or missing) and the number of flights
+     */
+    public record Day(LocalDate date, Double cheapestFare, Double economyFare, Double businessFare,
+            Double firstFare, int flights) {
+
+        static Day empty(LocalDate date) {
+            return new Day(date, null, null, null, null, 0);
+        }
+    }
+
+    /**
+     * Add a flight, or move it if its route or day changed.
+     * Fares and available seat counts are indexed by CabinClass ordinal.
+     */
+    public synchronized void put(long flightId, String origin, String destination, LocalDate departureDate,
+            double[] fares, int[] availableSeats) {
+        remove(flightId);
+        String route = routeKey(origin, destination);
+        if (route == null || departureDate == null) {
+            return;
+        }
+        Entry entry = new Entry(route, departureDate, fares.clone(), availableSeats.clone());
+        entries.put(flightId, entry);
+        Cell cell = routes.computeIfAbsent(route, r -> new ConcurrentSkipListMap<>())
+                .computeIfAbsent(departureDate, Cell::new);
+        cell.flights.put(flightId, entry);
+        cell.refresh();
+    }
+
+    /**
+     * Update the available seat counts of a flight (by CabinClass ordinal);
+     * returns false if it is not indexed
+     */
+    public synchronized boolean setAvailableSeats(long flightId, int[] availableSeats) {
+        Entry entry = entries.get(flightId);
+        if (entry == null) {
+            return false;
+        }
+        entry.availableSeats = availableSeats.clone();
+        routes.get(entry.route).get(entry.departureDate).refresh();
+        return true;
+    }
+
+    /**
+     * Remove a flight; returns false if it was not indexed
+     */
+    public synchronized boolean remove(long flightId) {
+        Entry entry = entries.remove(flightId);
+        if (entry == null) {
+            return false;
+        }
+        NavigableMap<LocalDate, Cell> days = routes.get(entry.route);
+        Cell cell = days.get(entry.departureDate);
+        cell.flights.remove(flightId);
+        if (cell.flights.isEmpty()) {
+            days.remove(entry.departureDate);
+            if (days.isEmpty()) {
+                routes.remove(entry.route);
+            }
+        } else {
+            cell.refresh();
+        }
+        return true;
+    }
+
+    /**
+     * Number of indexed flights
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Every day from first to last (inclusive) for a route, in date order;
+     * days without flights are included with no fares
+     */
+    public List<Day> days(String origin, String destination, LocalDate first, LocalDate last) {
+        List<Day> days = new ArrayList<>();
+        String route = routeKey(origin, destination);
+        NavigableMap<LocalDate, Cell> cells = route == null ? null : routes.get(route);
+        for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+            Cell cell = cells == null ? null : cells.get(date);
+            days.add(cell == null ? Day.empty(date) : cell.day);
+        }
+        return days;
+    }
+
+    private static String routeKey(String origin, String destination) {
+        String from = RouteIndex.normalize(origin);
+        String to = RouteIndex.normalize(destination);
+        return from == null || to == null ? null : from + '\n' + to;
+    }
+
+    private static final class Cell {
+        private final LocalDate date;
+        private final Map<Long, Entry> flights = new HashMap<>();
+        private volatile Day day;
+
+        Cell(LocalDate date) {
+            this.date = date;
+            this.day = Day.empty(date);
+        }
+
+        /**
+         * Recompute the snapshot after one of the cell's flights changed
+         */
+        void refresh() {
+            Double[] cheapest = new Double[CABINS.length];
+            for (Entry entry : flights.values()) {
+                for (int cabin = 0; cabin < CABINS.length; cabin++) {
+                    if (entry.availableSeats[cabin] > 0
+                            && (cheapest[cabin] == null || entry.fares[cabin] < cheapest[cabin])) {
+                        cheapest[cabin] = entry.fares[cabin];
+                    }
+                }
+            }
+            Double overall = null;
+            for (Double fare : cheapest) {
+                if (fare != null && (overall == null || fare < overall)) {
+                    overall = fare;
+                }
+            }
+            day = new Day(date, overall, cheapest[CabinClass.ECONOMY.ordinal()],
+                    cheapest[CabinClass.BUSINESS.ordinal()], cheapest[CabinClass.FIRST.ordinal()], flights.size());
+        }
+    }
+
+    private static final class Entry {
+        private final String route;
+        private final LocalDate departureDate;
+        private final double[] fares;
+        private int[] availableSeats;
+
+        Entry(String route, LocalDate departureDate, double[] fares, int[] availableSeats) {
+            this.route = route;
+            this.departureDate = departureDate;
+            this.fares = fares;
+            this.availableSeats = availableSeats;
+        }
+    }
+}
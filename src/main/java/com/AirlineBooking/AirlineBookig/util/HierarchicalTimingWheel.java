@@ -0,0 +1,142 @@
+package com.AirlineBooking.AirlineBookig.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel.
+ *
+ * Level 0 has one bucket per tick; every higher level has buckets that span
+ * a whole rotation of the level below. An entry is placed on the lowest
+ * level whose range covers its delay and is cascaded down as time reaches
+ * its bucket, so scheduling, cancelling and expiring are all O(1) amortised
+ * and advancing never scans entries that are not due. Entries further out
+ * than the top level are simply re-placed when their bucket comes round.
+ *
+ * Not thread-safe on its own; all methods are synchronized.
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final List<List<ArrayDeque<Entry<K>>>> levels = new ArrayList<>();
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private long currentTick;
+
+    /**
+     * @param tickMillis duration of one tick
+     * @param wheelSize  buckets per level, must be a power of two
+     * @param levelCount number of levels
+     * @param startMillis time the wheel starts at
+     */
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levelCount, long startMillis) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        for (int l = 0; l < levelCount; l++) {
+            List<ArrayDeque<Entry<K>>> buckets = new ArrayList<>(wheelSize);
+            for (int b = 0; b < wheelSize; b++) {
+                buckets.add(new ArrayDeque<>());
+            }
+            levels.add(buckets);
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedule (or reschedule) a key to expire at the given time
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        long deadlineTick = Math.max(deadlineMillis / tickMillis, currentTick + 1);
+        Entry<K> entry = new Entry<>(key, deadlineTick);
+        entries.put(key, entry);
+        place(entry);
+    }
+
+    /**
+     * Cancel a scheduled key; returns false if it was not scheduled
+     */
+    public synchronized boolean cancel(K key) {
+        return entries.remove(key) != null;
+    }
+
+    /**
+     * Number of keys currently scheduled
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Advance the wheel to the given time and return every key that expired
+     */
+    public synchronized List<K> advanceTo(long nowMillis) {
+        List<K> expired = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            ArrayDeque<Entry<K>> bucket = levels.get(0).get((int) (currentTick & mask));
+            Entry<K> entry;
+            while ((entry = bucket.poll()) != null) {
+                if (entries.get(entry.key) != entry) {
+                    continue; // cancelled or rescheduled
+                }
+                if (entry.deadlineTick <= currentTick) {
+                    entries.remove(entry.key);
+                    expired.add(entry.key);
+                } else {
+                    place(entry);
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Move entries of every higher-level bucket that starts at the current tick down a level
+     */
+    private void cascade() {
+        for (int l = levels.size() - 1; l >= 1; l--) {
+            long span = 1L << (bits * l);
+            if (currentTick % span != 0) {
+                continue;
+            }
+            ArrayDeque<Entry<K>> bucket = levels.get(l).get((int) ((currentTick >>> (bits * l)) & mask));
+            List<Entry<K>> moving = new ArrayList<>(bucket);
+            bucket.clear();
+            for (Entry<K> entry : moving) {
+                if (entries.get(entry.key) == entry) {
+                    place(entry);
+                }
+            }
+        }
+    }
+
+    private void place(Entry<K> entry) {
+        long delay = Math.max(entry.deadlineTick - currentTick, 0);
+        int level = 0;
+        while (level < levels.size() - 1 && delay >= (1L << (bits * (level + 1)))) {
+            level++;
+        }
+        int index = (int) ((entry.deadlineTick >>> (bits * level)) & mask);
+        levels.get(level).get(index).add(entry);
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private final long deadlineTick;
+
+        Entry(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.AirlineBooking.AirlineBookig.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.StringJoiner;
+
+/**
+ * Opaque continuation tokens for keyset pagination.
+ *
+ * A cursor carries the sort key of the last row of a page (for example
+ * departure time and id), so the next page is read with a range condition
+ * on an index instead of an OFFSET that has to skip every earlier row.
+ */
+public final class PageCursor {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private PageCursor() {
+    }
+
+    /**
+     * Encode the sort key of the last row of a page
+     */
+    public static String encode(Object... key) {
+        StringJoiner joined = new StringJoiner("|");
+        for (Object part : key) {
+            joined.add(String.valueOf(part));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(joined.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor into the given number of key parts
+     */
+    public static String[] decode(String cursor, int parts) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] key = decoded.split("\\|", -1);
+            if (key.length == parts) {
+                return key;
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through
+        }
+        throw new RuntimeException("Invalid page cursor");
+    }
+
+    /**
+     * Requested page size limited to 1..MAX_PAGE_SIZE, DEFAULT_PAGE_SIZE if not given
+     */
+    public static int pageSize(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+}
@@ -0,0 +1,278 @@
+package com.AirlineBooking.AirlineBookig.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Place name suggestions for search boxes.
+ *
+ * Keeps the distinct origins and destinations of the registered flights,
+ * with the number of flights using each. A prefix trie answers
+ * "starts with" lookups (at the start of the name or of any later word,
+ * so "jk" finds "Nairobi JKIA"); a trigram index answers misspelt queries
+ * by trigram overlap. Flights are added and removed one at a time, and a
+ * place disappears with its last flight.
+ *
+ * Reads share a read lock; writes take the write lock.
+ */
+public class PlaceSuggester {
+
+    /**
+     * Minimum trigram similarity (Jaccard) for a fuzzy match
+     */
+    private static final double MIN_SIMILARITY = 0.3;
+
+    private final TrieNode root = new TrieNode();
+    private final Map<String, Place> places = new HashMap<>();
+    private final Map<String, Set<Place>> trigrams = new HashMap<>();
+    private final Map<Long, String[]> flights = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * A suggested place and the number of flights from or to it
+     */
+    public record Suggestion(String name, int flights) {
+    }
+
+    /**
+     * Register a flight's places, replacing whatever it had before
+     */
+    public void put(long flightId, String origin, String destination) {
+        lock.writeLock().lock();
+        try {
+            release(flights.remove(flightId));
+            String[] names = { origin, destination };
+            for (String name : names) {
+                acquire(name);
+            }
+            flights.put(flightId, names);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forget a flight; returns false if it was not registered
+     */
+    public boolean remove(long flightId) {
+        lock.writeLock().lock();
+        try {
+            String[] names = flights.remove(flightId);
+            release(names);
+            return names != null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of distinct places
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return places.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to limit places for what the user typed so far: prefix matches first
+     * (busiest places first), then close misspellings (most similar first)
+     */
+    public List<Suggestion> suggest(String query, int limit) {
+        String key = RouteIndex.normalize(query);
+        if (key == null || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Set<Place> found = new LinkedHashSet<>(prefixMatches(key, limit));
+            if (found.size() < limit && key.length() >= 3) {
+                for (Place place : fuzzyMatches(key)) {
+                    found.add(place);
+                    if (found.size() >= limit) {
+                        break;
+                    }
+                }
+            }
+            List<Suggestion> suggestions = new ArrayList<>(found.size());
+            for (Place place : found) {
+                suggestions.add(new Suggestion(place.name, place.flights));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Place> prefixMatches(String prefix, int limit) {
+        TrieNode node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+
+        Set<Place> matched = new HashSet<>();
+        Deque<TrieNode> pending = new ArrayDeque<>();
+        pending.push(node);
+        while (!pending.isEmpty()) {
+            TrieNode next = pending.pop();
+            matched.addAll(next.places);
+            pending.addAll(next.children.values());
+        }
+        List<Place> sorted = new ArrayList<>(matched);
+        sorted.sort(Comparator.comparingInt((Place p) -> -p.flights).thenComparing(p -> p.key));
+        return sorted.size() > limit ? sorted.subList(0, limit) : sorted;
+    }
+
+    private List<Place> fuzzyMatches(String key) {
+        Set<String> queryGrams = trigramsOf(key);
+        Map<Place, Integer> shared = new HashMap<>();
+        for (String gram : queryGrams) {
+            for (Place place : trigrams.getOrDefault(gram, Set.of())) {
+                shared.merge(place, 1, Integer::sum);
+            }
+        }
+
+        Map<Place, Double> similarity = new HashMap<>();
+        for (Map.Entry<Place, Integer> candidate : shared.entrySet()) {
+            int common = candidate.getValue();
+            double score = (double) common / (queryGrams.size() + candidate.getKey().trigrams.size() - common);
+            if (score >= MIN_SIMILARITY) {
+                similarity.put(candidate.getKey(), score);
+            }
+        }
+        List<Place> sorted = new ArrayList<>(similarity.keySet());
+        sorted.sort(Comparator.comparingDouble((Place p) -> -similarity.get(p))
+                .thenComparingInt(p -> -p.flights)
+                .thenComparing(p -> p.key));
+        return sorted;
+    }
+
+    private void acquire(String name) {
+        String key = RouteIndex.normalize(name);
+        if (key == null) {
+            return;
+        }
+        Place place = places.get(key);
+        if (place == null) {
+            place = new Place(key, name.trim(), trigramsOf(key));
+            places.put(key, place);
+            index(place);
+        }
+        place.flights++;
+    }
+
+    private void release(String[] names) {
+        if (names == null) {
+            return;
+        }
+        for (String name : names) {
+            String key = RouteIndex.normalize(name);
+            Place place = key != null ? places.get(key) : null;
+            if (place != null && --place.flights == 0) {
+                places.remove(key);
+                unindex(place);
+            }
+        }
+    }
+
+    private void index(Place place) {
+        for (int start : wordStarts(place.key)) {
+            TrieNode node = root;
+            for (int i = start; i < place.key.length(); i++) {
+                node = node.children.computeIfAbsent(place.key.charAt(i), c -> new TrieNode());
+            }
+            node.places.add(place);
+        }
+        for (String gram : place.trigrams) {
+            trigrams.computeIfAbsent(gram, g -> new HashSet<>()).add(place);
+        }
+    }
+
+    private void unindex(Place place) {
+        for (int start : wordStarts(place.key)) {
+            removeFromTrie(root, place, start);
+        }
+        for (String gram : place.trigrams) {
+            Set<Place> withGram = trigrams.get(gram);
+            withGram.remove(place);
+            if (withGram.isEmpty()) {
+                trigrams.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * Remove a place from the path spelling key[from..]; prunes nodes left empty
+     */
+    private static boolean removeFromTrie(TrieNode node, Place place, int from) {
+        if (from == place.key.length()) {
+            node.places.remove(place);
+        } else {
+            char c = place.key.charAt(from);
+            TrieNode child = node.children.get(c);
+            if (child != null && removeFromTrie(child, place, from + 1)) {
+                node.children.remove(c);
+            }
+        }
+        return node.places.isEmpty() && node.children.isEmpty();
+    }
+
+    private static List<Integer> wordStarts(String key) {
+        List<Integer> starts = new ArrayList<>();
+        starts.add(0);
+        for (int i = 1; i < key.length(); i++) {
+            if (key.charAt(i - 1) == ' ' || key.charAt(i - 1) == '-' || key.charAt(i - 1) == '(') {
+                starts.add(i);
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * Trigrams of a name padded with '$' at both ends, so that the first
+     * and last letters weigh as much as the middle ones
+     */
+    static Set<String> trigramsOf(String key) {
+        String padded = "$" + key + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static final class Place {
+        private final String key;
+        private final String name;
+        private final Set<String> trigrams;
+        private int flights;
+
+        Place(String key, String name, Set<String> trigrams) {
+            this.key = key;
+            this.name = name;
+            this.trigrams = trigrams;
+        }
+    }
+
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new TreeMap<>();
+        private final Set<Place> places = new HashSet<>();
+    }
+}
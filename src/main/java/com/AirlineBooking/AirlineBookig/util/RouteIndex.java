@@ -0,0 +1,339 @@
+package com.AirlineBooking.AirlineBookig.util;
+
+import com.AirlineBooking.AirlineBookig.model.CabinClass;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory route index.
+ *
+ * Flights are grouped by normalized origin, then normalized destination,
+ * and kept sorted by departure time (then id) within a route, so a date
+ * window is a range of each matching route (or of one set of all flights
+ * when no place is given). Each flight carries its fare and an
+ * availability bit per cabin, which can change without touching the route
+ * structure. Place names match by substring like the old SQL search did,
+ * but only the distinct place names are scanned, never the flights.
+ *
+ * A search keeps only the best K candidates in a bounded heap instead of
+ * sorting everything that matched.
+ *
+ * Reads are lock-free; writes are synchronized.
+ */
+public class RouteIndex {
+
+    private static final CabinClass[] CABINS = CabinClass.values();
+
+    private static final Comparator<Entry> BY_DEPARTURE =
+            Comparator.comparing((Entry e) -> e.departureTime).thenComparingLong(e -> e.flightId);
+
+    private final Map<String, Map<String, NavigableSet<Entry>>> routes = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final NavigableSet<Entry> all = new ConcurrentSkipListSet<>(BY_DEPARTURE);
+
+    /**
+     * Result orderings
+     */
+    public enum SortKey {
+        DEPARTURE,
+        PRICE,
+        DURATION
+    }
+
+    /**
+     * A route search. Place names match by substring and null matches any;
+     * departFrom is inclusive and departBefore exclusive; with a cabin only
+     * that cabin counts, otherwise the cheapest cabin with a seat left.
+     */
+    public record Query(String origin, String destination, LocalDateTime departFrom, LocalDateTime departBefore,
+            CabinClass cabinClass, Double maxPrice, SortKey sort, int limit) {
+
+        /**
+         * Every available flight between two places, by departure time
+         */
+        public static Query route(String origin, String destination) {
+            return new Query(origin, destination, null, null, null, null, SortKey.DEPARTURE, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Normalize a place name for indexing: trimmed, single-spaced and lower case; blank becomes null
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return null;
+        }
+        String normalized = name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    /**
+     * Add a flight, or move it if its route or times changed.
+     * Fares and available seat counts are indexed by CabinClass ordinal.
+     */
+    public synchronized void put(long flightId, String origin, String destination,
+            LocalDateTime departureTime, LocalDateTime arrivalTime, double[] fares, int[] availableSeats) {
+        remove(flightId);
+        String originKey = normalize(origin);
+        String destinationKey = normalize(destination);
+        if (originKey == null || destinationKey == null || departureTime == null || arrivalTime == null) {
+            return;
+        }
+        Entry entry = new Entry(flightId, originKey, destinationKey, departureTime,
+                Duration.between(departureTime, arrivalTime).toMinutes(), fares.clone(), cabinMask(availableSeats));
+        entries.put(flightId, entry);
+        all.add(entry);
+        routes.computeIfAbsent(originKey, o -> new ConcurrentHashMap<>())
+                .computeIfAbsent(destinationKey, d -> new ConcurrentSkipListSet<>(BY_DEPARTURE))
+                .add(entry);
+    }
+
+    /**
+     * Remove a flight; returns false if it was not indexed
+     */
+    public synchronized boolean remove(long flightId) {
+        Entry entry = entries.remove(flightId);
+        if (entry == null) {
+            return false;
+        }
+        all.remove(entry);
+        Map<String, NavigableSet<Entry>> destinations = routes.get(entry.origin);
+        NavigableSet<Entry> flights = destinations.get(entry.destination);
+        flights.remove(entry);
+        if (flights.isEmpty()) {
+            destinations.remove(entry.destination);
+            if (destinations.isEmpty()) {
+                routes.remove(entry.origin);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Update the available seat counts of a flight (by CabinClass ordinal);
+     * returns false if it is not indexed
+     */
+    public boolean setAvailableSeats(long flightId, int[] availableSeats) {
+        Entry entry = entries.get(flightId);
+        if (entry == null) {
+            return false;
+        }
+        entry.availableCabins = cabinMask(availableSeats);
+        return true;
+    }
+
+    /**
+     * Check whether a flight is indexed
+     */
+    public boolean contains(long flightId) {
+        return entries.containsKey(flightId);
+    }
+
+    /**
+     * Whether an indexed flight qualifies for a query (places, departure
+     * window, cabin and price), whatever its rank
+     */
+    public boolean matches(long flightId, Query query) {
+        Entry entry = entries.get(flightId);
+        if (entry == null) {
+            return false;
+        }
+        String origin = normalize(query.origin());
+        String destination = normalize(query.destination());
+        if ((origin != null && !entry.origin.contains(origin))
+                || (destination != null && !entry.destination.contains(destination))) {
+            return false;
+        }
+        if ((query.departFrom() != null && entry.departureTime.isBefore(query.departFrom()))
+                || (query.departBefore() != null && !entry.departureTime.isBefore(query.departBefore()))) {
+            return false;
+        }
+        return priceOf(entry, query) >= 0;
+    }
+
+    /**
+     * Number of indexed flights
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Ids of the available flights whose origin and destination contain the
+     * given text (ignoring case; null or blank matches any), by departure time
+     */
+    public List<Long> search(String origin, String destination) {
+        return search(Query.route(origin, destination));
+    }
+
+    /**
+     * Ids of the best query.limit() flights matching a query, in query.sort() order
+     * (ties broken by departure time)
+     */
+    public List<Long> search(Query query) {
+        String origin = normalize(query.origin());
+        String destination = normalize(query.destination());
+        // Without places every route matches: scan one departure-ordered set instead of each route
+        List<NavigableSet<Entry>> matched = origin == null && destination == null
+                ? List.of(all)
+                : matchRoutes(origin, destination);
+        int limit = Math.max(query.limit(), 0);
+        List<Long> flightIds = new ArrayList<>();
+        if (limit == 0 || matched.isEmpty()) {
+            return flightIds;
+        }
+
+        // One route sorted by departure is already in order: stop after K hits
+        if (matched.size() == 1 && query.sort() == SortKey.DEPARTURE) {
+            for (Entry entry : window(matched.get(0), query)) {
+                if (priceOf(entry, query) >= 0) {
+                    flightIds.add(entry.flightId);
+                    if (flightIds.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return flightIds;
+        }
+
+        Comparator<Hit> order = orderOf(query.sort());
+        PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(limit, 1024) + 1, order.reversed());
+        for (NavigableSet<Entry> route : matched) {
+            for (Entry entry : window(route, query)) {
+                double price = priceOf(entry, query);
+                if (price < 0) {
+                    continue;
+                }
+                Hit hit = new Hit(entry, price);
+                if (best.size() < limit) {
+                    best.add(hit);
+                } else if (order.compare(hit, best.peek()) < 0) {
+                    best.poll();
+                    best.add(hit);
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(order);
+        for (Hit hit : hits) {
+            flightIds.add(hit.entry.flightId);
+        }
+        return flightIds;
+    }
+
+    private static Comparator<Hit> orderOf(SortKey sort) {
+        Comparator<Hit> byDeparture = Comparator.comparing((Hit h) -> h.entry, BY_DEPARTURE);
+        return switch (sort == null ? SortKey.DEPARTURE : sort) {
+            case DEPARTURE -> byDeparture;
+            case PRICE -> Comparator.comparingDouble((Hit h) -> h.price).thenComparing(byDeparture);
+            case DURATION -> Comparator.comparingLong((Hit h) -> h.entry.durationMinutes).thenComparing(byDeparture);
+        };
+    }
+
+    /**
+     * The part of a route inside the query's departure window
+     */
+    private static NavigableSet<Entry> window(NavigableSet<Entry> route, Query query) {
+        if (query.departFrom() != null && query.departBefore() != null) {
+            return route.subSet(Entry.probe(query.departFrom()), true, Entry.probe(query.departBefore()), false);
+        }
+        if (query.departFrom() != null) {
+            return route.tailSet(Entry.probe(query.departFrom()), true);
+        }
+        if (query.departBefore() != null) {
+            return route.headSet(Entry.probe(query.departBefore()), false);
+        }
+        return route;
+    }
+
+    /**
+     * Fare the query would pay on a flight, or -1 if the flight does not qualify
+     */
+    private static double priceOf(Entry entry, Query query) {
+        int available = entry.availableCabins;
+        double price = -1;
+        if (query.cabinClass() != null) {
+            int cabin = query.cabinClass().ordinal();
+            if ((available & (1 << cabin)) != 0) {
+                price = entry.fares[cabin];
+            }
+        } else {
+            for (int cabin = 0; cabin < CABINS.length; cabin++) {
+                if ((available & (1 << cabin)) != 0 && (price < 0 || entry.fares[cabin] < price)) {
+                    price = entry.fares[cabin];
+                }
+            }
+        }
+        if (price >= 0 && query.maxPrice() != null && price > query.maxPrice()) {
+            return -1;
+        }
+        return price;
+    }
+
+    private List<NavigableSet<Entry>> matchRoutes(String origin, String destination) {
+        List<NavigableSet<Entry>> matched = new ArrayList<>();
+        for (Map.Entry<String, Map<String, NavigableSet<Entry>>> byOrigin : routes.entrySet()) {
+            if (origin != null && !byOrigin.getKey().contains(origin)) {
+                continue;
+            }
+            for (Map.Entry<String, NavigableSet<Entry>> route : byOrigin.getValue().entrySet()) {
+                if (destination == null || route.getKey().contains(destination)) {
+                    matched.add(route.getValue());
+                }
+            }
+        }
+        return matched;
+    }
+
+    private static int cabinMask(int[] availableSeats) {
+        int mask = 0;
+        for (int cabin = 0; cabin < availableSeats.length; cabin++) {
+            if (availableSeats[cabin] > 0) {
+                mask |= 1 << cabin;
+            }
+        }
+        return mask;
+    }
+
+    private record Hit(Entry entry, double price) {
+    }
+
+    private static final class Entry {
+        private final long flightId;
+        private final String origin;
+        private final String destination;
+        private final LocalDateTime departureTime;
+        private final long durationMinutes;
+        private final double[] fares;
+        private volatile int availableCabins;
+
+        Entry(long flightId, String origin, String destination, LocalDateTime departureTime,
+                long durationMinutes, double[] fares, int availableCabins) {
+            this.flightId = flightId;
+            this.origin = origin;
+            this.destination = destination;
+            this.departureTime = departureTime;
+            this.durationMinutes = durationMinutes;
+            this.fares = fares;
+            this.availableCabins = availableCabins;
+        }
+
+        /**
+         * Search key that sorts before every flight departing at the given time
+         */
+        static Entry probe(LocalDateTime departureTime) {
+            return new Entry(Long.MIN_VALUE, null, null, departureTime, 0, null, 0);
+        }
+    }
+}
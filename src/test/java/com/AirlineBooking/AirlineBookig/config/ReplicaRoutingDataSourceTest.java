@@ -0,0 +1,111 @@
+package com.AirlineBooking.AirlineBookig.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing over three in-memory H2 databases standing in for a primary and
+ * two replicas; each database answers with its own name.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReplicaRoutingDataSource(database("primary"),
+                List.of(database("replica-a"), database("replica-b")), 5000, now::get);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicasInTurn() {
+        assertThat(readOnlyName()).isEqualTo("replica-a");
+        assertThat(readOnlyName()).isEqualTo("replica-b");
+        assertThat(readOnlyName()).isEqualTo("replica-a");
+        assertThat(readWriteName()).isEqualTo("primary");
+        assertThat(name()).isEqualTo("primary");
+        assertThat(ReplicaRoutingDataSource.onPrimary(this::readOnlyName))
+                .isEqualTo("primary");
+    }
+
+    @Test
+    void readsStayOnThePrimaryForAWhileAfterTheUsersOwnWrite() {
+        signIn("alice@example.com");
+        readWrite.executeWithoutResult(status -> jdbc.update("UPDATE place SET writes = writes + 1"));
+        assertThat(readOnlyName()).isEqualTo("primary");
+
+        // Someone else still reads from a replica
+        signIn("bob@example.com");
+        assertThat(readOnlyName()).startsWith("replica-");
+
+        // A rolled back write does not pin
+        readWrite.executeWithoutResult(status -> {
+            jdbc.update("UPDATE place SET writes = writes + 1");
+            status.setRollbackOnly();
+        });
+        assertThat(readOnlyName()).startsWith("replica-");
+
+        signIn("alice@example.com");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(4999));
+        assertThat(readOnlyName()).isEqualTo("primary");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(readOnlyName()).startsWith("replica-");
+    }
+
+    private String readOnlyName() {
+        return readOnly.execute(status -> name());
+    }
+
+    private String readWriteName() {
+        return readWrite.execute(status -> name());
+    }
+
+    private String name() {
+        return jdbc.queryForObject("SELECT name FROM place", String.class);
+    }
+
+    private static void signIn(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(email, null, List.of()));
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS place (name VARCHAR(20), writes INT)");
+        jdbc.update("DELETE FROM place");
+        jdbc.update("INSERT INTO place VALUES (?, 0)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,122 @@
+package com.AirlineBooking.AirlineBookig.config;
+
+import com.AirlineBooking.AirlineBookig.dto.view.FlightView;
+import com.AirlineBooking.AirlineBookig.dto.view.ItineraryView;
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.repository.FlightRepository;
+import com.AirlineBooking.AirlineBookig.repository.SeatRepository;
+import com.AirlineBooking.AirlineBookig.service.CatalogCache;
+import com.AirlineBooking.AirlineBookig.service.FlightLockManager;
+import com.AirlineBooking.AirlineBookig.service.FlightSearchIndex;
+import com.AirlineBooking.AirlineBookig.service.FlightService;
+import com.AirlineBooking.AirlineBookig.service.FlightVersions;
+import com.AirlineBooking.AirlineBookig.service.SeatInventory;
+import com.AirlineBooking.AirlineBookig.service.SeatService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Catalog and inventory reads behind the replica router. The replica has
+ * no tables, so any read that reaches it fails.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "booking.datasource.primary-pin-ms=600000" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ FlightService.class, FlightSearchIndex.class, CatalogCache.class, FlightVersions.class,
+        SeatInventory.class, SeatService.class, FlightLockManager.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReplicaRoutingSearchTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.now().plusDays(9).withNano(0);
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TestConfiguration
+    static class RoutingConfig {
+
+        @Bean
+        DataSource dataSource() {
+            return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(database("search-primary"),
+                    List.of(database("search-replica")), 0));
+        }
+    }
+
+    @Test
+    void flightsChangedWithinTheReplicaLagAreReadFromThePrimary() {
+        Flight flight = flightService.createFlight("RTE-1", "Kisumu", "Malindi", DEPARTURE, DEPARTURE.plusHours(2),
+                12, 700.0, AircraftLayout.REGIONAL_4);
+
+        List<ItineraryView> itineraries = flightService.searchConnections("Kisumu", "Malindi",
+                DEPARTURE.toLocalDate(), 0, null);
+        assertThat(itineraries).singleElement()
+                .extracting(itinerary -> itinerary.flights().stream().map(FlightView::flightNumber).toList())
+                .isEqualTo(List.of("RTE-1"));
+        assertThat(seatService.getSeatViews(flight.getFlightId())).hasSize(12);
+
+        // Flights this node has not seen change are read from the replica
+        assertThatThrownBy(() -> catalogCache.readFlights(List.of(Long.MAX_VALUE), () -> flightRepository.count()))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void inventoryAndDriftChecksAlwaysReadThePrimary() {
+        Flight flight = flightService.createFlight("RTE-2", "Kisumu", "Lamu", DEPARTURE, DEPARTURE.plusHours(2),
+                12, 800.0, AircraftLayout.REGIONAL_4);
+        Long seatId = ReplicaRoutingDataSource.onPrimary(
+                () -> seatRepository.findViewsByFlightId(flight.getFlightId())).get(0).seatId();
+
+        // Even when called from a read-only transaction, which would otherwise go to the replica
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        seatInventory.evict(flight.getFlightId());
+        Boolean onFlight = readOnly.execute(status -> seatInventory.containsSeat(flight.getFlightId(), seatId));
+        assertThat(onFlight).isTrue();
+        readOnly.executeWithoutResult(status -> seatInventory.warmUp());
+        List<Long> drifted = readOnly.execute(status -> seatService.findAvailabilityDrift());
+        assertThat(drifted).isEmpty();
+    }
+
+    private static DataSource database(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,177 @@
+package com.AirlineBooking.AirlineBookig.controller;
+
+import com.AirlineBooking.AirlineBookig.dto.response.ApiResponse;
+import com.AirlineBooking.AirlineBookig.dto.response.SeatMapResponse;
+import com.AirlineBooking.AirlineBookig.dto.response.SeatResponse;
+import com.AirlineBooking.AirlineBookig.dto.view.SeatView;
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.BookingStatus;
+import com.AirlineBooking.AirlineBookig.model.CabinClass;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.model.Seat;
+import com.AirlineBooking.AirlineBookig.model.User;
+import com.AirlineBooking.AirlineBookig.repository.UserRepository;
+import com.AirlineBooking.AirlineBookig.service.CatalogCache;
+import com.AirlineBooking.AirlineBookig.service.FlightLockManager;
+import com.AirlineBooking.AirlineBookig.service.FlightSearchIndex;
+import com.AirlineBooking.AirlineBookig.service.FlightService;
+import com.AirlineBooking.AirlineBookig.service.FlightVersions;
+import com.AirlineBooking.AirlineBookig.service.ReservationService;
+import com.AirlineBooking.AirlineBookig.service.SeatAllocator;
+import com.AirlineBooking.AirlineBookig.service.SeatAvailabilityStream;
+import com.AirlineBooking.AirlineBookig.service.SeatHoldService;
+import com.AirlineBooking.AirlineBookig.service.SeatInventory;
+import com.AirlineBooking.AirlineBookig.service.SeatService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The compact seat map carries the same seats as the JSON list in a fraction of the bytes.
+ */
+@DataJpaTest(showSql = false,
+        properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ FlightController.class, ReservationService.class, SeatService.class, SeatInventory.class,
+        FlightService.class, FlightSearchIndex.class, CatalogCache.class, FlightVersions.class,
+        SeatAvailabilityStream.class, FlightLockManager.class, SeatHoldService.class, SeatAllocator.class })
+class CompactSeatMapTest {
+
+    private static final int SEATS = 300;
+
+    @Autowired
+    private FlightController flightController;
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void compactSeatMapIsNegotiatedAndMatchesTheSeatList() throws Exception {
+        Flight flight = reservedFlight("MAP-C1", 40);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(flightController).build();
+        String seats = "/api/flights/" + flight.getFlightId() + "/seats";
+
+        var list = mockMvc.perform(get(seats).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertThat(list.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+        String json = list.getContentAsString();
+        var compact = mockMvc.perform(get(seats).accept(SeatMapResponse.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SeatMapResponse.MEDIA_TYPE))
+                .andReturn().getResponse();
+        assertThat(compact.getHeader(HttpHeaders.ETAG))
+                .isNotEqualTo(mockMvc.perform(get(seats)).andReturn().getResponse().getHeader(HttpHeaders.ETAG));
+
+        assertThat(compact.getContentAsString().length() * 10).isLessThan(json.length());
+
+        // Decoding the compact map gives back every seat's id, position and status
+        List<SeatView> views = seatService.getSeatViews(flight.getFlightId());
+        SeatMapResponse map = SeatMapResponse.fromViews(flight.getFlightId(), views);
+        assertThat(decode(map)).isEqualTo(byNumber(views));
+        assertThat(map.getCabins()).extracting(SeatMapResponse.Cabin::cabinClass)
+                .containsExactly(CabinClass.FIRST, CabinClass.BUSINESS, CabinClass.ECONOMY);
+        assertThat(map.getAisleAfter()).containsExactly(2, 5);
+    }
+
+    @Test
+    void compactSeatMapSerializesSmallerThanTheSeatList() throws Exception {
+        Flight flight = reservedFlight("MAP-C2", 40);
+        List<SeatView> views = seatService.getSeatViews(flight.getFlightId());
+        byte[] list = objectMapper.writeValueAsBytes(ApiResponse.success("Seats retrieved successfully",
+                views.stream().map(SeatResponse::fromView).toList()));
+        byte[] compact = objectMapper.writeValueAsBytes(ApiResponse.success("Seat map retrieved successfully",
+                SeatMapResponse.fromViews(flight.getFlightId(), views)));
+
+        assertThat(compact.length).isLessThan(list.length);
+    }
+
+    private static Map<String, String> decode(SeatMapResponse map) {
+        StringBuilder statuses = new StringBuilder();
+        int count = 0;
+        for (char c : map.getSeats().toCharArray()) {
+            if (Character.isDigit(c)) {
+                count = count * 10 + (c - '0');
+            } else {
+                statuses.append(String.valueOf(c).repeat(Math.max(count, 1)));
+                count = 0;
+            }
+        }
+        List<Long> seatIds = new ArrayList<>();
+        for (long[] run : map.getSeatIdRuns()) {
+            for (long id = run[0]; id < run[0] + run[1]; id++) {
+                seatIds.add(id);
+            }
+        }
+
+        Map<String, String> seats = new HashMap<>();
+        int columns = map.getSeatLetters().length();
+        assertThat(statuses).hasSize(map.getRows() * columns);
+        int next = 0;
+        for (int slot = 0; slot < statuses.length(); slot++) {
+            if (statuses.charAt(slot) != '-') {
+                String number = map.getSeatLetters().charAt(slot % columns) + String.valueOf(slot / columns + 1);
+                seats.put(number, seatIds.get(next++) + ":" + statuses.charAt(slot));
+            }
+        }
+        assertThat(next).isEqualTo(seatIds.size());
+        return seats;
+    }
+
+    private static Map<String, String> byNumber(List<SeatView> views) {
+        Map<String, String> seats = new HashMap<>();
+        for (SeatView seat : views) {
+            seats.put(seat.seatNumber(), seat.seatId() + ":" + seat.bookingStatus().name().charAt(0));
+        }
+        assertThat(seats.values()).filteredOn(s -> s.endsWith(":" + BookingStatus.RESERVED.name().charAt(0)))
+                .hasSize(40);
+        return seats;
+    }
+
+    private Flight reservedFlight(String flightNumber, int reserved) {
+        User newUser = new User();
+        newUser.setName("Seat Map " + flightNumber);
+        newUser.setEmail(flightNumber.toLowerCase() + "@example.com");
+        newUser.setPassword("secret123");
+        User user = userRepository.save(newUser);
+
+        LocalDateTime departure = LocalDateTime.now().plusDays(4);
+        Flight flight = flightService.createFlight(flightNumber, "Nairobi", "Kisumu",
+                departure, departure.plusHours(1), SEATS, 350.0, AircraftLayout.WIDEBODY_9);
+        List<Long> seatIds = seatService.getSeatsByFlight(flight.getFlightId()).stream()
+                .map(Seat::getSeatId).limit(reserved).toList();
+        seatIds.forEach(seatId -> reservationService.createReservation(user, flight.getFlightId(), seatId));
+        return flight;
+    }
+}
@@ -0,0 +1,140 @@
+package com.AirlineBooking.AirlineBookig.controller;
+
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.model.User;
+import com.AirlineBooking.AirlineBookig.repository.UserRepository;
+import com.AirlineBooking.AirlineBookig.service.CatalogCache;
+import com.AirlineBooking.AirlineBookig.service.FlightLockManager;
+import com.AirlineBooking.AirlineBookig.service.FlightSearchIndex;
+import com.AirlineBooking.AirlineBookig.service.FlightService;
+import com.AirlineBooking.AirlineBookig.service.FlightVersions;
+import com.AirlineBooking.AirlineBookig.service.ReservationService;
+import com.AirlineBooking.AirlineBookig.service.SeatAllocator;
+import com.AirlineBooking.AirlineBookig.service.SeatAvailabilityStream;
+import com.AirlineBooking.AirlineBookig.service.SeatHoldService;
+import com.AirlineBooking.AirlineBookig.service.SeatInventory;
+import com.AirlineBooking.AirlineBookig.service.SeatService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Flight and seat map responses carry a version ETag, and a matching
+ * If-None-Match is answered with 304 (or 404 for a missing flight) from memory.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true" })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ FlightController.class, ReservationService.class, SeatService.class, SeatInventory.class,
+        FlightService.class, FlightSearchIndex.class, CatalogCache.class, FlightVersions.class,
+        SeatAvailabilityStream.class, FlightLockManager.class, SeatHoldService.class, SeatAllocator.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ConditionalGetTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.now().plusDays(25).withNano(0);
+
+    @Autowired
+    private FlightController flightController;
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private FlightVersions flightVersions;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(flightController).build();
+    }
+
+    @Test
+    void unchangedSeatMapIsNotModifiedWithoutQueries() throws Exception {
+        Flight flight = flightService.createFlight("ET-1", "Narok", "Kajiado", DEPARTURE, DEPARTURE.plusHours(1),
+                12, 100.0, AircraftLayout.REGIONAL_4);
+        String seats = "/api/flights/" + flight.getFlightId() + "/seats";
+        String etag = mockMvc.perform(get(seats))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/flights/" + flight.getFlightId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get(seats).header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mockMvc.perform(get("/api/flights/" + flight.getFlightId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        User newUser = new User();
+        newUser.setName("ETag Checker");
+        newUser.setEmail("etag.checker@example.com");
+        newUser.setPassword("secret123");
+        User user = userRepository.save(newUser);
+        Long seatId = seatService.getSeatsByFlight(flight.getFlightId()).get(0).getSeatId();
+        reservationService.createReservation(user, flight.getFlightId(), seatId);
+
+        String changed = mockMvc.perform(get(seats).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(changed).isNotEqualTo(etag);
+
+        flightService.updateFlight(flight.getFlightId(), null, null, DEPARTURE.plusHours(1), DEPARTURE.plusHours(2));
+        mockMvc.perform(get("/api/flights/" + flight.getFlightId()).header(HttpHeaders.IF_NONE_MATCH, changed))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void missingFlightIsNotFoundEvenWithAMatchingETag() throws Exception {
+        long unknown = Long.MAX_VALUE;
+        String etag = flightVersions.etag(flightVersions.version(unknown));
+        mockMvc.perform(get("/api/flights/" + unknown))
+                .andExpect(status().isBadRequest());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/api/flights/" + unknown).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/flights/" + unknown + "/seats").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotFound());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+}
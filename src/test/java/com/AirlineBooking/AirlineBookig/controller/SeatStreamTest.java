@@ -0,0 +1,143 @@
+package com.AirlineBooking.AirlineBookig.controller;
+
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.service.CatalogCache;
+import com.AirlineBooking.AirlineBookig.service.FlightLockManager;
+import com.AirlineBooking.AirlineBookig.service.FlightSearchIndex;
+import com.AirlineBooking.AirlineBookig.service.FlightService;
+import com.AirlineBooking.AirlineBookig.service.FlightVersions;
+import com.AirlineBooking.AirlineBookig.service.ReservationService;
+import com.AirlineBooking.AirlineBookig.service.SeatAllocator;
+import com.AirlineBooking.AirlineBookig.service.SeatAvailabilityStream;
+import com.AirlineBooking.AirlineBookig.service.SeatHoldService;
+import com.AirlineBooking.AirlineBookig.service.SeatInventory;
+import com.AirlineBooking.AirlineBookig.service.SeatService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Seat stream subscribers get a snapshot, then one coalesced delta per
+ * flush carrying the current status of the seats that changed.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // Flushed by the test only
+        "booking.seat-stream.flush-ms=3600000",
+        "booking.seat-stream.max-subscribers-per-flight=2" })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ FlightController.class, ReservationService.class, SeatService.class, SeatInventory.class,
+        FlightService.class, FlightSearchIndex.class, CatalogCache.class, FlightVersions.class,
+        SeatAvailabilityStream.class, FlightLockManager.class, SeatHoldService.class, SeatAllocator.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SeatStreamTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.now().plusDays(35).withNano(0);
+
+    @Autowired
+    private FlightController flightController;
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private SeatAvailabilityStream seatAvailabilityStream;
+
+    @Autowired
+    private FlightVersions flightVersions;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(flightController).build();
+    }
+
+    @Test
+    void subscribersGetSnapshotThenCoalescedDeltas() throws Exception {
+        Flight flight = flightService.createFlight("SS-1", "Meru", "Embu", DEPARTURE, DEPARTURE.plusHours(1),
+                12, 100.0, AircraftLayout.REGIONAL_4);
+        Long flightId = flight.getFlightId();
+        String stream = "/api/flights/" + flightId + "/seats/stream";
+        MockHttpServletResponse first = subscribe(stream);
+        MockHttpServletResponse second = subscribe(stream);
+        assertThat(seatAvailabilityStream.subscriberCount(flightId)).isEqualTo(2);
+        assertThat(first.getContentAsString())
+                .startsWith("event:snapshot\nid:" + flightVersions.version(flightId) + "\ndata:{")
+                .contains("\"seats\":\"12A\"");
+
+        List<Long> seatIds = seatService.getSeatViews(flightId).stream().map(v -> v.seatId()).toList();
+        seatService.reserveSeat(flightId, seatIds.get(0));
+        seatService.reserveSeat(flightId, seatIds.get(1));
+        seatService.occupySeat(seatIds.get(1));
+        seatService.reserveSeat(flightId, seatIds.get(2));
+        seatService.releaseSeat(seatIds.get(2));
+        int before = first.getContentAsString().length();
+        seatAvailabilityStream.flush();
+
+        long version = flightVersions.version(flightId);
+        String delta = first.getContentAsString().substring(before);
+        assertThat(delta).isEqualTo("event:delta\nid:" + version + "\ndata:{\"flightId\":" + flightId
+                + ",\"version\":" + version + ","
+                + "\"available\":[" + seatIds.get(2) + "],\"reserved\":[" + seatIds.get(0) + "],"
+                + "\"occupied\":[" + seatIds.get(1) + "]}\n\n");
+        assertThat(second.getContentAsString()).isEqualTo(first.getContentAsString());
+
+        // Nothing changed since: nothing is sent
+        seatAvailabilityStream.flush();
+        assertThat(first.getContentAsString().length()).isEqualTo(before + delta.length());
+    }
+
+    @Test
+    void unknownFlightIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/flights/987654/seats/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isNotFound());
+        assertThat(seatAvailabilityStream.subscriberCount(987654L)).isZero();
+    }
+
+    @Test
+    void streamsBeyondTheFlightLimitAreRefused() throws Exception {
+        Flight flight = flightService.createFlight("SS-2", "Nyeri", "Nanyuki", DEPARTURE, DEPARTURE.plusHours(1),
+                12, 90.0, AircraftLayout.REGIONAL_4);
+        String stream = "/api/flights/" + flight.getFlightId() + "/seats/stream";
+        subscribe(stream);
+        subscribe(stream);
+        int open = seatAvailabilityStream.subscriberCount();
+
+        mockMvc.perform(get(stream).accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        assertThat(seatAvailabilityStream.subscriberCount(flight.getFlightId())).isEqualTo(2);
+        assertThat(seatAvailabilityStream.subscriberCount()).isEqualTo(open);
+    }
+
+    private MockHttpServletResponse subscribe(String stream) throws Exception {
+        return mockMvc.perform(get(stream).accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+    }
+}
@@ -0,0 +1,135 @@
+package com.AirlineBooking.AirlineBookig.repository;
+
+import com.AirlineBooking.AirlineBookig.model.BookingStatus;
+import com.AirlineBooking.AirlineBookig.model.CabinClass;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.model.FlightStatus;
+import com.AirlineBooking.AirlineBookig.model.Seat;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Claim throughput under contention: the conditional UPDATE against a
+ * versioned read-modify-write, with many bookers racing for the same seats.
+ * Reports attempts per second only; run with {@code mvn test -Pbenchmark}.
+ */
+@DataJpaTest(showSql = false,
+        properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SeatClaimBenchmark {
+
+    private static final int SEATS = 300;
+    private static final int BOOKERS = 16;
+    private static final AtomicInteger FLIGHT_NUMBERS = new AtomicInteger();
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void claimThroughput() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        Flight conditional = createFlight(tx);
+        report("conditional update", race(seatIdsOf(conditional), seatId ->
+                tx.execute(status -> seatRepository.claimSeat(conditional.getFlightId(), seatId) == 1)));
+
+        Flight versioned = createFlight(tx);
+        report("read-modify-write", race(seatIdsOf(versioned), seatId -> {
+            try {
+                return tx.execute(status -> {
+                    Seat seat = seatRepository.findById(seatId).orElseThrow();
+                    if (seat.getBookingStatus() != BookingStatus.AVAILABLE) {
+                        return false;
+                    }
+                    seat.setBookingStatus(BookingStatus.RESERVED);
+                    seatRepository.saveAndFlush(seat);
+                    return true;
+                });
+            } catch (RuntimeException lostOptimisticRace) {
+                return false;
+            }
+        }));
+    }
+
+    /**
+     * Every booker tries every seat in its own order; returns the elapsed nanoseconds
+     */
+    private long race(List<Long> seatIds, Predicate<Long> claim) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(BOOKERS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int b = 0; b < BOOKERS; b++) {
+            List<Long> order = new ArrayList<>(seatIds);
+            Collections.shuffle(order);
+            pool.submit(() -> {
+                start.await();
+                order.forEach(claim::test);
+                return null;
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.MINUTES);
+        return System.nanoTime() - begin;
+    }
+
+    private static void report(String path, long nanos) {
+        int attempts = SEATS * BOOKERS;
+        System.out.printf("%s: %d claim attempts in %.3f s (%.0f attempts/s)%n",
+                path, attempts, nanos / 1e9, attempts / (nanos / 1e9));
+    }
+
+    private Flight createFlight(TransactionTemplate tx) {
+        return tx.execute(status -> {
+            Flight flight = new Flight();
+            flight.setFlightNumber("BCH-" + FLIGHT_NUMBERS.incrementAndGet());
+            flight.setOrigin("Nairobi");
+            flight.setDestination("Mombasa");
+            flight.setDepartureTime(LocalDateTime.now().plusDays(1));
+            flight.setArrivalTime(LocalDateTime.now().plusDays(1).plusHours(1));
+            flight.setSeatCapacity(SEATS);
+            flight.setDistance(480.0);
+            flight.setStatus(FlightStatus.SCHEDULED);
+            flight = flightRepository.save(flight);
+
+            List<Seat> seats = new ArrayList<>();
+            for (int i = 0; i < SEATS; i++) {
+                Seat seat = new Seat();
+                seat.setSeatNumber("S" + i);
+                seat.setCabinClass(CabinClass.ECONOMY);
+                seat.setFlight(flight);
+                seats.add(seat);
+            }
+            seatRepository.saveAll(seats);
+            return flight;
+        });
+    }
+
+    private List<Long> seatIdsOf(Flight flight) {
+        return seatRepository.findByFlight_FlightId(flight.getFlightId()).stream()
+                .map(Seat::getSeatId)
+                .toList();
+    }
+}
@@ -0,0 +1,179 @@
+package com.AirlineBooking.AirlineBookig.repository;
+
+import com.AirlineBooking.AirlineBookig.model.BookingStatus;
+import com.AirlineBooking.AirlineBookig.model.CabinClass;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.model.FlightStatus;
+import com.AirlineBooking.AirlineBookig.model.Seat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Contention stress test for seat claims: many bookers race for the same
+ * seats, every seat must be won exactly once.
+ */
+@DataJpaTest(showSql = false,
+        properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SeatClaimConcurrencyTest {
+
+    private static final int SEATS = 60;
+    private static final int BOOKERS = 16;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        seatRepository.deleteAll();
+        flightRepository.deleteAll();
+    }
+
+    @Test
+    void conditionalClaimNeverDoubleBooks() throws Exception {
+        Flight flight = createFlight("CAS-1");
+        List<Long> seatIds = seatIdsOf(flight);
+
+        Map<Long, AtomicInteger> winners = race(seatIds, seatId ->
+                tx.execute(status -> seatRepository.claimSeat(flight.getFlightId(), seatId) == 1));
+
+        assertEveryVersionedSeatWonOnce(seatIds, winners);
+    }
+
+    @Test
+    void readModifyWriteIsGuardedByVersion() throws Exception {
+        Flight flight = createFlight("RMW-1");
+        List<Long> seatIds = seatIdsOf(flight);
+
+        Map<Long, AtomicInteger> winners = race(seatIds, seatId -> {
+            try {
+                return tx.execute(status -> {
+                    Seat seat = seatRepository.findById(seatId).orElseThrow();
+                    if (seat.getBookingStatus() != BookingStatus.AVAILABLE) {
+                        return false;
+                    }
+                    seat.setBookingStatus(BookingStatus.RESERVED);
+                    seatRepository.saveAndFlush(seat);
+                    return true;
+                });
+            } catch (RuntimeException lostOptimisticRace) {
+                return false;
+            }
+        });
+
+        assertEveryVersionedSeatWonOnce(seatIds, winners);
+    }
+
+    @Test
+    void claimRejectsSeatOfAnotherFlight() {
+        Flight flight = createFlight("CAS-2");
+        Flight other = createFlight("CAS-3");
+        Long seatId = seatIdsOf(other).get(0);
+
+        Integer updated = tx.execute(status -> seatRepository.claimSeat(flight.getFlightId(), seatId));
+
+        assertThat(updated).isZero();
+        assertThat(seatRepository.findById(seatId).orElseThrow().getBookingStatus())
+                .isEqualTo(BookingStatus.AVAILABLE);
+    }
+
+    private interface Claim {
+        boolean attempt(Long seatId);
+    }
+
+    private Map<Long, AtomicInteger> race(List<Long> seatIds, Claim claim) throws InterruptedException {
+        Map<Long, AtomicInteger> winners = new ConcurrentHashMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(BOOKERS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int b = 0; b < BOOKERS; b++) {
+            List<Long> order = new ArrayList<>(seatIds);
+            Collections.shuffle(order);
+            pool.submit(() -> {
+                start.await();
+                for (Long seatId : order) {
+                    if (claim.attempt(seatId)) {
+                        winners.computeIfAbsent(seatId, id -> new AtomicInteger()).incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        return winners;
+    }
+
+    private void assertEveryVersionedSeatWonOnce(List<Long> seatIds, Map<Long, AtomicInteger> winners) {
+        assertThat(winners.values().stream().mapToInt(AtomicInteger::get).sum()).isEqualTo(SEATS);
+        for (Long seatId : seatIds) {
+            assertThat(winners.get(seatId)).as("winners of seat %d", seatId).hasValue(1);
+            Seat seat = seatRepository.findById(seatId).orElseThrow();
+            assertThat(seat.getBookingStatus()).isEqualTo(BookingStatus.RESERVED);
+            assertThat(seat.getVersion()).isEqualTo(1L);
+        }
+    }
+
+    private Flight createFlight(String flightNumber) {
+        return tx.execute(status -> {
+            Flight flight = new Flight();
+            flight.setFlightNumber(flightNumber);
+            flight.setOrigin("Nairobi");
+            flight.setDestination("Mombasa");
+            flight.setDepartureTime(LocalDateTime.now().plusDays(1));
+            flight.setArrivalTime(LocalDateTime.now().plusDays(1).plusHours(1));
+            flight.setSeatCapacity(SEATS);
+            flight.setDistance(480.0);
+            flight.setStatus(FlightStatus.SCHEDULED);
+            flight = flightRepository.save(flight);
+
+            List<Seat> seats = new ArrayList<>();
+            for (int i = 0; i < SEATS; i++) {
+                Seat seat = new Seat();
+                seat.setSeatNumber("S" + i);
+                seat.setCabinClass(CabinClass.ECONOMY);
+                seat.setFlight(flight);
+                seats.add(seat);
+            }
+            seatRepository.saveAll(seats);
+            return flight;
+        });
+    }
+
+    private List<Long> seatIdsOf(Flight flight) {
+        return seatRepository.findByFlight_FlightId(flight.getFlightId()).stream()
+                .map(Seat::getSeatId)
+                .toList();
+    }
+}
@@ -0,0 +1,99 @@
+package com.AirlineBooking.AirlineBookig.security;
+
+import com.AirlineBooking.AirlineBookig.model.Role;
+import com.AirlineBooking.AirlineBookig.model.User;
+import com.AirlineBooking.AirlineBookig.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The filter authenticates from the token's claims and only checks the
+ * account against a short-lived cache, so repeated requests run no queries.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true" })
+@Import({ JwtUtil.class, JwtAuthenticationFilter.class, CustomUserDetailsService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    private JwtAuthenticationFilter filter;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticatesFromClaimsWithoutPerRequestQueries() throws Exception {
+        User user = userRepository.save(user("claims.holder@example.com", Role.CUSTOMER));
+        String token = jwtUtil.generateToken(user);
+
+        Authentication first = authenticate(token);
+        assertThat(first.getPrincipal())
+                .isEqualTo(new AuthenticatedUser(user.getUserId(), user.getEmail(), Role.CUSTOMER));
+        assertThat(first.getName()).isEqualTo(user.getEmail());
+        assertThat(first.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_CUSTOMER");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        for (int i = 0; i < 5; i++) {
+            assertThat(authenticate(token).getPrincipal()).isEqualTo(first.getPrincipal());
+        }
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void rejectsClaimsThatNoLongerMatchTheAccount() throws Exception {
+        User user = userRepository.save(user("role.changed@example.com", Role.CUSTOMER));
+        User asAdmin = user("role.changed@example.com", Role.ADMIN);
+        asAdmin.setUserId(user.getUserId());
+
+        assertThat(authenticate(jwtUtil.generateToken(asAdmin))).isNull();
+        assertThat(authenticate(jwtUtil.generateToken(user))).isNotNull();
+        assertThat(authenticate(jwtUtil.generateToken(user) + "x")).isNull();
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reservations/my-reservations");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static User user(String email, Role role) {
+        User user = new User();
+        user.setName("Claims Holder");
+        user.setEmail(email);
+        user.setPassword("secret123");
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,76 @@
+package com.AirlineBooking.AirlineBookig.security;
+
+import com.AirlineBooking.AirlineBookig.model.Role;
+import com.AirlineBooking.AirlineBookig.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * Cost of verifying the token of one request: a key and a parser built for
+ * each of the three parses, a single parse, and a remembered token.
+ * Reports microseconds per request only; run with {@code mvn test -Pbenchmark}.
+ */
+class JwtBenchmark {
+
+    private static final String SECRET = "YourVeryLongSecretKeyThatIsAtLeast256BitsLongForHS256Algorithm";
+    private static final long EXPIRATION = 60_000;
+    private static final int REQUESTS = 20_000;
+
+    @Test
+    void filterPathCost() {
+        String token = new JwtUtil(SECRET, EXPIRATION, 0, 0, System::currentTimeMillis)
+                .generateToken(user());
+
+        long perRequestParsers = time(() -> {
+            String email = claims(token).getSubject();
+            if (!claims(token).getSubject().equals(email) || !claims(token).getExpiration().after(new Date())) {
+                throw new IllegalStateException("Token did not verify");
+            }
+        });
+        JwtUtil uncached = new JwtUtil(SECRET, EXPIRATION, 0, 0, System::currentTimeMillis);
+        long singleParse = time(() -> uncached.extractUser(token));
+        JwtUtil cached = new JwtUtil(SECRET, EXPIRATION, 100, 300_000, System::currentTimeMillis);
+        long cacheHit = time(() -> cached.extractUser(token));
+
+        System.out.printf("token verification per request: %.1f us with per-request parsers, "
+                + "%.1f us parsed once, %.1f us remembered%n",
+                perRequestParsers / 1e3 / REQUESTS, singleParse / 1e3 / REQUESTS, cacheHit / 1e3 / REQUESTS);
+    }
+
+    private static Claims claims(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    /**
+     * Runs the request REQUESTS times to warm up, then times REQUESTS more; returns the elapsed nanoseconds
+     */
+    private static long time(Runnable request) {
+        for (int i = 0; i < REQUESTS; i++) {
+            request.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            request.run();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setUserId(7L);
+        user.setName("Token Holder");
+        user.setEmail("bench@example.com");
+        user.setPassword("secret123");
+        user.setRole(Role.CUSTOMER);
+        return user;
+    }
+}
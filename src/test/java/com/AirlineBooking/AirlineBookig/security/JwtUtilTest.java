@@ -0,0 +1,66 @@
+package com.AirlineBooking.AirlineBookig.security;
+
+import com.AirlineBooking.AirlineBookig.model.Role;
+import com.AirlineBooking.AirlineBookig.model.User;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Token verification: parsed once, remembered, and still rejected once
+ * expired or tampered with.
+ */
+class JwtUtilTest {
+
+    private static final String SECRET = "YourVeryLongSecretKeyThatIsAtLeast256BitsLongForHS256Algorithm";
+    private static final long EXPIRATION = 60_000;
+
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+
+    @Test
+    void verifiedTokensAreRememberedUntilTheyExpire() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, EXPIRATION, 100, 300_000, now::get);
+        User user = user(7L, "cached.token@example.com", Role.ADMIN);
+        String token = jwtUtil.generateToken(user);
+
+        assertThat(jwtUtil.extractUser(token)).isEqualTo(AuthenticatedUser.of(user));
+        assertThat(jwtUtil.extractUsername(token)).isEqualTo(user.getEmail());
+        assertThat(jwtUtil.extractExpiration(token)).isEqualTo(new Date(now.get() / 1000 * 1000 + EXPIRATION));
+        assertThat(jwtUtil.getTokenCacheStats().misses()).isEqualTo(1);
+        assertThat(jwtUtil.getTokenCacheStats().hits()).isEqualTo(2);
+
+        now.addAndGet(EXPIRATION);
+        assertThatThrownBy(() -> jwtUtil.extractUser(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void rejectsTamperedAndForeignTokens() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, EXPIRATION, 100, 300_000, now::get);
+        String token = jwtUtil.generateToken(user(7L, "tampered@example.com", Role.CUSTOMER));
+        jwtUtil.extractUser(token);
+
+        String[] parts = token.split("\\.");
+        String asAdmin = token.replace(parts[1], jwtUtil.generateToken(user(7L, "tampered@example.com", Role.ADMIN))
+                .split("\\.")[1]);
+        assertThatThrownBy(() -> jwtUtil.extractUser(asAdmin)).isInstanceOf(JwtException.class);
+
+        JwtUtil other = new JwtUtil(SECRET.replace('Y', 'Z'), EXPIRATION, 100, 300_000, now::get);
+        assertThatThrownBy(() -> other.extractUser(token)).isInstanceOf(JwtException.class);
+    }
+
+    private static User user(Long id, String email, Role role) {
+        User user = new User();
+        user.setUserId(id);
+        user.setName("Token Holder");
+        user.setEmail(email);
+        user.setPassword("secret123");
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,163 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.CabinClass;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.model.BookingStatus;
+import com.AirlineBooking.AirlineBookig.model.Reservation;
+import com.AirlineBooking.AirlineBookig.model.Seat;
+import com.AirlineBooking.AirlineBookig.model.User;
+import com.AirlineBooking.AirlineBookig.repository.FlightRepository;
+import com.AirlineBooking.AirlineBookig.repository.SeatRepository;
+import com.AirlineBooking.AirlineBookig.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(showSql = false,
+        properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({ ReservationService.class, SeatService.class, SeatInventory.class, FlightService.class,
+        FlightSearchIndex.class, CatalogCache.class, FlightVersions.class, FlightLockManager.class,
+        SeatHoldService.class, SeatAllocator.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AvailabilityCountersTest {
+
+    private static final AtomicInteger FLIGHT_NUMBERS = new AtomicInteger();
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Counter Checker");
+        user.setEmail("counters" + FLIGHT_NUMBERS.incrementAndGet() + "@example.com");
+        user.setPassword("secret123");
+        user = userRepository.save(user);
+    }
+
+    @Test
+    void countersFollowReservationsAndCancellations() {
+        Flight flight = createFlight();
+        assertCounters(flight.getFlightId(), 30, 18, 12);
+
+        Reservation first = reservationService.createReservation(user, flight.getFlightId(),
+                seatIds(flight, CabinClass.FIRST, 1).get(0));
+        reservationService.createGroupReservation(user.getUserId(), flight.getFlightId(),
+                seatIds(flight, CabinClass.ECONOMY, 3));
+        assertCounters(flight.getFlightId(), 27, 18, 11);
+
+        reservationService.cancelReservation(first.getReservationId(), user.getUserId());
+        assertCounters(flight.getFlightId(), 27, 18, 12);
+
+        // Saving the flight entity must not write back the counters it loaded
+        flightService.updateFlight(flight.getFlightId(), "Nairobi JKIA", null, null, null);
+        assertCounters(flight.getFlightId(), 27, 18, 12);
+        assertThat(flightService.getAvailableSeatCount(flight.getFlightId())).isEqualTo(57);
+    }
+
+    @Test
+    void reconciliationCorrectsDriftedCounters() {
+        Flight flight = createFlight();
+        reservationService.createReservation(user, flight.getFlightId(),
+                seatIds(flight, CabinClass.BUSINESS, 1).get(0));
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> flightRepository.setAvailableSeats(flight.getFlightId(), 0, 99, 0));
+
+        assertThat(seatService.findAvailabilityDrift()).contains(flight.getFlightId());
+        assertThat(seatService.reconcileAvailableSeats(flight.getFlightId())).isTrue();
+        assertCounters(flight.getFlightId(), 30, 17, 12);
+        assertThat(seatService.reconcileAvailableSeats(flight.getFlightId())).isFalse();
+        assertThat(seatService.findAvailabilityDrift()).doesNotContain(flight.getFlightId());
+    }
+
+    @Test
+    void rolledBackOccupancyLeavesTheSeatAvailable() {
+        Flight flight = createFlight();
+        Long seatId = seatIds(flight, CabinClass.ECONOMY, 1).get(0);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            seatService.occupySeat(seatId);
+            status.setRollbackOnly();
+        });
+        assertThat(seatService.isSeatAvailable(flight.getFlightId(), seatId)).isTrue();
+        assertThat(seatService.countAvailableSeats(flight.getFlightId(), CabinClass.ECONOMY)).isEqualTo(30);
+
+        seatService.occupySeat(seatId);
+        assertThat(seatService.isSeatAvailable(flight.getFlightId(), seatId)).isFalse();
+        assertCounters(flight.getFlightId(), 29, 18, 12);
+    }
+
+    @Test
+    void seatReleasedThroughAnotherNodeCanBeBookedAgain() {
+        Flight flight = createFlight();
+        Long seatId = seatIds(flight, CabinClass.ECONOMY, 1).get(0);
+        seatService.occupySeat(seatId);
+        assertThat(seatService.isSeatAvailable(flight.getFlightId(), seatId)).isFalse();
+
+        // Released on another node: the seats table changes, this node's inventory does not
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            seatRepository.findById(seatId).orElseThrow().setBookingStatus(BookingStatus.AVAILABLE);
+            flightRepository.adjustAvailableSeats(flight.getFlightId(), 1, 0, 0);
+        });
+
+        assertThat(seatService.isSeatAvailable(flight.getFlightId(), seatId)).isTrue();
+        reservationService.createReservation(user, flight.getFlightId(), seatId);
+        assertThat(seatService.isSeatAvailable(flight.getFlightId(), seatId)).isFalse();
+        assertCounters(flight.getFlightId(), 29, 18, 12);
+    }
+
+    private void assertCounters(Long flightId, int economy, int business, int first) {
+        Flight flight = flightRepository.findById(flightId).orElseThrow();
+        assertThat(flight.getAvailableEconomySeats()).isEqualTo(economy);
+        assertThat(flight.getAvailableBusinessSeats()).isEqualTo(business);
+        assertThat(flight.getAvailableFirstSeats()).isEqualTo(first);
+        assertThat(flight.getAvailableSeats()).isEqualTo((long) economy + business + first);
+    }
+
+    private Flight createFlight() {
+        LocalDateTime departure = LocalDateTime.now().plusDays(2);
+        return flightService.createFlight("CNT-" + FLIGHT_NUMBERS.incrementAndGet(), "Nairobi", "Mombasa",
+                departure, departure.plusHours(1), 60, 480.0, AircraftLayout.DEFAULT);
+    }
+
+    private List<Long> seatIds(Flight flight, CabinClass cabinClass, int count) {
+        return seatService.getSeatsByFlight(flight.getFlightId()).stream()
+                .filter(seat -> seat.getCabinClass() == cabinClass)
+                .map(Seat::getSeatId)
+                .limit(count)
+                .toList();
+    }
+}
@@ -0,0 +1,150 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.dto.request.FlightSearchRequest;
+import com.AirlineBooking.AirlineBookig.dto.view.FlightView;
+import com.AirlineBooking.AirlineBookig.dto.view.SeatView;
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.BookingStatus;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.model.Seat;
+import com.AirlineBooking.AirlineBookig.model.User;
+import com.AirlineBooking.AirlineBookig.repository.UserRepository;
+import com.AirlineBooking.AirlineBookig.util.BoundedCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Catalog reads are served from the cache until a committed change touches them.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "booking.cache.ttl-ms=600000" })
+@Import({ ReservationService.class, SeatService.class, SeatInventory.class, FlightService.class,
+        FlightSearchIndex.class, CatalogCache.class, FlightVersions.class, FlightLockManager.class,
+        SeatHoldService.class, SeatAllocator.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogCacheTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.now().plusDays(20).withNano(0);
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void seatMapsAreReloadedOnlyForTheFlightThatChanged() {
+        Flight booked = create("CC-SEAT1", "Meru", "Isiolo", 12);
+        Flight other = create("CC-SEAT2", "Meru", "Isiolo", 12);
+        User user = user("cache.seats@example.com");
+        seatService.getSeatViews(booked.getFlightId());
+        seatService.getSeatViews(other.getFlightId());
+
+        assertThat(statements(() -> seatService.getSeatViews(booked.getFlightId()))).isZero();
+        assertThat(statements(() -> seatService.getSeatViews(other.getFlightId()))).isZero();
+
+        Long seatId = seatService.getSeatsByFlight(booked.getFlightId()).get(0).getSeatId();
+        reservationService.createReservation(user, booked.getFlightId(), seatId);
+
+        assertThat(statements(() -> assertThat(seatService.getSeatViews(booked.getFlightId()))
+                .filteredOn(seat -> seat.seatId().equals(seatId))
+                .extracting(SeatView::bookingStatus)
+                .containsExactly(BookingStatus.RESERVED))).isEqualTo(1);
+        assertThat(statements(() -> seatService.getSeatViews(other.getFlightId()))).isZero();
+    }
+
+    @Test
+    void searchesFollowSeatChangesPrecisely() {
+        Flight flight = create("CC-FULL", "Embu", "Kitui", 2);
+        create("CC-ELSEWHERE", "Nyeri", "Machakos", 12);
+        User user = user("cache.search@example.com");
+        List<Long> seatIds = seatService.getSeatsByFlight(flight.getFlightId()).stream().map(Seat::getSeatId).toList();
+        search("Embu", "Kitui");
+        search("Nyeri", "Machakos");
+        assertThat(statements(() -> search("Embu", "Kitui"))).isZero();
+
+        reservationService.createReservation(user, flight.getFlightId(), seatIds.get(0));
+        Long last = reservationService.createReservation(user, flight.getFlightId(), seatIds.get(1))
+                .getReservationId();
+        assertThat(search("Embu", "Kitui")).isEmpty();
+        assertThat(statements(() -> search("Embu", "Kitui"))).isZero();
+
+        // Sold out, so not in the cached result; getting a seat back must still reach it
+        reservationService.cancelReservation(last, user.getUserId());
+        assertThat(search("Embu", "Kitui")).containsExactly("CC-FULL");
+        assertThat(statements(() -> search("Nyeri", "Machakos"))).isZero();
+    }
+
+    @Test
+    void flightChangesDropTheFlightLists() {
+        create("CC-LIST1", "Bungoma", "Busia", 12);
+        flightService.getScheduledFlights();
+        assertThat(statements(() -> flightService.getScheduledFlights())).isZero();
+
+        Flight added = create("CC-LIST2", "Bungoma", "Busia", 12);
+        assertThat(flightService.getScheduledFlights()).extracting(FlightView::flightNumber).contains("CC-LIST2");
+
+        flightService.cancelFlight(added.getFlightId());
+        assertThat(flightService.getScheduledFlights()).extracting(FlightView::flightNumber)
+                .doesNotContain("CC-LIST2");
+        assertThat(catalogCache.getStats()).extracting(BoundedCache.Stats::hits).anyMatch(hits -> hits > 0);
+    }
+
+    private long statements(Runnable read) {
+        statistics.clear();
+        read.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<String> search(String origin, String destination) {
+        return flightService.searchFlights(new FlightSearchRequest(origin, destination)).stream()
+                .map(FlightView::flightNumber).toList();
+    }
+
+    private Flight create(String flightNumber, String origin, String destination, int seats) {
+        return flightService.createFlight(flightNumber, origin, destination, DEPARTURE, DEPARTURE.plusHours(1),
+                seats, 400.0, AircraftLayout.REGIONAL_4);
+    }
+
+    private User user(String email) {
+        User user = new User();
+        user.setName("Cache Checker");
+        user.setEmail(email);
+        user.setPassword("secret123");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,52 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.dto.response.LockStripeStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightLockManagerTest {
+
+    @Test
+    void locksSeveralFlightsInStripeOrder() throws Exception {
+        FlightLockManager locks = new FlightLockManager(4, 5000);
+
+        // Flights 2 and 5 live on stripes 2 and 1: stripe 1 must be taken first
+        locks.lock(1L);
+        CompletableFuture<Void> booking = CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                locks.lockForTransaction(List.of(2L, 5L));
+                TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        });
+        while (queueDepth(locks, 1) == 0) {
+            Thread.sleep(5);
+        }
+
+        // Waiting for stripe 1 without holding stripe 2, so stripe 2 is free
+        locks.lock(6L);
+        locks.unlock(6L);
+        locks.unlock(1L);
+        booking.get(5, TimeUnit.SECONDS);
+
+        assertThat(locks.getStats()).extracting(LockStripeStats::getQueueDepth).containsOnly(0);
+    }
+
+    private static int queueDepth(FlightLockManager locks, int stripe) {
+        return locks.getStats().stream()
+                .filter(stats -> stats.getStripe() == stripe)
+                .mapToInt(LockStripeStats::getQueueDepth)
+                .findFirst()
+                .orElse(0);
+    }
+}
@@ -0,0 +1,224 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.dto.request.FlightSearchRequest;
+import com.AirlineBooking.AirlineBookig.dto.view.FlightView;
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.CabinClass;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.model.Seat;
+import com.AirlineBooking.AirlineBookig.model.User;
+import com.AirlineBooking.AirlineBookig.repository.UserRepository;
+import com.AirlineBooking.AirlineBookig.util.FareCalendar;
+import com.AirlineBooking.AirlineBookig.util.PlaceSuggester.Suggestion;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The route search index, connections, fare calendar and place suggestions follow flight and seat changes once they commit.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true" })
+@Import({ ReservationService.class, SeatService.class, SeatInventory.class, FlightService.class,
+        FlightSearchIndex.class, CatalogCache.class, FlightVersions.class, FlightLockManager.class,
+        SeatHoldService.class, SeatAllocator.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FlightSearchIndexTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.now().plusDays(12).withNano(0);
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void searchFollowsFlightChanges() {
+        Flight late = create("IDX-2", "Eldoret", "Lodwar", DEPARTURE.plusHours(5), 12);
+        Flight early = create("IDX-1", "Eldoret", "Lodwar", DEPARTURE, 12);
+        Flight other = create("IDX-3", "Eldoret", "Lokichogio", DEPARTURE.plusHours(1), 12);
+
+        assertThat(search("eldoret", "LODWAR")).containsExactly("IDX-1", "IDX-2");
+        assertThat(search("Eldo", "Lo")).containsExactly("IDX-1", "IDX-3", "IDX-2");
+
+        flightService.updateFlight(early.getFlightId(), null, "Lokichogio", DEPARTURE.plusHours(2),
+                DEPARTURE.plusHours(3));
+        assertThat(search("Eldoret", "Lodwar")).containsExactly("IDX-2");
+        assertThat(search("Eldoret", "Lokichogio")).containsExactly("IDX-3", "IDX-1");
+
+        flightService.cancelFlight(other.getFlightId());
+        flightService.deleteFlight(late.getFlightId());
+        assertThat(search("Eldoret", null)).containsExactly("IDX-1");
+    }
+
+    @Test
+    void soldOutFlightsDropOutAndComeBack() {
+        Flight flight = create("IDX-FULL", "Garissa", "Wajir", DEPARTURE, 2);
+        User newUser = new User();
+        newUser.setName("Index Checker");
+        newUser.setEmail("index.checker@example.com");
+        newUser.setPassword("secret123");
+        User user = userRepository.save(newUser);
+
+        List<Long> seatIds = seatService.getSeatsByFlight(flight.getFlightId()).stream()
+                .map(Seat::getSeatId).toList();
+        reservationService.createReservation(user, flight.getFlightId(), seatIds.get(0));
+        assertThat(search("Garissa", "Wajir")).containsExactly("IDX-FULL");
+
+        Long last = reservationService.createReservation(user, flight.getFlightId(), seatIds.get(1))
+                .getReservationId();
+        assertThat(search("Garissa", "Wajir")).isEmpty();
+
+        reservationService.cancelReservation(last, user.getUserId());
+        assertThat(search("Garissa", "Wajir")).containsExactly("IDX-FULL");
+    }
+
+    @Test
+    void filtersByDateCabinAndPriceAndReturnsTheTopResults() {
+        // Fares per unit of distance: regional economy 100, business 120; narrowbody 100 / 125 / 150
+        LocalDateTime morning = DEPARTURE.toLocalDate().atTime(8, 0);
+        flightService.createFlight("IDX-F1", "Naivasha", "Nanyuki", morning, morning.plusHours(2),
+                12, 300.0, AircraftLayout.REGIONAL_4);
+        flightService.createFlight("IDX-F2", "Naivasha", "Nanyuki", morning.plusHours(4), morning.plusHours(5),
+                12, 200.0, AircraftLayout.REGIONAL_4);
+        flightService.createFlight("IDX-F3", "Naivasha", "Nanyuki", morning.plusDays(1),
+                morning.plusDays(1).plusHours(1), 60, 250.0, AircraftLayout.NARROWBODY_6);
+
+        FlightSearchRequest request = new FlightSearchRequest("Naivasha", "Nanyuki");
+        request.setSort("price");
+        assertThat(search(request)).containsExactly("IDX-F2", "IDX-F3", "IDX-F1");
+
+        request.setDepartFrom(morning.toLocalDate());
+        request.setDepartTo(morning.toLocalDate());
+        request.setLimit(1);
+        assertThat(search(request)).containsExactly("IDX-F2");
+
+        request.setDepartTo(null);
+        request.setLimit(null);
+        request.setCabinClass(CabinClass.FIRST);
+        assertThat(search(request)).containsExactly("IDX-F3");
+
+        request.setCabinClass(CabinClass.BUSINESS);
+        request.setMaxPrice(36_000.0);
+        request.setSort("duration");
+        assertThat(search(request)).containsExactly("IDX-F2", "IDX-F3", "IDX-F1");
+        request.setMaxPrice(35_999.0);
+        assertThat(search(request)).containsExactly("IDX-F2", "IDX-F3");
+
+        request.setSort("cheapest");
+        assertThatThrownBy(() -> search(request)).hasMessageContaining("Invalid sort");
+    }
+
+    @Test
+    void placeSuggestionsFollowFlightsWithoutQueries() {
+        Flight flight = create("IDX-PLACE", "Ukunda", "Voi", DEPARTURE, 12);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(flightService.suggestPlaces("uku", null)).extracting(Suggestion::name).containsExactly("Ukunda");
+        assertThat(flightService.suggestPlaces("ukinda", null)).extracting(Suggestion::name).containsExactly("Ukunda");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        flightService.updateFlight(flight.getFlightId(), "Ukunda Diani", null, null, null);
+        assertThat(flightService.suggestPlaces("dia", null)).extracting(Suggestion::name)
+                .containsExactly("Ukunda Diani");
+        assertThat(flightService.suggestPlaces("ukunda", null)).extracting(Suggestion::name)
+                .containsExactly("Ukunda Diani");
+    }
+
+    @Test
+    void connectionsFollowFlightChanges() {
+        LocalDateTime morning = DEPARTURE.toLocalDate().atTime(7, 0);
+        Flight first = create("IDX-C1", "Homa Bay", "Kericho", morning, 12);
+        create("IDX-C2", "Kericho", "Kitale", morning.plusHours(2), 12);
+        Flight direct = create("IDX-C3", "Homa Bay", "Kitale", morning.plusHours(6), 12);
+
+        assertThat(connections("homa bay", "KITALE", null)).containsExactly(
+                List.of("IDX-C1", "IDX-C2"), List.of("IDX-C3"));
+        assertThat(connections("Homa Bay", "Kitale", 0)).containsExactly(List.of("IDX-C3"));
+
+        flightService.cancelFlight(direct.getFlightId());
+        flightService.updateFlight(first.getFlightId(), null, null, morning.plusMinutes(30),
+                morning.plusHours(1).plusMinutes(30));
+        // Lands 30 minutes before the connection leaves: too short
+        assertThat(connections("Homa Bay", "Kitale", null)).isEmpty();
+
+        assertThatThrownBy(() -> flightService.searchConnections("Homa Bay", "Kitale", null, null, null))
+                .hasMessageContaining("date");
+    }
+
+    @Test
+    void fareCalendarFollowsReservationsWithoutQueries() {
+        LocalDateTime morning = DEPARTURE.toLocalDate().atTime(9, 0);
+        // Regional layout, 20 seats: 12 business at 120 and 8 economy at 100 per unit of distance
+        Flight cheap = flightService.createFlight("IDX-CAL1", "Kilifi", "Watamu", morning, morning.plusHours(1),
+                20, 100.0, AircraftLayout.REGIONAL_4);
+        flightService.createFlight("IDX-CAL2", "Kilifi", "Watamu", morning.plusDays(1),
+                morning.plusDays(1).plusHours(1), 20, 150.0, AircraftLayout.REGIONAL_4);
+        User newUser = new User();
+        newUser.setName("Calendar Checker");
+        newUser.setEmail("calendar.checker@example.com");
+        newUser.setPassword("secret123");
+        User user = userRepository.save(newUser);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<FareCalendar.Day> days = flightService.getFareCalendar("kilifi", "Watamu", morning.toLocalDate(), 1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(days).extracting(FareCalendar.Day::economyFare).containsExactly(null, 10_000.0, 15_000.0);
+        assertThat(days).extracting(FareCalendar.Day::businessFare).containsExactly(null, 12_000.0, 18_000.0);
+
+        List<Long> economy = seatService.getSeatsByFlight(cheap.getFlightId()).stream()
+                .filter(seat -> seat.getCabinClass() == CabinClass.ECONOMY)
+                .map(Seat::getSeatId).toList();
+        for (Long seatId : economy) {
+            reservationService.createReservation(user, cheap.getFlightId(), seatId);
+        }
+        assertThat(flightService.getFareCalendar("Kilifi", "Watamu", morning.toLocalDate(), 0))
+                .containsExactly(new FareCalendar.Day(morning.toLocalDate(), 12_000.0, null, 12_000.0, null, 1));
+    }
+
+    private List<List<String>> connections(String origin, String destination, Integer maxStops) {
+        return flightService.searchConnections(origin, destination, DEPARTURE.toLocalDate(), maxStops, null)
+                .stream()
+                .map(itinerary -> itinerary.flights().stream().map(FlightView::flightNumber).toList())
+                .toList();
+    }
+
+    private Flight create(String flightNumber, String origin, String destination, LocalDateTime departure,
+            int seats) {
+        return flightService.createFlight(flightNumber, origin, destination, departure, departure.plusHours(1),
+                seats, 400.0, AircraftLayout.REGIONAL_4);
+    }
+
+    private List<String> search(String origin, String destination) {
+        return search(new FlightSearchRequest(origin, destination));
+    }
+
+    private List<String> search(FlightSearchRequest request) {
+        return flightService.searchFlights(request).stream().map(FlightView::flightNumber).toList();
+    }
+}
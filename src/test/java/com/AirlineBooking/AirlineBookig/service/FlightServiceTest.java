@@ -0,0 +1,75 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.BookingStatus;
+import com.AirlineBooking.AirlineBookig.model.CabinClass;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.model.Seat;
+import com.AirlineBooking.AirlineBookig.repository.SeatRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(showSql = false,
+        properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({ FlightService.class, FlightSearchIndex.class, CatalogCache.class, FlightVersions.class, SeatInventory.class })
+class FlightServiceTest {
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Test
+    void materializesSeatsFromTheLayoutTemplate() {
+        LocalDateTime departure = LocalDateTime.now().plusDays(3);
+        Flight flight = flightService.createFlight("WB-300", "Nairobi", "London",
+                departure, departure.plusHours(9), 300, 6800.0, AircraftLayout.WIDEBODY_9);
+
+        List<Seat> seats = seatRepository.findByFlight_FlightId(flight.getFlightId());
+        Map<String, Seat> byNumber = seats.stream().collect(Collectors.toMap(Seat::getSeatNumber, Function.identity()));
+
+        assertThat(seats).hasSize(300)
+                .allSatisfy(s -> assertThat(s.getBookingStatus()).isEqualTo(BookingStatus.AVAILABLE));
+        assertThat(byNumber).containsKeys("A1", "K1", "C34");
+        assertThat(byNumber.get("K3").getCabinClass()).isEqualTo(CabinClass.FIRST);
+        assertThat(byNumber.get("A4").getCabinClass()).isEqualTo(CabinClass.BUSINESS);
+        assertThat(byNumber.get("A12").getCabinClass()).isEqualTo(CabinClass.ECONOMY);
+        assertThat(byNumber.get("A12").getPrice()).isEqualTo(680_000.0);
+        assertThat(flightService.getAvailableSeatCount(flight.getFlightId())).isEqualTo(300);
+    }
+
+    @Test
+    void defaultLayoutGrowsRowsForLargeFlightsWithoutALayout() {
+        LocalDateTime departure = LocalDateTime.now().plusDays(3);
+        Flight flight = flightService.createFlight("NB-300", "Nairobi", "Dubai",
+                departure, departure.plusHours(5), 300, 3500.0, null);
+
+        List<Seat> seats = seatRepository.findByFlight_FlightId(flight.getFlightId());
+        assertThat(flight.getAircraftLayout()).isEqualTo(AircraftLayout.DEFAULT);
+        assertThat(seats).hasSize(300)
+                .extracting(Seat::getSeatNumber)
+                .contains("A1", "F40", "A41", "F50");
+        assertThat(flightService.getAvailableSeatCount(flight.getFlightId())).isEqualTo(300);
+    }
+
+    @Test
+    void rejectsCapacityLargerThanTheLayout() {
+        LocalDateTime departure = LocalDateTime.now().plusDays(3);
+
+        assertThatThrownBy(() -> flightService.createFlight("RJ-99", "Nairobi", "Kisumu",
+                departure, departure.plusHours(1), 81, 300.0, AircraftLayout.REGIONAL_4))
+                .hasMessage("Seat capacity exceeds the REGIONAL_4 layout (80 seats)");
+    }
+}
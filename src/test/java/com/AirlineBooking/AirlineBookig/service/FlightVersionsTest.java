@@ -0,0 +1,65 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.event.FlightChangedEvent;
+import com.AirlineBooking.AirlineBookig.event.SeatsChangedEvent;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightVersionsTest {
+
+    @Test
+    void etagsStayTheSameUntilTheFlightChanges() {
+        AtomicLong now = new AtomicLong(50_000);
+        FlightVersions versions = new FlightVersions(5000, now::get);
+        String etag = versions.etag(versions.version(7L));
+
+        now.addAndGet(60_000);
+        assertThat(versions.etag(versions.version(7L))).isEqualTo(etag);
+        assertThat(versions.etag(versions.version(7L), "-compact")).isNotEqualTo(etag);
+
+        versions.onSeatsChanged(SeatsChangedEvent.of(7L, 70L));
+        assertThat(versions.etag(versions.version(7L))).isNotEqualTo(etag);
+    }
+
+    @Test
+    void changesMadeOnAnotherNodeShowUpAsADifferentFingerprint() {
+        AtomicLong now = new AtomicLong(50_000);
+        FlightVersions versions = new FlightVersions(5000, now::get);
+        assertThat(versions.isCurrent(7L, "seats")).isFalse();
+
+        assertThat(versions.observe(7L, "seats", List.of("1A", "1B"), 0)).isZero();
+        now.addAndGet(4999);
+        assertThat(versions.isCurrent(7L, "seats")).isTrue();
+        assertThat(versions.isCurrent(7L, "flight")).isFalse();
+
+        now.addAndGet(1);
+        assertThat(versions.isCurrent(7L, "seats")).isFalse();
+        assertThat(versions.observe(7L, "seats", List.of("1A", "1B"), 0)).isZero();
+        assertThat(versions.observe(7L, "seats", List.of("1A"), 0)).isEqualTo(1);
+        assertThat(versions.version(7L)).isEqualTo(1);
+        assertThat(versions.isCurrent(7L, "seats")).isTrue();
+    }
+
+    @Test
+    void deletedAndMissingFlightsAreTombstones() {
+        AtomicLong now = new AtomicLong(50_000);
+        FlightVersions versions = new FlightVersions(5000, now::get);
+        Flight flight = new Flight();
+        flight.setFlightId(7L);
+
+        versions.onFlightChanged(FlightChangedEvent.deleted(flight));
+        versions.markMissing(8L);
+        assertThat(versions.isMissing(7L)).isTrue();
+        assertThat(versions.isCurrent(8L, "flight")).isTrue();
+
+        // A failed load may not mean the flight is gone: only trusted for a TTL
+        now.addAndGet(5000);
+        assertThat(versions.isMissing(7L)).isTrue();
+        assertThat(versions.isMissing(8L)).isFalse();
+    }
+}
@@ -0,0 +1,128 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.BookingStatus;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.model.Reservation;
+import com.AirlineBooking.AirlineBookig.model.ReservationStatus;
+import com.AirlineBooking.AirlineBookig.model.Seat;
+import com.AirlineBooking.AirlineBookig.model.User;
+import com.AirlineBooking.AirlineBookig.repository.SeatHoldRepository;
+import com.AirlineBooking.AirlineBookig.repository.SeatRepository;
+import com.AirlineBooking.AirlineBookig.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Group booking against an embedded database.
+ */
+@DataJpaTest(showSql = false,
+        properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({ ReservationService.class, SeatService.class, SeatInventory.class, FlightService.class,
+        FlightSearchIndex.class, CatalogCache.class, FlightVersions.class, FlightLockManager.class,
+        SeatHoldService.class, SeatAllocator.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GroupReservationTest {
+
+    private static final AtomicInteger FLIGHT_NUMBERS = new AtomicInteger();
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private SeatHoldRepository seatHoldRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Group Booker");
+        user.setEmail("group" + FLIGHT_NUMBERS.incrementAndGet() + "@example.com");
+        user.setPassword("secret123");
+        user = userRepository.save(user);
+    }
+
+    @Test
+    void booksAllSeatsInOneCall() {
+        Flight flight = createFlight(60);
+        List<Long> seatIds = seatIds(flight, 6);
+
+        List<Reservation> reservations = reservationService.createGroupReservation(
+                user.getUserId(), flight.getFlightId(), seatIds);
+
+        assertThat(reservations).hasSize(6)
+                .allSatisfy(r -> assertThat(r.getStatus()).isEqualTo(ReservationStatus.CONFIRMED));
+        assertThat(reservations).extracting(r -> r.getSeat().getSeatId())
+                .containsExactlyInAnyOrderElementsOf(seatIds);
+        assertThat(seatRepository.findAllById(seatIds))
+                .allSatisfy(s -> assertThat(s.getBookingStatus()).isEqualTo(BookingStatus.RESERVED));
+        assertThat(seatHoldRepository.findByReservationIdIn(
+                reservations.stream().map(Reservation::getReservationId).toList())).hasSize(6);
+        assertThat(seatService.countAvailableSeats(flight.getFlightId())).isEqualTo(54);
+    }
+
+    @Test
+    void isAllOrNothingWhenOneSeatIsTaken() {
+        Flight flight = createFlight(60);
+        List<Long> seatIds = seatIds(flight, 3);
+        reservationService.createReservation(user, flight.getFlightId(), seatIds.get(2));
+
+        assertThatThrownBy(() -> reservationService.createGroupReservation(
+                user.getUserId(), flight.getFlightId(), seatIds))
+                .hasMessageContaining("not available");
+
+        for (Long seatId : seatIds.subList(0, 2)) {
+            assertThat(seatRepository.findById(seatId).orElseThrow().getBookingStatus())
+                    .isEqualTo(BookingStatus.AVAILABLE);
+            assertThat(seatService.isSeatAvailable(flight.getFlightId(), seatId)).isTrue();
+        }
+    }
+
+    @Test
+    void rejectsSeatsOfAnotherFlight() {
+        Flight flight = createFlight(12);
+        Flight other = createFlight(12);
+
+        assertThatThrownBy(() -> reservationService.createGroupReservation(
+                user.getUserId(), flight.getFlightId(), seatIds(other, 2)))
+                .hasMessageContaining("does not belong");
+    }
+
+    private Flight createFlight(int seats) {
+        LocalDateTime departure = LocalDateTime.now().plusDays(2);
+        return flightService.createFlight("GRP-" + FLIGHT_NUMBERS.incrementAndGet(), "Nairobi", "Mombasa",
+                departure, departure.plusHours(1), seats, 480.0, AircraftLayout.DEFAULT);
+    }
+
+    private List<Long> seatIds(Flight flight, int count) {
+        return seatService.getSeatsByFlight(flight.getFlightId()).stream()
+                .map(Seat::getSeatId)
+                .limit(count)
+                .toList();
+    }
+}
@@ -0,0 +1,121 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.dto.response.CursorPage;
+import com.AirlineBooking.AirlineBookig.dto.view.FlightView;
+import com.AirlineBooking.AirlineBookig.dto.view.ReservationView;
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.model.Seat;
+import com.AirlineBooking.AirlineBookig.model.User;
+import com.AirlineBooking.AirlineBookig.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(showSql = false,
+        properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({ ReservationService.class, SeatService.class, SeatInventory.class, FlightService.class,
+        FlightSearchIndex.class, CatalogCache.class, FlightVersions.class, FlightLockManager.class,
+        SeatHoldService.class, SeatAllocator.class })
+class KeysetPaginationTest {
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void walksFlightsByDepartureTimeThenId() {
+        LocalDateTime base = LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.MINUTES);
+        List<Long> created = new ArrayList<>();
+        // Several flights share a departure time, so the id has to break ties
+        for (int i = 0; i < 11; i++) {
+            LocalDateTime departure = base.plusHours(i / 3);
+            created.add(flightService.createFlight("PG-" + i, "Nairobi", "Mombasa",
+                    departure, departure.plusHours(1), 6, 480.0, AircraftLayout.DEFAULT).getFlightId());
+        }
+
+        List<FlightView> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<FlightView> page = flightService.getFlightsPage(cursor, 4);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(4);
+            assertThat(page.isHasMore()).isEqualTo(page.getNextCursor() != null);
+            walked.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(walked).extracting(FlightView::flightId).doesNotHaveDuplicates().containsAll(created);
+        assertThat(walked).isSortedAccordingTo(Comparator.comparing(FlightView::departureTime)
+                .thenComparing(FlightView::flightId));
+        assertThat(walked.stream().map(FlightView::flightId).filter(created::contains).toList())
+                .containsExactlyElementsOf(created);
+        assertThat(pages).isEqualTo((walked.size() + 3) / 4);
+    }
+
+    @Test
+    void walksReservationsNewestFirst() {
+        User user = new User();
+        user.setName("Page Walker");
+        user.setEmail("pages@example.com");
+        user.setPassword("secret123");
+        user = userRepository.save(user);
+
+        LocalDateTime departure = LocalDateTime.now().plusDays(2);
+        Flight flight = flightService.createFlight("PG-RES", "Nairobi", "Kisumu",
+                departure, departure.plusHours(1), 24, 300.0, AircraftLayout.DEFAULT);
+        Flight other = flightService.createFlight("PG-OTHER", "Nairobi", "Kisumu",
+                departure, departure.plusHours(1), 6, 300.0, AircraftLayout.DEFAULT);
+        List<Long> seatIds = seatService.getSeatsByFlight(flight.getFlightId()).stream()
+                .map(Seat::getSeatId).limit(7).toList();
+        for (Long seatId : seatIds) {
+            reservationService.createReservation(user, flight.getFlightId(), seatId);
+        }
+        reservationService.createReservation(user, other.getFlightId(),
+                seatService.getSeatsByFlight(other.getFlightId()).get(0).getSeatId());
+
+        CursorPage<ReservationView> first = reservationService.getFlightReservationsPage(flight.getFlightId(), null, 5);
+        CursorPage<ReservationView> second = reservationService.getFlightReservationsPage(
+                flight.getFlightId(), first.getNextCursor(), 5);
+
+        assertThat(first.getItems()).hasSize(5);
+        assertThat(second.getItems()).hasSize(2);
+        assertThat(second.getNextCursor()).isNull();
+        List<ReservationView> all = new ArrayList<>(first.getItems());
+        all.addAll(second.getItems());
+        assertThat(all).extracting(ReservationView::seatId).containsExactlyInAnyOrderElementsOf(seatIds);
+        assertThat(all).extracting(ReservationView::reservationId)
+                .isSortedAccordingTo(Comparator.reverseOrder());
+
+        CursorPage<ReservationView> everything = reservationService.getReservationsPage(null, 3);
+        assertThat(everything.getItems()).hasSize(3);
+        assertThat(everything.getItems().get(0).flightId()).isEqualTo(other.getFlightId());
+    }
+
+    @Test
+    void rejectsTamperedCursors() {
+        assertThatThrownBy(() -> flightService.getFlightsPage("not a cursor", 10))
+                .hasMessage("Invalid page cursor");
+        assertThatThrownBy(() -> reservationService.getReservationsPage("eHl6", 10))
+                .hasMessage("Invalid page cursor");
+    }
+}
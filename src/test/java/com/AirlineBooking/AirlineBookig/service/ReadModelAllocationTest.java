@@ -0,0 +1,102 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.dto.response.FlightResponse;
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.model.FlightStatus;
+import com.AirlineBooking.AirlineBookig.repository.FlightRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allocation of the flight listing: managed entities copied into responses
+ * versus read-only FlightView rows.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // Measure the read model, not the catalog cache
+        "booking.cache.max-entries=0" })
+@Import({ FlightService.class, FlightSearchIndex.class, CatalogCache.class, FlightVersions.class, SeatInventory.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadModelAllocationTest {
+
+    private static final int FLIGHTS = 500;
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void viewRowsAllocateLessThanManagedEntities() {
+        insertFlights();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        Supplier<List<FlightResponse>> entities = () -> tx.execute(status ->
+                flightRepository.findByStatus(FlightStatus.SCHEDULED).stream()
+                        .map(FlightResponse::fromEntity)
+                        .toList());
+        Supplier<List<FlightResponse>> views = () -> flightService.getScheduledFlights().stream()
+                .map(FlightResponse::fromView)
+                .toList();
+
+        assertThat(views.get()).hasSize(FLIGHTS).isEqualTo(entities.get());
+
+        assertThat(allocatedBytes(views)).isLessThan(allocatedBytes(entities));
+    }
+
+    /**
+     * Bytes allocated per call, averaged after a warm-up
+     */
+    private static long allocatedBytes(Supplier<?> listing) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 30; i++) {
+            listing.get();
+        }
+        int rounds = 100;
+        long bytes = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < rounds; i++) {
+            listing.get();
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - bytes) / rounds;
+    }
+
+    private void insertFlights() {
+        LocalDateTime departure = LocalDateTime.now().plusDays(10).withNano(0);
+        List<Flight> flights = new ArrayList<>(FLIGHTS);
+        for (int i = 0; i < FLIGHTS; i++) {
+            Flight flight = new Flight();
+            flight.setFlightNumber("RM-" + i);
+            flight.setOrigin("Nairobi");
+            flight.setDestination("Destination " + (i % 40));
+            flight.setDepartureTime(departure.plusMinutes(i));
+            flight.setArrivalTime(departure.plusMinutes(i + 90));
+            flight.setSeatCapacity(180);
+            flight.setDistance(500.0 + i);
+            flight.setAircraftLayout(AircraftLayout.DEFAULT);
+            flight.setStatus(FlightStatus.SCHEDULED);
+            flight.setAvailableSeats(new int[] { 150, 18, 12 });
+            flights.add(flight);
+        }
+        flightRepository.insertFlights(flights);
+    }
+}
@@ -0,0 +1,158 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.dto.response.ReservationResponse;
+import com.AirlineBooking.AirlineBookig.dto.view.ReservationView;
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.model.Reservation;
+import com.AirlineBooking.AirlineBookig.model.Seat;
+import com.AirlineBooking.AirlineBookig.model.User;
+import com.AirlineBooking.AirlineBookig.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Listing reservations must cost a fixed number of statements, however
+ * many reservations come back: user, flight and seat are fetched with the
+ * reservations instead of lazily per row.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true" })
+@Import({ ReservationService.class, SeatService.class, SeatInventory.class, FlightService.class,
+        FlightSearchIndex.class, CatalogCache.class, FlightVersions.class, FlightLockManager.class,
+        SeatHoldService.class, SeatAllocator.class, AnalyticsService.class })
+class ReservationQueryCountTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void userReservationsTakeOneQuery() {
+        for (int count : new int[] { 1, 8 }) {
+            Booked booked = book("MY-" + count, count);
+            long statements = countStatements(() -> reservationService.getUserReservations(booked.user.getUserId()));
+            assertThat(statements).as("statements for %d reservations", count).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void reservationPagesTakeOneQuery() {
+        for (int count : new int[] { 1, 8 }) {
+            Booked booked = book("PAGE-" + count, count);
+            assertThat(countViewStatements(() -> reservationService
+                    .getFlightReservationsPage(booked.flight.getFlightId(), null, 50).getItems()))
+                    .as("flight page of %d reservations", count).isEqualTo(1);
+            assertThat(countViewStatements(() -> reservationService.getReservationsPage(null, 50).getItems()))
+                    .as("admin page after %d reservations", count).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void singleReservationTakesOneQuery() {
+        Booked booked = book("ONE", 1);
+        Long reservationId = booked.reservations.get(0).getReservationId();
+
+        assertThat(countStatements(() -> List.of(
+                reservationService.getReservationByIdAndUserId(reservationId, booked.user.getUserId()))))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void analyticsQueryCountDoesNotGrowWithReservations() {
+        book("AN-1", 1);
+        long few = countStatements(() -> {
+            analyticsService.getAnalytics();
+            return List.of();
+        });
+        book("AN-2", 8);
+        long many = countStatements(() -> {
+            analyticsService.getAnalytics();
+            return List.of();
+        });
+
+        assertThat(few).isEqualTo(2);
+        assertThat(many).isEqualTo(few);
+    }
+
+    /**
+     * Run a listing with an empty persistence context, map it to responses and count the JDBC statements
+     */
+    private long countStatements(Supplier<List<Reservation>> listing) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        listing.get().forEach(ReservationResponse::fromEntity);
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Same as countStatements, for listings that return read-only rows
+     */
+    private long countViewStatements(Supplier<List<ReservationView>> listing) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        listing.get().forEach(ReservationResponse::fromView);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Booked book(String flightNumber, int count) {
+        User newUser = new User();
+        newUser.setName("Query Counter " + flightNumber);
+        newUser.setEmail(flightNumber.toLowerCase() + "@example.com");
+        newUser.setPassword("secret123");
+        User user = userRepository.save(newUser);
+
+        LocalDateTime departure = LocalDateTime.now().plusDays(4);
+        Flight flight = flightService.createFlight(flightNumber, "Nairobi", "Mombasa",
+                departure, departure.plusHours(1), 12, 480.0, AircraftLayout.DEFAULT);
+        List<Long> seatIds = seatService.getSeatsByFlight(flight.getFlightId()).stream()
+                .map(Seat::getSeatId).limit(count).toList();
+        List<Reservation> reservations = seatIds.stream()
+                .map(seatId -> reservationService.createReservation(user, flight.getFlightId(), seatId))
+                .toList();
+        return new Booked(user, flight, reservations);
+    }
+
+    private record Booked(User user, Flight flight, List<Reservation> reservations) {
+    }
+}
@@ -0,0 +1,169 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.dto.response.ImportRowError;
+import com.AirlineBooking.AirlineBookig.dto.response.ScheduleImportResult;
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.repository.FlightRepository;
+import com.AirlineBooking.AirlineBookig.repository.SeatRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "booking.import.chunk-size=50" })
+@ImportAutoConfiguration({ JacksonAutoConfiguration.class, ValidationAutoConfiguration.class })
+@Import({ ScheduleImportService.class, FlightService.class, FlightSearchIndex.class, CatalogCache.class,
+        FlightVersions.class, SeatInventory.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ScheduleImportServiceTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.now().plusDays(30).withNano(0);
+
+    @Autowired
+    private ScheduleImportService importService;
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Test
+    void importsCsvAndReportsRowErrors() {
+        flightService.createFlight("CSV-EXISTING", "Nairobi", "Mombasa", DEPARTURE, DEPARTURE.plusHours(1),
+                60, 480.0, null);
+
+        String csv = String.join("\n",
+                "aircraftLayout,flightNumber,origin,destination,departureTime,arrivalTime,seatCapacity,distance",
+                "REGIONAL_4,CSV-1,Nairobi,Kisumu," + DEPARTURE + "," + DEPARTURE.plusHours(1) + ",40,300",
+                ",CSV-2,\"Nairobi, JKIA\",Eldoret," + DEPARTURE + "," + DEPARTURE.plusHours(1) + ",12,250",
+                ",CSV-EXISTING,Nairobi,Mombasa," + DEPARTURE + "," + DEPARTURE.plusHours(1) + ",60,480",
+                ",CSV-1,Nairobi,Kisumu," + DEPARTURE + "," + DEPARTURE.plusHours(1) + ",40,300",
+                ",CSV-3,Nairobi,Lamu,not-a-date," + DEPARTURE.plusHours(1) + ",40,300",
+                "REGIONAL_4,CSV-4,Nairobi,Malindi," + DEPARTURE + "," + DEPARTURE.plusHours(1) + ",81,300",
+                ",CSV-5,,Malindi," + DEPARTURE + "," + DEPARTURE.plusHours(1) + ",10,300",
+                "");
+
+        ScheduleImportResult result = importService.importCsv("csv-test", stream(csv));
+
+        assertThat(result.getStatus()).isEqualTo("COMPLETED");
+        assertThat(result.getRowsRead()).isEqualTo(7);
+        assertThat(result.getFlightsCreated()).isEqualTo(2);
+        assertThat(result.getSeatsCreated()).isEqualTo(52);
+        assertThat(result.getRowsRejected()).isEqualTo(5);
+        assertThat(result.getErrors()).extracting(ImportRowError::getRow, ImportRowError::getMessage)
+                .containsExactly(
+                        tuple(4L, "Flight number already exists"),
+                        tuple(5L, "Flight number already exists"),
+                        tuple(6L, "Invalid departureTime: not-a-date"),
+                        tuple(7L, "Seat capacity exceeds the REGIONAL_4 layout (80 seats)"),
+                        tuple(8L, "Origin is required"));
+
+        Flight regional = flightRepository.findByFlightNumber("CSV-1").orElseThrow();
+        assertThat(regional.getAircraftLayout()).isEqualTo(AircraftLayout.REGIONAL_4);
+        assertThat(seatRepository.findByFlight_FlightId(regional.getFlightId())).hasSize(40);
+        assertThat(flightRepository.findByFlightNumber("CSV-2").orElseThrow().getOrigin()).isEqualTo("Nairobi, JKIA");
+        assertThat(flightService.getAvailableSeatCount(regional.getFlightId())).isEqualTo(40);
+        assertThat(importService.getImport("csv-test").getFlightsCreated()).isEqualTo(2);
+    }
+
+    @Test
+    void streamsLargeJsonUploadInChunks() {
+        int flights = 2_000;
+        InputStream rows = new SequenceInputStream(Collections.enumeration(IntStream.range(0, flights)
+                .mapToObj(i -> stream((i == 0 ? "[" : ",") + "{\"flightNumber\":\"JS-" + i + "\","
+                        + "\"origin\":\"Nairobi\",\"destination\":\"Entebbe\","
+                        + "\"departureTime\":\"" + DEPARTURE.plusMinutes(i) + "\","
+                        + "\"arrivalTime\":\"" + DEPARTURE.plusMinutes(i + 70) + "\","
+                        + "\"seatCapacity\":" + (i == 7 ? "\"many\"" : "30") + ",\"distance\":520}"))
+                .toList()));
+        InputStream upload = new SequenceInputStream(rows, stream("]"));
+
+        ScheduleImportResult result = importService.importJson(null, upload);
+
+        assertThat(result.getStatus()).isEqualTo("COMPLETED");
+        assertThat(result.getRowsRead()).isEqualTo(flights);
+        assertThat(result.getFlightsCreated()).isEqualTo(flights - 1);
+        assertThat(result.getSeatsCreated()).isEqualTo((flights - 1) * 30L);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(8);
+            assertThat(error.getFlightNumber()).isEqualTo("JS-7");
+        });
+        Flight last = flightRepository.findByFlightNumber("JS-" + (flights - 1)).orElseThrow();
+        assertThat(seatRepository.findByFlight_FlightId(last.getFlightId())).hasSize(30);
+    }
+
+    @Test
+    void stopsOnMalformedJsonButKeepsCommittedChunks() {
+        String json = "[{\"flightNumber\":\"BAD-1\",\"origin\":\"Nairobi\",\"destination\":\"Kigali\","
+                + "\"departureTime\":\"" + DEPARTURE + "\",\"arrivalTime\":\"" + DEPARTURE.plusHours(2) + "\","
+                + "\"seatCapacity\":20,\"distance\":760}, 42]";
+
+        ScheduleImportResult result = importService.importJson("bad-json", stream(json));
+
+        assertThat(result.getStatus()).isEqualTo("FAILED");
+        assertThat(result.getFlightsCreated()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement()
+                .extracting(ImportRowError::getMessage).asString().startsWith("Import stopped:");
+        assertThat(flightRepository.existsByFlightNumber("BAD-1")).isTrue();
+    }
+
+    @Test
+    void flightNumbersOfAFailedChunkCanBeImportedLater() {
+        StringBuilder csv = new StringBuilder("flightNumber,origin,destination,departureTime,arrivalTime,seatCapacity,distance\n");
+        for (int i = 0; i < 50; i++) {
+            csv.append("RETRY-").append(i).append(",Nairobi,Arusha,").append(DEPARTURE).append(',')
+                    .append(DEPARTURE.plusHours(1)).append(",10,270\n");
+        }
+        csv.append("RETRY-1,Nairobi,Arusha,").append(DEPARTURE).append(',')
+                .append(DEPARTURE.plusHours(1)).append(",10,270\n");
+
+        // RETRY-0 is created by someone else once the import has started, so the first chunk fails
+        InputStream createdMeanwhile = new InputStream() {
+            private boolean created;
+
+            @Override
+            public int read() {
+                if (!created) {
+                    created = true;
+                    flightService.createFlight("RETRY-0", "Nairobi", "Arusha", DEPARTURE, DEPARTURE.plusHours(1),
+                            10, 270.0, null);
+                }
+                return -1;
+            }
+        };
+        ScheduleImportResult result = importService.importCsv("retry-test",
+                new SequenceInputStream(createdMeanwhile, stream(csv.toString())));
+
+        assertThat(result.getStatus()).isEqualTo("COMPLETED");
+        assertThat(result.getRowsRejected()).isEqualTo(50);
+        assertThat(result.getFlightsCreated()).isEqualTo(1);
+        assertThat(flightRepository.existsByFlightNumber("RETRY-1")).isTrue();
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,92 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.CabinClass;
+import com.AirlineBooking.AirlineBookig.model.SeatPreference;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SeatAllocatorTest {
+
+    private final SeatInventory seatInventory = mock(SeatInventory.class);
+    private final SeatAllocator allocator = new SeatAllocator(seatInventory);
+
+    /**
+     * Build a cabin from row strings such as "AB.DEF" ('.' = taken); seat id = row * 10 + column
+     */
+    private void cabin(String... rows) {
+        int[] rowNumbers = new int[rows.length];
+        long[][] seatIds = new long[rows.length][SeatInventory.MAX_COLUMNS];
+        for (int r = 0; r < rows.length; r++) {
+            rowNumbers[r] = r + 6;
+            for (int c = 0; c < rows[r].length(); c++) {
+                if (rows[r].charAt(c) != '.') {
+                    seatIds[r][c] = rowNumbers[r] * 10L + c;
+                }
+            }
+        }
+        when(seatInventory.availableRows(1L, CabinClass.ECONOMY))
+                .thenReturn(new SeatInventory.CabinRows(rowNumbers, seatIds));
+    }
+
+    private List<Long> allocate(int partySize, SeatPreference preference) {
+        return allocate(AircraftLayout.NARROWBODY_6, partySize, preference);
+    }
+
+    private List<Long> allocate(AircraftLayout layout, int partySize, SeatPreference preference) {
+        return allocator.findBestSeats(1L, layout, CabinClass.ECONOMY, partySize, preference);
+    }
+
+    @Test
+    void seatsPartyTogetherOnOneSideOfTheAisle() {
+        cabin("A.CDEF", "ABCDEF");
+
+        // row 6 can only take three together across the aisle; D-F stays on one side
+        assertThat(allocate(3, SeatPreference.NONE)).containsExactly(63L, 64L, 65L);
+    }
+
+    @Test
+    void avoidsLeavingALoneSeat() {
+        cabin("ABCDEF");
+
+        assertThat(allocate(2, SeatPreference.NONE)).containsExactly(60L, 61L);
+    }
+
+    @Test
+    void honoursWindowAndAislePreference() {
+        cabin(".BC...", "ABCDEF");
+
+        assertThat(allocate(1, SeatPreference.AISLE)).containsExactly(62L);
+        assertThat(allocate(1, SeatPreference.WINDOW)).containsExactly(70L);
+    }
+
+    @Test
+    void splitsOverFrontRowsWhenNoRowFitsTheParty() {
+        cabin("AB..EF", "A.C.E.");
+
+        assertThat(allocate(5, SeatPreference.NONE)).containsExactly(60L, 61L, 64L, 65L, 70L);
+    }
+
+    @Test
+    void usesTheLettersAndAislesOfTheLayout() {
+        // WIDEBODY_9 is ABC DEF GHK; inventory columns are letter - 'A', so I and J are never used
+        cabin("ABCDEF.H..K");
+
+        assertThat(allocate(AircraftLayout.WIDEBODY_9, 3, SeatPreference.NONE)).containsExactly(60L, 61L, 62L);
+        assertThat(allocate(AircraftLayout.WIDEBODY_9, 2, SeatPreference.WINDOW)).containsExactly(67L, 70L);
+    }
+
+    @Test
+    void failsWhenCabinHasTooFewSeats() {
+        cabin("A.....");
+
+        assertThatThrownBy(() -> allocate(2, SeatPreference.NONE))
+                .hasMessage("Not enough ECONOMY seats available");
+    }
+}
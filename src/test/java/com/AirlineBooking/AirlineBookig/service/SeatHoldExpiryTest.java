@@ -0,0 +1,234 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.dto.response.LockStripeStats;
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.model.Reservation;
+import com.AirlineBooking.AirlineBookig.model.ReservationStatus;
+import com.AirlineBooking.AirlineBookig.model.Seat;
+import com.AirlineBooking.AirlineBookig.model.SeatHold;
+import com.AirlineBooking.AirlineBookig.model.User;
+import com.AirlineBooking.AirlineBookig.repository.ReservationRepository;
+import com.AirlineBooking.AirlineBookig.repository.SeatHoldRepository;
+import com.AirlineBooking.AirlineBookig.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hold expiry racing checkout, and the sweep of seat_holds. Holds expire
+ * immediately (TTL 0), so they are due on the next tick of the timing wheel
+ * and overdue for the sweep (no grace period).
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "booking.hold.ttl-seconds=0",
+        "booking.hold.sweep-grace-seconds=0" })
+@Import({ ReservationService.class, SeatService.class, SeatInventory.class, FlightService.class,
+        FlightSearchIndex.class, CatalogCache.class, FlightVersions.class, FlightLockManager.class,
+        SeatHoldService.class, SeatAllocator.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SeatHoldExpiryTest {
+
+    private static final AtomicInteger FLIGHT_NUMBERS = new AtomicInteger();
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private FlightLockManager flightLockManager;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private SeatHoldRepository seatHoldRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Hold Racer");
+        user.setEmail("holds" + FLIGHT_NUMBERS.incrementAndGet() + "@example.com");
+        user.setPassword("secret123");
+        user = userRepository.save(user);
+    }
+
+    @Test
+    void checkoutRacingExpiryNeverLosesAPayment() throws Exception {
+        Flight flight = createFlight();
+        List<Reservation> reservations = new ArrayList<>();
+        for (Seat seat : seatService.getSeatsByFlight(flight.getFlightId()).subList(0, 20)) {
+            reservations.add(reservationService.createReservation(user, flight.getFlightId(), seat.getSeatId()));
+        }
+        waitUntilDue();
+
+        CountDownLatch start = new CountDownLatch(1);
+        Set<Long> paid = ConcurrentHashMap.newKeySet();
+        CompletableFuture<Integer> expiry = CompletableFuture.supplyAsync(() -> {
+            await(start);
+            return seatHoldService.expireDueHolds();
+        });
+        List<CompletableFuture<Void>> checkouts = new ArrayList<>();
+        for (Reservation reservation : reservations) {
+            checkouts.add(CompletableFuture.runAsync(() -> {
+                await(start);
+                try {
+                    reservationService.checkoutReservation(reservation.getReservationId(), user.getUserId(), null);
+                    paid.add(reservation.getReservationId());
+                } catch (RuntimeException e) {
+                    // Expired first
+                }
+            }));
+        }
+        start.countDown();
+        int expired = expiry.get(10, TimeUnit.SECONDS);
+        CompletableFuture.allOf(checkouts.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertThat(paid.size() + expired).isEqualTo(reservations.size());
+        for (Reservation reservation : reservations) {
+            Reservation stored = reservationRepository.findById(reservation.getReservationId()).orElseThrow();
+            boolean seatAvailable = seatService.isSeatAvailable(flight.getFlightId(), reservation.getSeat().getSeatId());
+            if (paid.contains(reservation.getReservationId())) {
+                assertThat(stored.getStatus()).isEqualTo(ReservationStatus.PAID);
+                assertThat(seatAvailable).isFalse();
+            } else {
+                assertThat(stored.getStatus()).isEqualTo(ReservationStatus.CANCELLED);
+                assertThat(seatAvailable).isTrue();
+            }
+        }
+    }
+
+    @Test
+    void expiryKeepsAReservationPaidWhileItWaitedForTheFlightLock() throws Exception {
+        Flight flight = createFlight();
+        Long seatId = seatService.getSeatsByFlight(flight.getFlightId()).get(0).getSeatId();
+        Reservation reservation = reservationService.createReservation(user, flight.getFlightId(), seatId);
+        waitUntilDue();
+
+        // Expiry has read the reservation (as a MySQL snapshot would have it)
+        // and waits for the flight lock held here
+        flightLockManager.lock(flight.getFlightId());
+        CompletableFuture<Integer> expiry = CompletableFuture.supplyAsync(
+                () -> new TransactionTemplate(transactionManager).execute(status -> {
+                    reservationRepository.findById(reservation.getReservationId());
+                    return seatHoldService.expireDueHolds();
+                }));
+        while (queueDepth(flight.getFlightId()) == 0) {
+            Thread.sleep(5);
+        }
+
+        // Meanwhile the reservation is paid, as on another node that does not share the lock
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Reservation stored = reservationRepository.findById(reservation.getReservationId()).orElseThrow();
+            stored.setStatus(ReservationStatus.PAID);
+            seatHoldRepository.deleteByReservationId(reservation.getReservationId());
+        });
+        flightLockManager.unlock(flight.getFlightId());
+
+        assertThat(expiry.get(10, TimeUnit.SECONDS)).isZero();
+        assertThat(reservationRepository.findById(reservation.getReservationId()).orElseThrow().getStatus())
+                .isEqualTo(ReservationStatus.PAID);
+        assertThat(seatService.isSeatAvailable(flight.getFlightId(), seatId)).isFalse();
+    }
+
+    @Test
+    void sweepExpiresHoldsPlacedOnAnotherNode() throws Exception {
+        Flight flight = createFlight();
+        List<Seat> seats = seatService.getSeatsByFlight(flight.getFlightId());
+        Reservation local = reservationService.createReservation(user, flight.getFlightId(), seats.get(0).getSeatId());
+
+        // Booked on another node: the hold is in seat_holds but not in this node's timing wheel
+        Long seatId = seats.get(1).getSeatId();
+        Reservation remote = new TransactionTemplate(transactionManager).execute(status -> {
+            seatService.reserveSeat(flight.getFlightId(), seatId);
+            Reservation reservation = new Reservation();
+            reservation.setUser(user);
+            reservation.setFlight(flight);
+            reservation.setSeat(seatService.getSeatReference(seatId));
+            reservation.setStatus(ReservationStatus.CONFIRMED);
+            reservation = reservationRepository.save(reservation);
+            SeatHold hold = new SeatHold();
+            hold.setReservationId(reservation.getReservationId());
+            hold.setFlightId(flight.getFlightId());
+            hold.setSeatId(seatId);
+            hold.setExpiresAt(LocalDateTime.now());
+            seatHoldRepository.save(hold);
+            return reservation;
+        });
+        waitUntilDue();
+
+        assertThat(seatHoldService.expireDueHolds()).isEqualTo(1);
+        assertThat(reservationRepository.findById(remote.getReservationId()).orElseThrow().getStatus())
+                .isEqualTo(ReservationStatus.CONFIRMED);
+
+        assertThat(seatHoldService.expireOverdueHolds()).isEqualTo(1);
+        assertThat(seatHoldService.expireOverdueHolds()).isZero();
+        for (Reservation reservation : List.of(local, remote)) {
+            assertThat(reservationRepository.findById(reservation.getReservationId()).orElseThrow().getStatus())
+                    .isEqualTo(ReservationStatus.CANCELLED);
+            assertThat(seatService.isSeatAvailable(flight.getFlightId(), reservation.getSeat().getSeatId())).isTrue();
+        }
+        assertThat(seatHoldRepository.findByReservationIdIn(
+                List.of(local.getReservationId(), remote.getReservationId()))).isEmpty();
+    }
+
+    private void waitUntilDue() throws InterruptedException {
+        Thread.sleep(1100);
+    }
+
+    private int queueDepth(Long flightId) {
+        return flightLockManager.getStats().stream()
+                .filter(stats -> stats.getLastFlightId() == flightId)
+                .mapToInt(LockStripeStats::getQueueDepth)
+                .sum();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Flight createFlight() {
+        LocalDateTime departure = LocalDateTime.now().plusDays(2);
+        return flightService.createFlight("EXP-" + FLIGHT_NUMBERS.incrementAndGet(), "Nairobi", "Mombasa",
+                departure, departure.plusHours(1), 60, 480.0, AircraftLayout.DEFAULT);
+    }
+}
@@ -0,0 +1,104 @@
+package com.AirlineBooking.AirlineBookig.service;
+
+import com.AirlineBooking.AirlineBookig.dto.response.SeatResponse;
+import com.AirlineBooking.AirlineBookig.model.AircraftLayout;
+import com.AirlineBooking.AirlineBookig.model.Flight;
+import com.AirlineBooking.AirlineBookig.model.Seat;
+import com.AirlineBooking.AirlineBookig.model.User;
+import com.AirlineBooking.AirlineBookig.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loading a seat map must cost a fixed number of statements, however many
+ * seats the flight has and however many of them are reserved.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true" })
+@Import({ ReservationService.class, SeatService.class, SeatInventory.class, FlightService.class,
+        FlightSearchIndex.class, CatalogCache.class, FlightVersions.class, FlightLockManager.class,
+        SeatHoldService.class, SeatAllocator.class })
+class SeatMapQueryCountTest {
+
+    private static final int SEATS = 300;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void seatMapQueryCountDoesNotGrowWithReservations() {
+        Flight flight = reservedFlight("MAP-1", 40);
+
+        // seats, then the flight behind the lazy association
+        assertThat(countStatements(() -> seatService.getSeatsByFlight(flight.getFlightId())
+                .forEach(SeatResponse::fromEntity))).isEqualTo(2);
+        assertThat(countStatements(() -> seatService.getSeatViews(flight.getFlightId())
+                .forEach(SeatResponse::fromView))).isEqualTo(1);
+        assertThat(countStatements(() -> seatInventory.reload(flight.getFlightId()))).isEqualTo(1);
+    }
+
+    /**
+     * Run a seat-map load with an empty persistence context and count the JDBC statements
+     */
+    private long countStatements(Runnable load) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        load.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Flight reservedFlight(String flightNumber, int reserved) {
+        User newUser = new User();
+        newUser.setName("Seat Map " + flightNumber);
+        newUser.setEmail(flightNumber.toLowerCase() + "@example.com");
+        newUser.setPassword("secret123");
+        User user = userRepository.save(newUser);
+
+        LocalDateTime departure = LocalDateTime.now().plusDays(4);
+        Flight flight = flightService.createFlight(flightNumber, "Nairobi", "Kisumu",
+                departure, departure.plusHours(1), SEATS, 350.0, AircraftLayout.WIDEBODY_9);
+        List<Long> seatIds = seatService.getSeatsByFlight(flight.getFlightId()).stream()
+                .map(Seat::getSeatId).limit(reserved).toList();
+        seatIds.forEach(seatId -> reservationService.createReservation(user, flight.getFlightId(), seatId));
+        return flight;
+    }
+}
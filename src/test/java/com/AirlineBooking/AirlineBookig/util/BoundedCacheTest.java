@@ -0,0 +1,90 @@
+package com.AirlineBooking.AirlineBookig.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryAndExpiresOldOnes() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 2, 1000, now::get);
+        get(cache, "a", 1);
+        get(cache, "b", 2);
+        get(cache, "a", 1);
+        get(cache, "c", 3);
+        assertThat(loads).hasValue(3);
+
+        get(cache, "a", 1);
+        assertThat(loads).hasValue(3);
+        get(cache, "b", 2);
+        assertThat(loads).hasValue(4);
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        get(cache, "b", 2);
+        assertThat(loads).hasValue(5);
+
+        BoundedCache.Stats stats = cache.stats();
+        assertThat(stats.size()).isEqualTo(2);
+        assertThat(stats.hits()).isEqualTo(2);
+        assertThat(stats.misses()).isEqualTo(5);
+        assertThat(stats.evictions()).isEqualTo(2);
+        assertThat(stats.expirations()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidatesByTagAndKey() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10, 1000, now::get);
+        get(cache, "ab", 1, 2);
+        get(cache, "bc", 2, 3);
+        get(cache, "cd", 3, 4);
+
+        cache.invalidateTag(2);
+        assertThat(cache.size()).isEqualTo(1);
+        get(cache, "cd", 3, 4);
+        assertThat(loads).hasValue(3);
+
+        cache.invalidateKeys(key -> key.startsWith("c"));
+        assertThat(cache.size()).isZero();
+        assertThat(cache.stats().invalidations()).isEqualTo(3);
+    }
+
+    @Test
+    void doesNotStoreALoadThatRacedAnInvalidation() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10, 1000, now::get);
+        String stale = cache.get("a", () -> {
+            cache.invalidateTag(1);
+            return "old";
+        }, value -> List.of(1L));
+
+        assertThat(stale).isEqualTo("old");
+        assertThat(cache.size()).isZero();
+        assertThat(get(cache, "a", 1)).isEqualTo("a");
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void zeroEntriesDisablesCaching() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 0, 1000, now::get);
+        get(cache, "a", 1);
+        get(cache, "a", 1);
+        assertThat(loads).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    private String get(BoundedCache<String, String> cache, String key, long... tags) {
+        return cache.get(key, () -> {
+            loads.incrementAndGet();
+            return key;
+        }, value -> Arrays.stream(tags).boxed().toList());
+    }
+}
@@ -0,0 +1,95 @@
+package com.AirlineBooking.AirlineBookig.util;
+
+import com.AirlineBooking.AirlineBookig.util.ConnectionIndex.Itinerary;
+import com.AirlineBooking.AirlineBookig.util.ConnectionIndex.Rules;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionIndexTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2030, 1, 1, 6, 0);
+    private static final LocalDateTime DAY_END = T0.toLocalDate().plusDays(1).atStartOfDay();
+
+    private static final Rules TWO_STOPS = new Rules(2, Duration.ofMinutes(45), Duration.ofHours(6));
+
+    @Test
+    void findsDirectAndConnectingTripsEarliestArrivalFirst() {
+        ConnectionIndex index = new ConnectionIndex();
+        // Direct but slow
+        put(index, 1, "Kisumu", "Lamu", T0.plusHours(1), 9);
+        // Kisumu -> Nairobi -> Lamu: 45 minute connection is just enough
+        put(index, 2, "Kisumu", "Nairobi", T0, 1);
+        put(index, 3, "Nairobi", "Lamu", T0.plusHours(1).plusMinutes(45), 2);
+        // Too short a connection
+        put(index, 4, "Nairobi", "Lamu", T0.plusHours(1).plusMinutes(30), 1);
+        // Kisumu -> Nairobi -> Mombasa -> Lamu
+        put(index, 5, "Nairobi", "Mombasa", T0.plusHours(2), 1);
+        put(index, 6, "Mombasa", "Lamu", T0.plusHours(4), 1);
+
+        assertThat(index.search("kisumu", " LAMU ", T0, DAY_END, TWO_STOPS, 10))
+                .extracting(Itinerary::flightIds)
+                .containsExactly(List.of(2L, 3L), List.of(2L, 5L, 6L), List.of(1L));
+
+        Rules oneStop = new Rules(1, TWO_STOPS.minConnection(), TWO_STOPS.maxLayover());
+        assertThat(index.search("Kisumu", "Lamu", T0, DAY_END, oneStop, 10))
+                .extracting(Itinerary::stops)
+                .containsExactly(1, 0);
+        assertThat(index.search("Kisumu", "Lamu", T0, DAY_END, TWO_STOPS, 1))
+                .extracting(Itinerary::flightIds)
+                .containsExactly(List.of(2L, 3L));
+
+        Itinerary best = index.search("Kisumu", "Lamu", T0, DAY_END, TWO_STOPS, 1).get(0);
+        assertThat(best.departureTime()).isEqualTo(T0);
+        assertThat(best.arrivalTime()).isEqualTo(T0.plusHours(3).plusMinutes(45));
+    }
+
+    @Test
+    void respectsLayoverWindowAvailabilityAndRemovals() {
+        ConnectionIndex index = new ConnectionIndex();
+        put(index, 1, "Kisumu", "Nairobi", T0, 1);
+        put(index, 2, "Nairobi", "Lamu", T0.plusHours(8), 1);
+        put(index, 3, "Nairobi", "Lamu", T0.plusHours(3), 1);
+
+        // Flight 2 leaves seven hours after landing: longer than the maximum layover
+        assertThat(index.search("Kisumu", "Lamu", T0, DAY_END, TWO_STOPS, 10))
+                .extracting(Itinerary::flightIds)
+                .containsExactly(List.of(1L, 3L));
+
+        assertThat(index.setAvailable(3, false)).isTrue();
+        assertThat(index.search("Kisumu", "Lamu", T0, DAY_END, TWO_STOPS, 10)).isEmpty();
+
+        assertThat(index.setAvailable(3, true)).isTrue();
+        // The first flight must depart inside the window
+        assertThat(index.search("Kisumu", "Lamu", T0.plusMinutes(1), DAY_END, TWO_STOPS, 10)).isEmpty();
+
+        assertThat(index.remove(1)).isTrue();
+        assertThat(index.remove(1)).isFalse();
+        assertThat(index.setAvailable(1, true)).isFalse();
+        assertThat(index.search("Kisumu", "Lamu", T0, DAY_END, TWO_STOPS, 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void neverRevisitsAPlace() {
+        ConnectionIndex index = new ConnectionIndex();
+        put(index, 1, "Kisumu", "Nairobi", T0, 1);
+        put(index, 2, "Nairobi", "Kisumu", T0.plusHours(2), 1);
+        put(index, 3, "Kisumu", "Lamu", T0.plusHours(4), 1);
+
+        // Only flight 1 departs in the window; going back through Kisumu to catch flight 3 is not a connection
+        assertThat(index.search("Kisumu", "Lamu", T0, T0.plusHours(1), TWO_STOPS, 10)).isEmpty();
+        assertThat(index.search("Kisumu", "Lamu", T0, DAY_END, TWO_STOPS, 10))
+                .extracting(Itinerary::flightIds)
+                .containsExactly(List.of(3L));
+    }
+
+    private static void put(ConnectionIndex index, long id, String origin, String destination,
+            LocalDateTime departure, int hours) {
+        index.put(id, origin, destination, departure, departure.plusHours(hours), true);
+    }
+}
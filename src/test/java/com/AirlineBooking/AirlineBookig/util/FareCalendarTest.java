@@ -0,0 +1,58 @@
+package com.AirlineBooking.AirlineBookig.util;
+
+import com.AirlineBooking.AirlineBookig.util.FareCalendar.Day;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FareCalendarTest {
+
+    private static final LocalDate D0 = LocalDate.of(2030, 1, 10);
+
+    private static final int[] OPEN = { 5, 5, 5 };
+
+    @Test
+    void keepsTheCheapestAvailableFarePerDayAndCabin() {
+        FareCalendar calendar = new FareCalendar();
+        calendar.put(1, "Nairobi", "Mombasa", D0, new double[] { 100, 200, 300 }, OPEN);
+        calendar.put(2, " nairobi", "MOMBASA ", D0, new double[] { 80, 160, 240 }, new int[] { 0, 2, 0 });
+        calendar.put(3, "Nairobi", "Mombasa", D0.plusDays(2), new double[] { 90, 180, 270 }, OPEN);
+        calendar.put(4, "Nairobi", "Kisumu", D0, new double[] { 10, 20, 30 }, OPEN);
+
+        List<Day> days = calendar.days("Nairobi", "Mombasa", D0.minusDays(1), D0.plusDays(2));
+        assertThat(days).containsExactly(
+                new Day(D0.minusDays(1), null, null, null, null, 0),
+                new Day(D0, 100.0, 100.0, 160.0, 300.0, 2),
+                new Day(D0.plusDays(1), null, null, null, null, 0),
+                new Day(D0.plusDays(2), 90.0, 90.0, 180.0, 270.0, 1));
+        assertThat(calendar.days("Mombasa", "Nairobi", D0, D0)).extracting(Day::flights).containsExactly(0);
+    }
+
+    @Test
+    void followsSeatsMovesAndRemovals() {
+        FareCalendar calendar = new FareCalendar();
+        calendar.put(1, "Nairobi", "Mombasa", D0, new double[] { 100, 200, 300 }, OPEN);
+        calendar.put(2, "Nairobi", "Mombasa", D0, new double[] { 80, 160, 240 }, OPEN);
+
+        assertThat(calendar.setAvailableSeats(2, new int[] { 0, 0, 1 })).isTrue();
+        assertThat(calendar.days("Nairobi", "Mombasa", D0, D0))
+                .containsExactly(new Day(D0, 100.0, 100.0, 200.0, 240.0, 2));
+
+        calendar.put(2, "Nairobi", "Mombasa", D0.plusDays(1), new double[] { 80, 160, 240 }, OPEN);
+        assertThat(calendar.days("Nairobi", "Mombasa", D0, D0.plusDays(1))).extracting(Day::cheapestFare)
+                .containsExactly(100.0, 80.0);
+
+        assertThat(calendar.setAvailableSeats(1, new int[] { 0, 0, 0 })).isTrue();
+        assertThat(calendar.days("Nairobi", "Mombasa", D0, D0))
+                .containsExactly(new Day(D0, null, null, null, null, 1));
+
+        assertThat(calendar.remove(1)).isTrue();
+        assertThat(calendar.remove(1)).isFalse();
+        assertThat(calendar.setAvailableSeats(1, OPEN)).isFalse();
+        assertThat(calendar.days("Nairobi", "Mombasa", D0, D0)).extracting(Day::flights).containsExactly(0);
+        assertThat(calendar.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,58 @@
+package com.AirlineBooking.AirlineBookig.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void expiresEachKeyOnItsTickAcrossLevels() {
+        // 4 buckets x 3 levels: level 0 covers 4 ticks, level 1 16, level 2 64, beyond that overflows
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1, 4, 3, 0);
+        Random random = new Random(42);
+        int[] deadlines = new int[500];
+        for (int key = 0; key < deadlines.length; key++) {
+            deadlines[key] = 1 + random.nextInt(300);
+            wheel.schedule(key, deadlines[key]);
+        }
+
+        List<Integer> seen = new ArrayList<>();
+        for (int now = 1; now <= 300; now++) {
+            for (Integer key : wheel.advanceTo(now)) {
+                assertThat(deadlines[key]).as("deadline of key %d", key).isEqualTo(now);
+                seen.add(key);
+            }
+        }
+
+        assertThat(seen).hasSize(deadlines.length);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cancelledAndRescheduledKeysDoNotFireEarly() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 64, 4, 0);
+        wheel.schedule("paid", 5_000);
+        wheel.schedule("moved", 5_000);
+        wheel.schedule("moved", 90_000);
+
+        assertThat(wheel.cancel("paid")).isTrue();
+        assertThat(wheel.advanceTo(10_000)).isEmpty();
+        assertThat(wheel.advanceTo(89_000)).isEmpty();
+        assertThat(wheel.advanceTo(90_000)).containsExactly("moved");
+    }
+
+    @Test
+    void catchesUpAfterMissedTicks() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 64, 4, 0);
+        wheel.schedule("a", 3_000);
+        wheel.schedule("b", 7_200_000);
+
+        assertThat(wheel.advanceTo(3_600_000)).containsExactly("a");
+        assertThat(wheel.advanceTo(7_200_000)).containsExactly("b");
+    }
+}
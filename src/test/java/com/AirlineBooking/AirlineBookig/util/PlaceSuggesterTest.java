@@ -0,0 +1,55 @@
+package com.AirlineBooking.AirlineBookig.util;
+
+import com.AirlineBooking.AirlineBookig.util.PlaceSuggester.Suggestion;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlaceSuggesterTest {
+
+    @Test
+    void suggestsPrefixesBusiestFirstThenWordStarts() {
+        PlaceSuggester suggester = new PlaceSuggester();
+        suggester.put(1, "Nairobi", "Mombasa");
+        suggester.put(2, "Nairobi", "Nanyuki");
+        suggester.put(3, "Nairobi JKIA", "Malindi");
+        suggester.put(4, "Mombasa", "Nakuru");
+
+        assertThat(suggester.suggest("na", 10)).extracting(Suggestion::name)
+                .containsExactly("Nairobi", "Nairobi JKIA", "Nakuru", "Nanyuki");
+        assertThat(suggester.suggest("  NAIROBI ", 10)).containsExactly(
+                new Suggestion("Nairobi", 2), new Suggestion("Nairobi JKIA", 1));
+        assertThat(suggester.suggest("jk", 10)).extracting(Suggestion::name).containsExactly("Nairobi JKIA");
+        assertThat(suggester.suggest("m", 1)).containsExactly(new Suggestion("Mombasa", 2));
+        assertThat(suggester.suggest("", 10)).isEmpty();
+    }
+
+    @Test
+    void toleratesTypos() {
+        PlaceSuggester suggester = new PlaceSuggester();
+        suggester.put(1, "Nairobi", "Mombasa");
+        suggester.put(2, "Kisumu", "Eldoret");
+
+        assertThat(suggester.suggest("nairbi", 5)).extracting(Suggestion::name).containsExactly("Nairobi");
+        assertThat(suggester.suggest("mombsa", 5)).extracting(Suggestion::name).containsExactly("Mombasa");
+        assertThat(suggester.suggest("eldorret", 5)).extracting(Suggestion::name).containsExactly("Eldoret");
+        assertThat(suggester.suggest("xyz", 5)).isEmpty();
+    }
+
+    @Test
+    void placesFollowTheirFlights() {
+        PlaceSuggester suggester = new PlaceSuggester();
+        suggester.put(1, "Nairobi", "Mombasa");
+        suggester.put(2, "Nairobi", "Lamu");
+
+        suggester.put(2, "Nairobi", "Malindi");
+        assertThat(suggester.suggest("la", 10)).isEmpty();
+        assertThat(suggester.suggest("ma", 10)).extracting(Suggestion::name).containsExactly("Malindi");
+
+        assertThat(suggester.remove(1)).isTrue();
+        assertThat(suggester.remove(1)).isFalse();
+        assertThat(suggester.suggest("mom", 10)).isEmpty();
+        assertThat(suggester.suggest("nai", 10)).containsExactly(new Suggestion("Nairobi", 1));
+        assertThat(suggester.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,118 @@
+package com.AirlineBooking.AirlineBookig.util;
+
+import com.AirlineBooking.AirlineBookig.model.CabinClass;
+import com.AirlineBooking.AirlineBookig.util.RouteIndex.Query;
+import com.AirlineBooking.AirlineBookig.util.RouteIndex.SortKey;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteIndexTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2030, 1, 1, 6, 0);
+
+    /** Economy, business and first fares; seats left in every cabin */
+    private static final double[] FARES = { 100, 200, 300 };
+    private static final int[] OPEN = { 5, 5, 5 };
+    private static final int[] SOLD_OUT = { 0, 0, 0 };
+
+    @Test
+    void matchesPlaceNamesLikeTheSqlSearchAndOrdersByDeparture() {
+        RouteIndex index = new RouteIndex();
+        put(index, 1, "Nairobi", "Mombasa", T0.plusHours(3));
+        put(index, 2, " nairobi ", "MOMBASA", T0.plusHours(1));
+        put(index, 3, "Nairobi  JKIA", "Kisumu", T0.plusHours(2));
+        put(index, 4, "Mombasa", "Nairobi", T0);
+        index.put(5, "Nairobi", "Mombasa", T0.plusHours(4), T0.plusHours(5), FARES, SOLD_OUT);
+
+        assertThat(index.search("Nairobi", "Mombasa")).containsExactly(2L, 1L);
+        assertThat(index.search("nairobi jkia", null)).containsExactly(3L);
+        assertThat(index.search("NAIR", "")).containsExactly(2L, 3L, 1L);
+        assertThat(index.search(null, "nairobi")).containsExactly(4L);
+        assertThat(index.search(null, null)).containsExactly(4L, 2L, 3L, 1L);
+        assertThat(index.search("Lamu", null)).isEmpty();
+    }
+
+    @Test
+    void followsAvailabilityMovesAndRemovals() {
+        RouteIndex index = new RouteIndex();
+        put(index, 1, "Nairobi", "Mombasa", T0);
+        put(index, 2, "Nairobi", "Mombasa", T0.plusHours(1));
+
+        assertThat(index.setAvailableSeats(1, SOLD_OUT)).isTrue();
+        assertThat(index.search("Nairobi", "Mombasa")).containsExactly(2L);
+
+        put(index, 2, "Nairobi", "Kisumu", T0.plusHours(1));
+        assertThat(index.search("Nairobi", "Mombasa")).isEmpty();
+        assertThat(index.search("Nairobi", "Kisumu")).containsExactly(2L);
+
+        assertThat(index.remove(2)).isTrue();
+        assertThat(index.remove(2)).isFalse();
+        assertThat(index.setAvailableSeats(2, OPEN)).isFalse();
+        assertThat(index.search(null, null)).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void filtersByWindowCabinAndPriceAndKeepsTheTopK() {
+        RouteIndex index = new RouteIndex();
+        // id, departure offset (h), duration (h), economy fare, business seats left
+        index.put(1, "Nairobi", "Mombasa", T0, T0.plusHours(3), new double[] { 90, 180, 270 }, new int[] { 1, 0, 1 });
+        index.put(2, "Nairobi", "Mombasa", T0.plusHours(24), T0.plusHours(25), new double[] { 120, 240, 360 }, OPEN);
+        index.put(3, "Nairobi", "Mombasa", T0.plusHours(30), T0.plusHours(32), new double[] { 80, 160, 240 }, OPEN);
+        index.put(4, "Nairobi JKIA", "Mombasa", T0.plusHours(26), T0.plusHours(26).plusMinutes(50),
+                new double[] { 150, 300, 450 }, new int[] { 0, 2, 0 });
+        index.put(5, "Nairobi", "Mombasa", T0.plusHours(48), T0.plusHours(49), FARES, OPEN);
+
+        LocalDateTime day2 = T0.toLocalDate().plusDays(1).atStartOfDay();
+        LocalDateTime day3 = day2.plusDays(1);
+
+        assertThat(index.search(query(day2, day3, null, null, SortKey.DEPARTURE, 10))).containsExactly(2L, 4L, 3L);
+        assertThat(index.search(query(day2, null, null, null, SortKey.PRICE, 10))).containsExactly(3L, 5L, 2L, 4L);
+        assertThat(index.search(query(null, null, null, null, SortKey.DURATION, 2))).containsExactly(4L, 2L);
+        assertThat(index.search(query(null, null, CabinClass.BUSINESS, null, SortKey.PRICE, 10)))
+                .containsExactly(3L, 5L, 2L, 4L);
+        assertThat(index.search(query(null, null, null, 100.0, SortKey.PRICE, 10))).containsExactly(3L, 1L, 5L);
+        assertThat(index.search(query(null, day2, CabinClass.FIRST, 300.0, SortKey.DEPARTURE, 10)))
+                .containsExactly(1L);
+        assertThat(index.search(query(null, null, null, null, SortKey.PRICE, 0))).isEmpty();
+    }
+
+    @Test
+    void broadSearchKeepsTheSameTopResultsAsAFullSort() {
+        String[] cities = new String[60];
+        for (int c = 0; c < cities.length; c++) {
+            cities[c] = "City " + (char) ('A' + c % 26) + (c / 26);
+        }
+        RouteIndex index = new RouteIndex();
+        Random random = new Random(7);
+        for (long id = 1; id <= 5_000; id++) {
+            int origin = random.nextInt(cities.length);
+            int destination = (origin + 1 + random.nextInt(cities.length - 1)) % cities.length;
+            LocalDateTime departure = T0.plusMinutes(random.nextInt(525_600));
+            double distance = 200 + random.nextInt(2000);
+            index.put(id, cities[origin], cities[destination], departure, departure.plusMinutes(60 + random.nextInt(600)),
+                    new double[] { distance, distance * 1.2, distance * 1.5 },
+                    new int[] { random.nextInt(10), random.nextInt(3), random.nextInt(2) });
+        }
+
+        // Broad query: every route, one month, cheapest 20
+        Query broad = new Query(null, null, T0.plusDays(60), T0.plusDays(90), null, null, SortKey.PRICE, 20);
+        Query unbounded = new Query(null, null, T0.plusDays(60), T0.plusDays(90), null, null, SortKey.PRICE,
+                Integer.MAX_VALUE);
+        assertThat(index.search(unbounded)).hasSizeGreaterThan(20);
+        assertThat(index.search(broad)).isEqualTo(index.search(unbounded).subList(0, 20));
+    }
+
+    private static Query query(LocalDateTime from, LocalDateTime before, CabinClass cabin, Double maxPrice,
+            SortKey sort, int limit) {
+        return new Query("nairobi", "mombasa", from, before, cabin, maxPrice, sort, limit);
+    }
+
+    private static void put(RouteIndex index, long id, String origin, String destination, LocalDateTime departure) {
+        index.put(id, origin, destination, departure, departure.plusHours(1), FARES, OPEN);
+    }
+}